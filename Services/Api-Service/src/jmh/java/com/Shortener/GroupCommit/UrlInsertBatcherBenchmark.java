@@ -0,0 +1,97 @@
+package com.Shortener.GroupCommit;
+
+import com.Shortener.Entity.UrlEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Create throughput against create latency for a range of group-commit
+ * windows, with 64 concurrent creates. The database is simulated: commits
+ * are serialised, as on one write-ahead log, and each costs
+ * {@code commitMicros} plus {@code rowMicros} per row. {@code off} is the
+ * ungrouped path, one insert and commit per create.
+ *
+ * Throughput mode gives creates per second, sample mode the latency
+ * percentiles of one create, queueing included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class UrlInsertBatcherBenchmark {
+
+    @Param({ "off", "0", "1", "2", "5", "10" })
+    public String windowMs;
+
+    @Param({ "200" })
+    public long commitMicros;
+
+    @Param({ "5" })
+    public long rowMicros;
+
+    private final Object log = new Object();
+    private final AtomicLong ids = new AtomicLong();
+    private UrlInsertBatcher batcher;
+
+    @Setup
+    public void setUp() {
+        if (windowMs.equals("off")) {
+            return;
+        }
+        GroupCommitProperties properties = new GroupCommitProperties();
+        properties.setEnabled(true);
+        properties.setWindowMs(Long.parseLong(windowMs));
+        batcher = new UrlInsertBatcher(this::write, properties, new SimpleMeterRegistry());
+        batcher.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
+    @Benchmark
+    public UrlEntity create() {
+        UrlEntity url = UrlEntity.builder()
+                .originalUrl("https://example.com/some/fairly/long/path")
+                .shortCode("aB3xY9")
+                .username("benchmark-user")
+                .build();
+        if (batcher == null) {
+            write(0, List.of(url));
+            return url;
+        }
+        return batcher.insert(0, url);
+    }
+
+    private void write(int shard, List<UrlEntity> urls) {
+        synchronized (log) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(commitMicros + rowMicros * urls.size()));
+            for (UrlEntity url : urls) {
+                url.setId(ids.incrementAndGet());
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.Shortener.RateLimit;
+
+import com.Shortener.JWT.JwtUtil;
+import com.Shortener.JWT.TokenRevocationList;
+import com.Shortener.Metrics.ShortenerMetrics;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the rate limit filter's work, with 4 threads either
+ * sharing one client (every acquire contends on one compare-and-set) or
+ * spread over many clients. The limit is high enough that requests are
+ * allowed, which is the case that matters for overhead. keyFromToken is the
+ * extra signature check done for authenticated routes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RateLimitBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+
+    @Param({ "1", "100000" })
+    private int clients;
+
+    private TokenBucketLimiter limiter;
+    private String[] keys;
+    private RateLimitFilter filter;
+    private MockHttpServletRequest redirectRequest;
+    private MockHttpServletRequest createRequest;
+
+    @Setup
+    public void setUp() {
+        limiter = new TokenBucketLimiter(Integer.MAX_VALUE, Integer.MAX_VALUE / 60, clients);
+        keys = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            keys[i] = "ip:client-" + i;
+        }
+
+        JwtUtil jwtUtil = new JwtUtil(new TokenRevocationList(), new ShortenerMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        filter = new RateLimitFilter(null, null, jwtUtil, null);
+
+        redirectRequest = new MockHttpServletRequest("GET", "/abc123");
+        redirectRequest.setRemoteAddr("203.0.113.7");
+
+        long now = System.currentTimeMillis();
+        String token = Jwts.builder()
+                .setSubject("benchmark-user")
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + TimeUnit.HOURS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS512)
+                .compact();
+        createRequest = new MockHttpServletRequest("POST", "/api/urls");
+        createRequest.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @Benchmark
+    public RateLimitDecision tryAcquire() {
+        return limiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(clients)]);
+    }
+
+    @Benchmark
+    public RouteClass classify() {
+        return RouteClass.of(redirectRequest.getMethod(), redirectRequest.getRequestURI());
+    }
+
+    @Benchmark
+    public String keyFromAddress() {
+        return filter.clientKey(redirectRequest, RouteClass.REDIRECT);
+    }
+
+    @Benchmark
+    public String keyFromToken() {
+        return filter.clientKey(createRequest, RouteClass.CREATE);
+    }
+}
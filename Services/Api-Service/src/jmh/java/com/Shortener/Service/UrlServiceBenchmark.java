@@ -0,0 +1,88 @@
+package com.Shortener.Service;
+
+import com.Shortener.DTO.UrlResponse;
+import com.Shortener.Entity.UrlEntity;
+import com.Shortener.Exception.UrlException;
+import com.Shortener.Metrics.ShortenerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CPU-only helpers of {@link UrlService}. The repositories are not
+ * touched, so the service is built without them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlServiceBenchmark {
+
+    private UrlService urlService;
+    private UrlEntity entity;
+
+    @Setup
+    public void setUp() {
+        urlService = new UrlService(null, null, null, new ShortenerMetrics(new SimpleMeterRegistry()), null, null,
+                null, null, null);
+        ReflectionTestUtils.setField(urlService, "baseUrl", "http://localhost:8080");
+
+        entity = UrlEntity.builder()
+                .id(42L)
+                .originalUrl("https://example.com/some/fairly/long/path?with=query&and=params")
+                .shortCode("aB3xY9")
+                .username("benchmark-user")
+                .createdAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusDays(365))
+                .clickCount(1234L)
+                .isActive(true)
+                .build();
+    }
+
+    @Benchmark
+    public String generateRandomString() {
+        return urlService.generateRandomString();
+    }
+
+    // Every thread shares the service's SecureRandom
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String generateRandomStringContended() {
+        return urlService.generateRandomString();
+    }
+
+    @Benchmark
+    public void validateUrl() {
+        urlService.validateUrl("https://example.com/some/fairly/long/path?with=query&and=params");
+    }
+
+    @Benchmark
+    public Object validateInvalidUrl() {
+        try {
+            urlService.validateUrl("ht!tp://not a url");
+            return null;
+        } catch (UrlException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public UrlResponse mapToResponse() {
+        return urlService.mapToResponse(entity);
+    }
+}
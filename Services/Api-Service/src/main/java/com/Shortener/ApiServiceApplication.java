@@ -1,9 +1,14 @@
 package com.Shortener;
 
+import com.Shortener.Config.NativeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(NativeHints.class)
 public class ApiServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,15 @@
+package com.Shortener.Cache;
+
+import com.Shortener.Entity.UrlEntity;
+
+import java.time.LocalDateTime;
+
+/** What a redirect needs from a link, plus the shard its row was found on. */
+public record CachedRedirect(String originalUrl, LocalDateTime expiresAt, Integer redirectStatus,
+        Integer cacheMaxAgeSeconds, int shard) {
+
+    public static CachedRedirect of(UrlEntity entity, int shard) {
+        return new CachedRedirect(entity.getOriginalUrl(), entity.getExpiresAt(), entity.getRedirectStatus(),
+                entity.getCacheMaxAgeSeconds(), shard);
+    }
+}
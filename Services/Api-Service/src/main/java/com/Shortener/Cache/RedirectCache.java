@@ -0,0 +1,174 @@
+package com.Shortener.Cache;
+
+import com.Shortener.Event.UrlDeactivatedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of active links for the redirect path, bounded by size
+ * (W-TinyLFU keeps the frequently hit codes) and by a time to live.
+ *
+ * Concurrent misses for one code share a single lookup ({@link #load}), so
+ * a link that suddenly gets popular, or a cleared cache, costs one query per
+ * code rather than one per request.
+ *
+ * Deletes and expiries on this instance evict through
+ * {@link UrlDeactivatedEvent}, ones made on another instance through the
+ * invalidation bus; the time to live covers anything the bus lost. Expiry
+ * itself is re-checked on every hit, so an entry never outlives its link's
+ * {@code expiresAt}.
+ *
+ * A load that read a link before it was deactivated, or read a replica that
+ * had not seen the deactivation yet, must not cache it afterwards. Every
+ * invalidated code therefore leaves a tombstone carrying an invalidation
+ * generation, and a load passes the generation it started at ({@link #stamp})
+ * to {@link #put}, which drops the link again if a tombstone says it was
+ * invalidated since. Deactivation is final, so a tombstone also rejects loads
+ * that started after it. Tombstones are bounded like the cache; when one is
+ * evicted, every load started before its generation is treated as stale.
+ * The link index relies on the same tombstones through {@link #invalidatedSince},
+ * which is why they are kept even with caching disabled.
+ */
+@Component
+public class RedirectCache {
+
+    private final boolean enabled;
+    private final Cache<String, CachedRedirect> cache;
+    private final SingleFlight<String, CachedRedirect> loads;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong evictedGeneration = new AtomicLong();
+    private final Cache<String, Long> tombstones;
+
+    public RedirectCache(@Value("${shortener.redirect-cache.enabled:true}") boolean enabled,
+            @Value("${shortener.redirect-cache.max-size:100000}") long maxSize,
+            @Value("${shortener.redirect-cache.ttl-ms:300000}") long ttlMillis,
+            @Value("${shortener.redirect-cache.load-timeout-ms:1000}") long loadTimeoutMillis,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "redirects");
+        // The listener runs before the evicted tombstone stops being visible
+        this.tombstones = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .<String, Long>evictionListener((shortCode, invalidated, cause) ->
+                        evictedGeneration.accumulateAndGet(invalidated, Math::max))
+                .build();
+
+        this.loads = new SingleFlight<>(Duration.ofMillis(loadTimeoutMillis),
+                Counter.builder("shortener.redirect.loads.joined")
+                        .description("Redirect misses that waited for another request's lookup of the same code")
+                        .register(meterRegistry));
+        Gauge.builder("shortener.redirect.loads.in_flight", loads, SingleFlight::inFlight)
+                .description("Codes being looked up")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CachedRedirect get(String shortCode) {
+        return enabled ? cache.getIfPresent(shortCode) : null;
+    }
+
+    /** The generation a load starts at, to pass to {@link #put} with its result. */
+    public long stamp() {
+        return generation.get();
+    }
+
+    /**
+     * Caches a loaded link unless it was invalidated after the load's
+     * {@code stamp}; returns whether it was kept. The link is put before the
+     * check, and invalidation writes the tombstone before evicting, so one
+     * of the two always removes it.
+     */
+    public boolean put(String shortCode, CachedRedirect redirect, long stamp) {
+        if (!enabled) {
+            return !invalidatedSince(shortCode, stamp);
+        }
+        cache.put(shortCode, redirect);
+        if (invalidatedSince(shortCode, stamp)) {
+            cache.asMap().remove(shortCode, redirect);
+            return false;
+        }
+        return true;
+    }
+
+    public void putIfAbsent(String shortCode, CachedRedirect redirect, long stamp) {
+        if (enabled && cache.asMap().putIfAbsent(shortCode, redirect) == null
+                && invalidatedSince(shortCode, stamp)) {
+            cache.asMap().remove(shortCode, redirect);
+        }
+    }
+
+    /** Whether the code was invalidated after, or before, a load that started at {@code stamp}. */
+    public boolean invalidatedSince(String shortCode, long stamp) {
+        // Tombstone first: an evicted one has raised the evicted generation by then
+        return tombstones.getIfPresent(shortCode) != null || evictedGeneration.get() > stamp;
+    }
+
+    /**
+     * Runs the loader for a missed code unless a load for it is already
+     * running, in which case that load's result is returned. Used for misses
+     * of the link index too, whether or not caching is enabled.
+     */
+    public CachedRedirect load(String shortCode, Supplier<CachedRedirect> loader) {
+        return loads.load(shortCode, loader);
+    }
+
+    public void invalidate(String shortCode) {
+        tombstones.put(shortCode, generation.incrementAndGet());
+        cache.invalidate(shortCode);
+    }
+
+    public void invalidateAll(Collection<String> shortCodes) {
+        long invalidated = generation.incrementAndGet();
+        for (String shortCode : shortCodes) {
+            tombstones.put(shortCode, invalidated);
+        }
+        cache.invalidateAll(shortCodes);
+    }
+
+    // After a resync nothing says which codes changed, so every load in flight is stale
+    public void invalidateAll() {
+        evictedGeneration.accumulateAndGet(generation.incrementAndGet(), Math::max);
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /** The most frequently used codes, hottest first. */
+    public List<String> hottest(int limit) {
+        return cache.policy().eviction()
+                .map(eviction -> List.copyOf(eviction.hottest(limit).keySet()))
+                .orElse(List.of());
+    }
+
+    // Ahead of the link index, which checks these tombstones after its puts
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onDeactivated(UrlDeactivatedEvent event) {
+        invalidateAll(event.getShortCodes());
+    }
+}
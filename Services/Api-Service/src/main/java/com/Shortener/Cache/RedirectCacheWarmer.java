@@ -0,0 +1,157 @@
+package com.Shortener.Cache;
+
+import com.Shortener.Entity.UrlEntity;
+import com.Shortener.Repo.UrlRepository;
+import com.Shortener.Shard.UrlShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills the {@link RedirectCache} before the instance reports ready.
+ *
+ * The warm set is the hot-key list in Redis: the codes the redirect cache's
+ * frequency sketch ranks hottest, saved by every instance on a schedule and
+ * at shutdown. Ranking by all-time clicks instead would sort every active
+ * link on every shard, and favour old links over the ones hot now. The
+ * codes are looked up by key, with bounded parallelism in pages, and the
+ * warm-up stops at the time budget. Runs as an {@link ApplicationRunner},
+ * and Boot only switches readiness to ACCEPTING_TRAFFIC once the runners
+ * have returned.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RedirectCacheWarmer implements ApplicationRunner {
+
+    static final String HOT_KEYS = "shortener:redirect-cache:hot-keys";
+
+    private final RedirectCache redirectCache;
+    private final UrlRepository urlRepository;
+    private final UrlShardRouter shardRouter;
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${shortener.redirect-cache.warm.enabled:true}")
+    private boolean enabled;
+
+    @Value("${shortener.redirect-cache.warm.size:10000}")
+    private int warmSize;
+
+    @Value("${shortener.redirect-cache.warm.page-size:500}")
+    private int pageSize;
+
+    @Value("${shortener.redirect-cache.warm.parallelism:4}")
+    private int parallelism;
+
+    @Value("${shortener.redirect-cache.warm.budget-ms:20000}")
+    private long budgetMillis;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || !redirectCache.isEnabled() || warmSize <= 0) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long deadline = start + budgetMillis;
+        AtomicInteger remaining = new AtomicInteger(warmSize);
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+
+        try {
+            List<String> hotKeys = loadHotKeys();
+            for (int from = 0; from < hotKeys.size(); from += pageSize) {
+                List<String> page = hotKeys.subList(from, Math.min(from + pageSize, hotKeys.size()));
+                pool.execute(() -> warmCodes(page, remaining, deadline));
+            }
+            pool.shutdown();
+            if (!pool.awaitTermination(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                log.warn("Redirect cache warm-up hit its {} ms budget", budgetMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+        log.info("Warmed redirect cache with {} links in {} ms", redirectCache.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    private void warmCodes(List<String> shortCodes, AtomicInteger remaining, long deadline) {
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            if (remaining.get() <= 0 || System.currentTimeMillis() >= deadline) {
+                return;
+            }
+            int target = shard;
+            try {
+                long stamp = redirectCache.stamp();
+                List<UrlEntity> found = shardRouter.onShard(target,
+                        () -> urlRepository.findByShortCodeInAndIsActiveTrue(shortCodes));
+                cache(found, target, remaining, stamp);
+            } catch (Exception e) {
+                log.warn("Could not warm hot keys from shard {}: {}", target, e.getMessage());
+            }
+        }
+    }
+
+    private void cache(List<UrlEntity> entities, int shard, AtomicInteger remaining, long stamp) {
+        for (UrlEntity entity : entities) {
+            if (remaining.getAndDecrement() <= 0) {
+                return;
+            }
+            redirectCache.putIfAbsent(entity.getShortCode(), CachedRedirect.of(entity, shard), stamp);
+        }
+    }
+
+    private List<String> loadHotKeys() {
+        try {
+            List<String> hotKeys = redisTemplate.opsForList().range(HOT_KEYS, 0, warmSize - 1L);
+            return hotKeys != null ? hotKeys : List.of();
+        } catch (Exception e) {
+            log.warn("Could not read the saved hot-key list: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    // Also on a schedule, so an instance that crashes, or one started while
+    // the others run, still finds a recent list
+    @Scheduled(initialDelayString = "${shortener.redirect-cache.warm.save-interval-ms:300000}",
+            fixedDelayString = "${shortener.redirect-cache.warm.save-interval-ms:300000}")
+    public void saveHotKeysScheduled() {
+        saveHotKeys();
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void saveHotKeys() {
+        if (!enabled || !redirectCache.isEnabled()) {
+            return;
+        }
+        List<String> hottest = redirectCache.hottest(warmSize);
+        if (hottest.isEmpty()) {
+            return;
+        }
+        try {
+            // Written aside and renamed over the list, so a warm-up never reads it half written
+            String next = HOT_KEYS + ":next:" + UUID.randomUUID();
+            redisTemplate.opsForList().rightPushAll(next, hottest);
+            redisTemplate.expire(next, Duration.ofDays(7));
+            redisTemplate.rename(next, HOT_KEYS);
+            log.info("Saved {} hot keys for the next warm-up", hottest.size());
+        } catch (Exception e) {
+            log.warn("Could not save the hot-key list: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.Shortener.Cache;
+
+import com.Shortener.Exception.LookupTimeoutException;
+import io.micrometer.core.instrument.Counter;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one load per key at a time. A caller asking for a key whose
+ * load is already running waits for that load instead of starting its own,
+ * and gets its result or the exception it threw (the same instance, so it
+ * maps to the same response). Waiting is bounded: past the timeout the
+ * caller gets a {@link LookupTimeoutException} while the load carries on.
+ *
+ * Nothing is kept once a load finishes; the caller's cache holds the result.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+    private final Counter joined;
+
+    public SingleFlight(Duration timeout, Counter joined) {
+        this.timeoutNanos = timeout.toNanos();
+        this.joined = joined;
+    }
+
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            joined.increment();
+            return await(key, running);
+        }
+
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private V await(K key, CompletableFuture<V> running) {
+        try {
+            return running.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new LookupTimeoutException("Timed out waiting for the lookup of " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LookupTimeoutException("Interrupted while waiting for the lookup of " + key);
+        }
+    }
+}
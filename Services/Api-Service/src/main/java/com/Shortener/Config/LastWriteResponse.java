@@ -0,0 +1,82 @@
+package com.Shortener.Config;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+
+/**
+ * Hands a successful write's time to the client at the last moment it can
+ * still be set: the first call that may commit the response, or the end of
+ * the filter chain. By then the write has committed, so the window starts
+ * after it rather than when the request arrived. Failed writes hand out
+ * nothing.
+ */
+class LastWriteResponse extends HttpServletResponseWrapper {
+
+    private final long stickinessMs;
+    private boolean written;
+
+    LastWriteResponse(HttpServletResponse response, long stickinessMs) {
+        super(response);
+        this.stickinessMs = stickinessMs;
+    }
+
+    void writeLastWrite() {
+        if (!written && !isCommitted() && getStatus() < 400) {
+            String now = Long.toString(System.currentTimeMillis());
+            setHeader(ReadYourWritesFilter.HEADER, now);
+            addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(ReadYourWritesFilter.COOKIE, now)
+                    .path("/")
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    // Rounded up: a zero max-age would delete the cookie
+                    .maxAge(Duration.ofSeconds((stickinessMs + 999) / 1000))
+                    .build()
+                    .toString());
+        }
+        written = true;
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        writeLastWrite();
+        super.sendRedirect(location);
+    }
+
+    // Called before the error status is set, so getStatus() cannot tell yet
+    @Override
+    public void sendError(int sc) throws IOException {
+        written = true;
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        written = true;
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        writeLastWrite();
+        return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        writeLastWrite();
+        return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        writeLastWrite();
+        super.flushBuffer();
+    }
+}
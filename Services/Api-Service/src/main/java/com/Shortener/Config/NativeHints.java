@@ -0,0 +1,62 @@
+package com.Shortener.Config;
+
+import com.Shortener.Cache.CachedRedirect;
+import com.Shortener.DTO.CreateUrlRequest;
+import com.Shortener.DTO.ErrorResponse;
+import com.Shortener.DTO.ShardMoveRequest;
+import com.Shortener.DTO.UrlResponse;
+import com.Shortener.DTO.UrlStatsResponse;
+import com.Shortener.Entity.ShardMove;
+import com.Shortener.Entity.UrlEntity;
+import com.Shortener.Logging.RingBufferAppender;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the AOT/native builds that Spring's own
+ * inference does not cover: Jackson binding of the DTOs (Lombok-generated
+ * accessors), the JPA entities, JJWT's reflectively loaded implementation
+ * classes and serializers, and the custom logback appender.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    private static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                CreateUrlRequest.class, ErrorResponse.class, ShardMoveRequest.class, UrlResponse.class,
+                UrlStatsResponse.class, CachedRedirect.class, PageImpl.class);
+
+        for (Class<?> entity : List.of(UrlEntity.class, ShardMove.class)) {
+            hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+
+        for (String type : JJWT_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+
+        hints.reflection().registerType(RingBufferAppender.class,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.resources().registerPattern("logback-spring.xml");
+        hints.resources().registerPattern("ehcache.xml");
+    }
+}
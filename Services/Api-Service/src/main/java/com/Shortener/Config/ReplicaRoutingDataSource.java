@@ -0,0 +1,116 @@
+package com.Shortener.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica and everything else to
+ * the primary. Must sit behind a LazyConnectionDataSourceProxy so the
+ * connection is only fetched once the transaction's read-only flag is known.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final String PRIMARY = "primary";
+
+    private final List<HikariDataSource> replicas;
+    private final ReplicaRoutingProperties properties;
+    private volatile boolean[] healthy;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas,
+            ReplicaRoutingProperties properties) {
+        this.replicas = replicas;
+        this.properties = properties;
+        this.healthy = new boolean[replicas.size()];
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        Arrays.fill(healthy, true);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ReadRoutingContext.isPrimaryPinned()) {
+            return PRIMARY;
+        }
+        boolean[] current = healthy;
+        int size = current.length;
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            int candidate = (start + i) % size;
+            if (current[candidate]) {
+                return candidate;
+            }
+        }
+        return PRIMARY;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.routing.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        boolean[] previous = healthy;
+        boolean[] updated = new boolean[previous.length];
+        for (int i = 0; i < updated.length; i++) {
+            updated[i] = isHealthy(replicas.get(i));
+            if (updated[i] != previous[i]) {
+                log.warn("Replica {} is now {}", replicas.get(i).getPoolName(), updated[i] ? "healthy" : "out of rotation");
+            }
+        }
+        healthy = updated;
+    }
+
+    private boolean isHealthy(HikariDataSource replica) {
+        String lagQuery = properties.getLagQuery();
+        try (Connection connection = replica.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(2);
+            if (lagQuery == null || lagQuery.isBlank()) {
+                statement.execute("SELECT 1");
+                return true;
+            }
+            try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                if (!rs.next()) {
+                    return false;
+                }
+                long lag = readLag(rs);
+                return !rs.wasNull() && lag <= properties.getMaxLagSeconds();
+            }
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private long readLag(ResultSet rs) throws SQLException {
+        try {
+            return rs.getLong("Seconds_Behind_Source");
+        } catch (SQLException e) {
+            return rs.getLong(1);
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
@@ -46,6 +46,8 @@ public class SecurityConfig {
 
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
+        // Scripts echo it back so their reads follow their writes
+        configuration.setExposedHeaders(Arrays.asList(ReadYourWritesFilter.HEADER));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
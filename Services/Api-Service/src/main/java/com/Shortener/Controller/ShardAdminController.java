@@ -0,0 +1,57 @@
+package com.Shortener.Controller;
+
+import com.Shortener.DTO.ShardMoveRequest;
+import com.Shortener.Entity.ShardMove;
+import com.Shortener.Shard.ShardingProperties;
+import com.Shortener.Shard.UrlReshardingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/shards")
+@RequiredArgsConstructor
+@Slf4j
+public class ShardAdminController {
+
+    private final UrlReshardingService reshardingService;
+    private final ShardingProperties properties;
+
+    @PostMapping("/moves")
+    public ResponseEntity<ShardMove> startMove(
+            @Valid @RequestBody ShardMoveRequest request,
+            @RequestHeader(value = "X-Admin-Token", required = false) String adminToken) {
+
+        checkAdminToken(adminToken);
+        log.info("Moving buckets {}-{} to shard {}", request.getBucketFrom(), request.getBucketTo(),
+                request.getTargetShard());
+
+        ShardMove move = reshardingService.startMove(request.getBucketFrom(), request.getBucketTo(),
+                request.getTargetShard());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(move);
+    }
+
+    @GetMapping("/moves")
+    public ResponseEntity<List<ShardMove>> listMoves(
+            @RequestHeader(value = "X-Admin-Token", required = false) String adminToken) {
+
+        checkAdminToken(adminToken);
+        return ResponseEntity.ok(reshardingService.listMoves());
+    }
+
+    private void checkAdminToken(String adminToken) {
+        String expected = properties.getAdminToken();
+        if (expected == null || expected.isBlank() || adminToken == null
+                || !MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                        adminToken.getBytes(StandardCharsets.UTF_8))) {
+            throw new RuntimeException("Invalid admin token");
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.Shortener.Controller;
 
 import com.Shortener.DTO.CreateUrlRequest;
+import com.Shortener.DTO.RedirectTarget;
 import com.Shortener.DTO.UrlResponse;
 import com.Shortener.DTO.UrlStatsResponse;
 import com.Shortener.JWT.JwtUtil;
 import com.Shortener.Service.UrlService;
+import com.Shortener.Timing.RequestTimings;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -12,11 +14,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequiredArgsConstructor
@@ -37,18 +42,24 @@ public class UrlController {
         String username = extractUsernameFromToken(authHeader);
         UrlResponse response = urlService.createShortUrl(request, username);
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return ResponseEntity.status(response.isReused() ? HttpStatus.OK : HttpStatus.CREATED).body(response);
     }
 
     @GetMapping("/{shortCode}")
     public void redirectToUrl(@PathVariable String shortCode, HttpServletResponse response) throws IOException {
-        log.info("Redirect request for short code: {}", shortCode);
+        log.debug("Redirect request for short code: {}", shortCode);
 
         try {
-            String originalUrl = urlService.redirectToOriginalUrl(shortCode);
-            response.sendRedirect(originalUrl);
+            RedirectTarget target = urlService.redirectToOriginalUrl(shortCode);
+            response.setStatus(target.status());
+            response.setHeader(HttpHeaders.LOCATION, target.location());
+            // A cached redirect is served without reaching us, so it is not counted as a click
+            response.setHeader(HttpHeaders.CACHE_CONTROL, target.maxAgeSeconds() > 0
+                    ? CacheControl.maxAge(target.maxAgeSeconds(), TimeUnit.SECONDS).cachePublic().getHeaderValue()
+                    : CacheControl.noStore().getHeaderValue());
         } catch (Exception e) {
-            log.error("Error redirecting for short code {}: {}", shortCode, e.getMessage());
+            // Unknown codes are common (typos, scanners); the access log records the 404
+            log.debug("Error redirecting for short code {}: {}", shortCode, e.getMessage());
             response.sendError(HttpStatus.NOT_FOUND.value(), "URL not found or expired");
         }
     }
@@ -101,10 +112,15 @@ public class UrlController {
 
         String token = authHeader.substring(7);
 
-        if (!jwtUtil.validateToken(token)) {
-            throw new RuntimeException("Invalid or expired token");
-        }
+        long begin = RequestTimings.begin();
+        try {
+            if (!jwtUtil.validateToken(token)) {
+                throw new RuntimeException("Invalid or expired token");
+            }
 
-        return jwtUtil.extractUsername(token);
+            return jwtUtil.extractUsername(token);
+        } finally {
+            RequestTimings.end("jwt", begin);
+        }
     }
 }
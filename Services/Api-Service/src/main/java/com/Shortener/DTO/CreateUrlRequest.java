@@ -2,6 +2,7 @@ package com.Shortener.DTO;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -25,4 +26,14 @@ public class CreateUrlRequest {
     private String customAlias;
 
     private LocalDateTime expiresAt;
+
+    // 301, 302, 307 or 308; defaults to 302
+    private Integer redirectStatus;
+
+    // How long browsers and CDNs may cache the redirect; capped by the link's expiry
+    @PositiveOrZero(message = "Cache max-age cannot be negative")
+    private Integer cacheMaxAgeSeconds;
+
+    // Return the caller's live link to the same destination and policy instead of creating one
+    private Boolean reuseExisting;
 }
@@ -0,0 +1,8 @@
+package com.Shortener.DTO;
+
+/**
+ * Where and how to redirect: the status code and how long browsers and edge
+ * caches may keep the redirect, 0 meaning not at all.
+ */
+public record RedirectTarget(String location, int status, long maxAgeSeconds) {
+}
@@ -0,0 +1,30 @@
+package com.Shortener.DTO;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardMoveRequest {
+
+    @NotNull(message = "bucketFrom is required")
+    @Min(value = 0, message = "bucketFrom cannot be negative")
+    @Max(value = 1023, message = "bucketFrom must be below 1024")
+    private Integer bucketFrom;
+
+    @NotNull(message = "bucketTo is required")
+    @Min(value = 0, message = "bucketTo cannot be negative")
+    @Max(value = 1023, message = "bucketTo must be below 1024")
+    private Integer bucketTo;
+
+    @NotNull(message = "targetShard is required")
+    @Min(value = 0, message = "targetShard cannot be negative")
+    private Integer targetShard;
+}
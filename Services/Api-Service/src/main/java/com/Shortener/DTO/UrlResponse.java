@@ -21,4 +21,8 @@ public class UrlResponse {
     private LocalDateTime expiresAt;
     private Long clickCount;
     private Boolean isActive;
+    private Integer redirectStatus;
+    private Integer cacheMaxAgeSeconds;
+    // An existing link was returned for a reuseExisting request
+    private boolean reused;
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.Shortener.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The shard layout version an instance last loaded, refreshed on every
+ * reload. Lives on shard 0 next to {@code url_shard_moves}; a move waits
+ * until every instance that acknowledged recently has caught up.
+ */
+@Entity
+@Table(name = "url_shard_layout_acks")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardLayoutAck {
+
+    @Id
+    @Column(length = 64)
+    private String instanceId;
+
+    @Column(nullable = false)
+    private Long layoutVersion;
+
+    @Column(nullable = false)
+    private LocalDateTime ackedAt;
+}
@@ -0,0 +1,47 @@
+package com.Shortener.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A range of shard buckets being moved, or already moved, to another shard.
+ * Lives on shard 0 and is replayed in id order over the initial
+ * bucket-modulo-initial-shard-count layout.
+ */
+@Entity
+@Table(name = "url_shard_moves")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardMove {
+
+    public enum State {
+        MIGRATING, DONE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Integer bucketFrom;
+
+    @Column(nullable = false)
+    private Integer bucketTo;
+
+    @Column(nullable = false)
+    private Integer targetShard;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private State state;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,17 +1,28 @@
 package com.Shortener.Entity;
 
+import com.Shortener.Shard.ShardResolver;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "urls")
+@Table(name = "urls", indexes = {
+        @Index(name = "idx_urls_shard_bucket", columnList = "shardBucket"),
+        @Index(name = "idx_urls_username_url_hash", columnList = "username, urlHash")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "urls")
+@NaturalIdCache(region = "urls-by-short-code")
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class UrlEntity {
@@ -23,6 +34,11 @@ public class UrlEntity {
     @Column(nullable = false, length = 2048)
     private String originalUrl;
 
+    // SHA-256 of the normalized originalUrl, so a user's links can be looked up by destination
+    @Column(length = 64)
+    private String urlHash;
+
+    @NaturalId
     @Column(nullable = false, unique = true, length = 20)
     private String shortCode;
 
@@ -35,16 +51,29 @@ public class UrlEntity {
     @Column(nullable = false)
     private LocalDateTime expiresAt;
 
+    // Only UrlRepository.incrementClickCount changes it, so a cached copy
+    // with an old count never writes that count back
     @Builder.Default
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private Long clickCount = 0L;
 
     @Builder.Default
     @Column(nullable = false)
     private Boolean isActive = true;
 
+    // Redirect policy chosen at creation; null means 302 and no caching
+    private Integer redirectStatus;
+
+    private Integer cacheMaxAgeSeconds;
+
+    // Hash bucket of shortCode, kept so resharding can select bucket ranges
+    private Integer shardBucket;
+
     @PrePersist
     protected void onCreate() {
+        if (shardBucket == null && shortCode != null) {
+            shardBucket = ShardResolver.bucketOf(shortCode);
+        }
         if (createdAt == null) {
             createdAt = LocalDateTime.now();
         }
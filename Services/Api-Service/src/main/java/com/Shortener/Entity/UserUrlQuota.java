@@ -0,0 +1,39 @@
+package com.Shortener.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of live links a user owns, so creating one can be checked against
+ * {@code shortener.max-urls-per-user} without counting {@code urls}. Lives
+ * on shard 0. {@code pendingUrls} of them are slots taken for inserts that
+ * have not finished on their shard yet, the oldest since {@code pendingSince}.
+ */
+@Entity
+@Table(name = "user_url_quotas")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserUrlQuota {
+
+    @Id
+    private String username;
+
+    @Column(nullable = false)
+    private Long activeUrls;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long pendingUrls = 0L;
+
+    private LocalDateTime pendingSince;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,13 @@
+package com.Shortener.Event;
+
+import com.Shortener.Entity.UrlEntity;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** Published after a link has been inserted, with the shard it was written to. */
+@Getter
+@RequiredArgsConstructor
+public class UrlCreatedEvent {
+    private final UrlEntity url;
+    private final int shard;
+}
@@ -0,0 +1,16 @@
+package com.Shortener.Event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Published after short codes stop resolving, either because they were
+ * deleted or because they expired. Anything caching redirects listens for it.
+ */
+@Getter
+@RequiredArgsConstructor
+public class UrlDeactivatedEvent {
+    private final List<String> shortCodes;
+}
@@ -0,0 +1,8 @@
+package com.Shortener.Exception;
+
+/** A lookup this request was waiting on did not finish in time; answered with 503. */
+public class LookupTimeoutException extends RuntimeException {
+    public LookupTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.Shortener.Exception;
+
+/** The service is shedding load and the request was not started; answered with 503. */
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
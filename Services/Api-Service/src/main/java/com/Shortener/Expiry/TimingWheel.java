@@ -0,0 +1,119 @@
+package com.Shortener.Expiry;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel keyed by short code.
+ *
+ * Every level has {@value #SLOTS} slots; a slot at level {@code l} spans
+ * {@code 64^l} ticks. An entry goes to the level of the highest 6-bit group in
+ * which its deadline tick differs from the current tick, so scheduling is a
+ * couple of bit operations. When the clock reaches the start of a higher
+ * level slot, that slot is cascaded into the levels below. Deadlines beyond
+ * the top level wait in an overflow list that is re-placed once per top level
+ * rotation.
+ *
+ * Not thread-safe on its own; {@link UrlExpiryScheduler} guards it.
+ */
+public class TimingWheel {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+
+    private record Entry(String key, long tick) {
+    }
+
+    private final long tickMillis;
+    private final int levels;
+    private final ArrayDeque<Entry>[][] wheel;
+    private final List<Entry> overflow = new ArrayList<>();
+    private final List<String> due = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int levels, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.wheel = new ArrayDeque[levels][SLOTS];
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public void schedule(String key, long deadlineMillis) {
+        // Round up so nothing fires before its deadline
+        long tick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        size++;
+        if (tick <= currentTick) {
+            due.add(key);
+        } else {
+            place(new Entry(key, tick));
+        }
+    }
+
+    /** Moves the clock to {@code nowMillis} and returns every key that fell due. */
+    public List<String> advanceTo(long nowMillis) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        List<String> fired = new ArrayList<>(due);
+        due.clear();
+
+        while (currentTick < target) {
+            currentTick++;
+            cascade();
+            ArrayDeque<Entry> slot = wheel[0][(int) (currentTick & MASK)];
+            if (slot != null) {
+                for (Entry entry : slot) {
+                    fired.add(entry.key());
+                }
+                slot.clear();
+            }
+        }
+
+        size -= fired.size();
+        return fired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void cascade() {
+        int topBits = BITS * levels;
+        if (topBits < Long.SIZE && (currentTick & ((1L << topBits) - 1)) == 0 && !overflow.isEmpty()) {
+            List<Entry> pending = new ArrayList<>(overflow);
+            overflow.clear();
+            pending.forEach(this::place);
+        }
+
+        // Highest level first, so entries can trickle down several levels in one tick
+        for (int level = levels - 1; level >= 1; level--) {
+            if ((currentTick & ((1L << (BITS * level)) - 1)) != 0) {
+                continue;
+            }
+            ArrayDeque<Entry> slot = wheel[level][(int) ((currentTick >>> (BITS * level)) & MASK)];
+            if (slot != null && !slot.isEmpty()) {
+                List<Entry> pending = new ArrayList<>(slot);
+                slot.clear();
+                pending.forEach(this::place);
+            }
+        }
+    }
+
+    private void place(Entry entry) {
+        long diff = entry.tick() ^ currentTick;
+        int level = diff == 0 ? 0 : (Long.SIZE - 1 - Long.numberOfLeadingZeros(diff)) / BITS;
+        if (level >= levels) {
+            overflow.add(entry);
+            return;
+        }
+        int index = (int) ((entry.tick() >>> (BITS * level)) & MASK);
+        ArrayDeque<Entry> slot = wheel[level][index];
+        if (slot == null) {
+            slot = new ArrayDeque<>();
+            wheel[level][index] = slot;
+        }
+        slot.add(entry);
+    }
+}
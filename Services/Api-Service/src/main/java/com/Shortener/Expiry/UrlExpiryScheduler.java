@@ -0,0 +1,196 @@
+package com.Shortener.Expiry;
+
+import com.Shortener.Event.UrlDeactivatedEvent;
+import com.Shortener.Repo.UrlExpiryView;
+import com.Shortener.Repo.UrlRepository;
+import com.Shortener.Shard.UrlShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deactivates links at their {@code expiresAt}.
+ *
+ * Links expiring within {@code shortener.expiry.horizon-ms} are held in a
+ * {@link TimingWheel}; every tick the due codes are deactivated with one bulk
+ * UPDATE per batch and a {@link UrlDeactivatedEvent} is published. The wheel
+ * only lives in memory, so on startup and on every reload any overdue active
+ * rows are deactivated first and the next window is loaded from the database.
+ * Firing is a conditional UPDATE, so stale or duplicate wheel entries are
+ * harmless. With sharding enabled loads and sweeps run on every shard and due
+ * codes are deactivated on the shards they can live on.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UrlExpiryScheduler {
+
+    private final UrlRepository urlRepository;
+    private final UrlShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${shortener.expiry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${shortener.expiry.tick-ms:1000}")
+    private long tickMillis;
+
+    @Value("${shortener.expiry.horizon-ms:86400000}")
+    private long horizonMillis;
+
+    @Value("${shortener.expiry.batch-size:500}")
+    private int batchSize;
+
+    private volatile TimingWheel wheel;
+    private volatile long loadedUntil;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            wheel = new TimingWheel(tickMillis, 4, now);
+        }
+        loadedUntil = now;
+        loadUpcoming();
+    }
+
+    /** Registers a newly created link; links beyond the horizon are picked up by the next reload. */
+    public void schedule(String shortCode, LocalDateTime expiresAt) {
+        if (expiresAt == null) {
+            return;
+        }
+        long deadline = toEpochMillis(expiresAt);
+        if (deadline > System.currentTimeMillis() + horizonMillis) {
+            return;
+        }
+        synchronized (this) {
+            if (wheel != null) {
+                wheel.schedule(shortCode, deadline);
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${shortener.expiry.tick-ms:1000}")
+    public void tick() {
+        List<String> due;
+        synchronized (this) {
+            if (wheel == null) {
+                return;
+            }
+            due = wheel.advanceTo(System.currentTimeMillis());
+        }
+        if (!due.isEmpty()) {
+            deactivate(due);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${shortener.expiry.reload-ms:600000}",
+            fixedDelayString = "${shortener.expiry.reload-ms:600000}")
+    public void loadUpcoming() {
+        if (wheel == null) {
+            return;
+        }
+        long until = System.currentTimeMillis() + horizonMillis;
+        LocalDateTime from = toLocalDateTime(loadedUntil);
+        LocalDateTime to = toLocalDateTime(until);
+
+        int loaded = 0;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            int target = shard;
+            shardRouter.onShard(target, () -> deactivateOverdue(target));
+            loaded += shardRouter.onShard(target, () -> loadShard(from, to));
+        }
+
+        loadedUntil = until;
+        log.info("Loaded {} upcoming expiries until {}", loaded, to);
+    }
+
+    private int loadShard(LocalDateTime from, LocalDateTime to) {
+        long afterId = 0L;
+        int loaded = 0;
+        List<UrlExpiryView> page;
+        do {
+            page = urlRepository.findActiveExpiringBetween(afterId, from, to, PageRequest.of(0, batchSize));
+            synchronized (this) {
+                for (UrlExpiryView view : page) {
+                    wheel.schedule(view.getShortCode(), toEpochMillis(view.getExpiresAt()));
+                }
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+                loaded += page.size();
+            }
+        } while (page.size() == batchSize);
+        return loaded;
+    }
+
+    private void deactivateOverdue(int shard) {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        List<String> overdue;
+        do {
+            overdue = urlRepository.findActiveExpiredShortCodes(now, PageRequest.of(0, batchSize));
+            if (!overdue.isEmpty() && !deactivateOnShard(shard, overdue)) {
+                break;
+            }
+            total += overdue.size();
+        } while (overdue.size() == batchSize);
+
+        if (total > 0) {
+            log.info("Deactivated {} overdue links on shard {}", total, shard);
+        }
+    }
+
+    private void deactivate(List<String> shortCodes) {
+        Map<Integer, List<String>> byShard = new LinkedHashMap<>();
+        for (String shortCode : shortCodes) {
+            for (int shard : shardRouter.readShards(shortCode)) {
+                byShard.computeIfAbsent(shard, s -> new ArrayList<>()).add(shortCode);
+            }
+        }
+        byShard.forEach((shard, codes) -> shardRouter.onShard(shard, () -> deactivateOnShard(shard, codes)));
+    }
+
+    private boolean deactivateOnShard(int shard, List<String> shortCodes) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean succeeded = true;
+        for (int from = 0; from < shortCodes.size(); from += batchSize) {
+            List<String> batch = shortCodes.subList(from, Math.min(from + batchSize, shortCodes.size()));
+            try {
+                int updated = urlRepository.deactivateExpired(batch, now);
+                eventPublisher.publishEvent(new UrlDeactivatedEvent(List.copyOf(batch)));
+                log.debug("Expired {} of {} due links on shard {}", updated, batch.size(), shard);
+            } catch (Exception e) {
+                // The overdue sweep on the next reload picks these up again
+                log.error("Failed to deactivate {} expired links on shard {}: {}", batch.size(), shard, e.getMessage());
+                succeeded = false;
+            }
+        }
+        return succeeded;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,25 @@
+package com.Shortener.GroupCommit;
+
+import com.Shortener.Repo.UrlRepository;
+import com.Shortener.Shard.UrlShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(GroupCommitProperties.class)
+public class GroupCommitConfig {
+
+    // Always created, so UrlService can ask it whether group commit is on
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public UrlInsertBatcher urlInsertBatcher(UrlRepository urlRepository, UrlShardRouter shardRouter,
+            GroupCommitProperties properties, MeterRegistry meterRegistry) {
+        return new UrlInsertBatcher(
+                (shard, urls) -> shardRouter.inTransaction(shard, () -> {
+                    urlRepository.insertAll(urls);
+                    return null;
+                }),
+                properties, meterRegistry);
+    }
+}
@@ -0,0 +1,24 @@
+package com.Shortener.GroupCommit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shortener.create.group-commit")
+public class GroupCommitProperties {
+
+    // Off: every create inserts and commits on its own
+    private boolean enabled = false;
+
+    // Longest the first create of a batch waits for others to join it; 0 takes only what is already queued
+    private long windowMs = 2;
+
+    // Rows per INSERT statement and transaction
+    private int maxBatchSize = 200;
+
+    // Creates waiting for the committer; a full queue pushes back on callers
+    private int queueCapacity = 10_000;
+
+    // How long a create waits for room in a full queue before it is answered with 503
+    private long offerTimeoutMs = 100;
+}
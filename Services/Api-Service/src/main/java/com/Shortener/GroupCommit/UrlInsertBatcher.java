@@ -0,0 +1,216 @@
+package com.Shortener.GroupCommit;
+
+import com.Shortener.Entity.UrlEntity;
+import com.Shortener.Exception.ServiceBusyException;
+import com.Shortener.Exception.UrlException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for short URL creation. With
+ * {@code shortener.create.group-commit.enabled}, a create hands its row to a
+ * bounded queue and waits; one committer thread takes the first waiting row,
+ * gathers whatever else arrives within {@code window-ms} (up to
+ * {@code max-batch-size} rows), and writes them with one multi-row INSERT in
+ * one transaction per shard. One commit then serves many creates, which is
+ * what bounds create throughput when every create commits on its own.
+ *
+ * A batch that breaks a constraint, usually two rows with the same short
+ * code, is rolled back as a whole and its rows are retried one at a time, so
+ * every caller gets its own row or its own exception. When the queue is
+ * full a create waits up to {@code offer-timeout-ms} for room and is then
+ * refused with a {@link ServiceBusyException}.
+ *
+ * The window adds up to {@code window-ms} to a create under light load;
+ * under heavy load batches fill from the rows that queued during the
+ * previous commit, so a window of 0 still groups them.
+ */
+@Slf4j
+public class UrlInsertBatcher {
+
+    /** Writes the rows in one transaction on the shard; all or none are written. */
+    @FunctionalInterface
+    public interface BatchWriter {
+        void insertAll(int shard, List<UrlEntity> urls);
+    }
+
+    private record PendingInsert(int shard, UrlEntity url, long queuedAt, CompletableFuture<UrlEntity> result) {
+    }
+
+    private static final long POLL_MS = 100;
+
+    private final BatchWriter writer;
+    private final GroupCommitProperties properties;
+    private final BlockingQueue<PendingInsert> queue;
+
+    private final DistributionSummary batchSize;
+    private final Timer waited;
+    private final Counter rejected;
+    private final Counter retriedBatches;
+
+    private volatile boolean running;
+    private Thread committer;
+
+    public UrlInsertBatcher(BatchWriter writer, GroupCommitProperties properties, MeterRegistry meterRegistry) {
+        this.writer = writer;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+
+        this.batchSize = DistributionSummary.builder("shortener.create.group_commit.batch_size")
+                .description("Rows written per group-committed INSERT")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.waited = Timer.builder("shortener.create.group_commit.wait")
+                .description("Time from queueing a create to its commit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("shortener.create.group_commit.rejected")
+                .description("Creates refused because the queue stayed full")
+                .register(meterRegistry);
+        this.retriedBatches = Counter.builder("shortener.create.group_commit.retried")
+                .description("Batches rolled back on a constraint and retried row by row")
+                .register(meterRegistry);
+        Gauge.builder("shortener.create.group_commit.queued", queue, BlockingQueue::size)
+                .description("Creates waiting for the committer")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public synchronized void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        running = true;
+        committer = Thread.ofPlatform().name("create-group-commit").daemon().start(this::run);
+        log.info("Create group commit on: window {} ms, up to {} rows per batch",
+                properties.getWindowMs(), properties.getMaxBatchSize());
+    }
+
+    /** Stops taking rows; the ones already queued are still committed. */
+    public synchronized void close() throws InterruptedException {
+        running = false;
+        if (committer != null) {
+            committer.join(TimeUnit.SECONDS.toMillis(10));
+            committer = null;
+        }
+        PendingInsert left;
+        while ((left = queue.poll()) != null) {
+            left.result().completeExceptionally(new ServiceBusyException("Shutting down, try again"));
+        }
+    }
+
+    /**
+     * Queues the link for the next batch on the shard and waits for it to be
+     * committed. Returns the link with its id set, or throws what its insert
+     * threw, e.g. a {@link DataIntegrityViolationException} for a taken code.
+     */
+    public UrlEntity insert(int shard, UrlEntity url) {
+        PendingInsert pending = new PendingInsert(shard, url, System.nanoTime(), new CompletableFuture<>());
+        try {
+            if (!running || !queue.offer(pending, properties.getOfferTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new ServiceBusyException("Too many short URLs are being created, try again shortly");
+            }
+            return pending.result().get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            // A queued row is still written; the caller just stops waiting for it
+            Thread.currentThread().interrupt();
+            throw new UrlException("Interrupted while creating the short URL");
+        }
+    }
+
+    private void run() {
+        List<PendingInsert> batch = new ArrayList<>(properties.getMaxBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingInsert first = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getWindowMs());
+                while (batch.size() < properties.getMaxBatchSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingInsert next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Keep committing; the rows of this batch have their exception already
+                log.error("Create group commit failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingInsert> batch) {
+        Map<Integer, List<PendingInsert>> byShard = new LinkedHashMap<>();
+        for (PendingInsert pending : batch) {
+            byShard.computeIfAbsent(pending.shard(), shard -> new ArrayList<>()).add(pending);
+        }
+        byShard.forEach(this::commitShard);
+    }
+
+    private void commitShard(int shard, List<PendingInsert> rows) {
+        batchSize.record(rows.size());
+        try {
+            writer.insertAll(shard, rows.stream().map(PendingInsert::url).toList());
+            rows.forEach(this::complete);
+        } catch (DataIntegrityViolationException e) {
+            if (rows.size() == 1) {
+                fail(rows.get(0), e);
+                return;
+            }
+            log.debug("Batch of {} rows on shard {} hit a constraint, retrying row by row", rows.size(), shard);
+            retriedBatches.increment();
+            for (PendingInsert row : rows) {
+                commitShard(shard, List.of(row));
+            }
+        } catch (RuntimeException | Error e) {
+            rows.forEach(row -> fail(row, e));
+        }
+    }
+
+    private void complete(PendingInsert row) {
+        waited.record(System.nanoTime() - row.queuedAt(), TimeUnit.NANOSECONDS);
+        row.result().complete(row.url());
+    }
+
+    private void fail(PendingInsert row, Throwable e) {
+        waited.record(System.nanoTime() - row.queuedAt(), TimeUnit.NANOSECONDS);
+        row.result().completeExceptionally(e);
+    }
+}
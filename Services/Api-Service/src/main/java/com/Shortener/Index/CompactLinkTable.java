@@ -0,0 +1,136 @@
+package com.Shortener.Index;
+
+import com.Shortener.Cache.CachedRedirect;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Links as columns of primitive arrays indexed by a slot number: the short
+ * code's key maps to a slot through {@link LongIntHashMap}, the slot holds
+ * the URL's arena address, the expiry in epoch millis and the redirect
+ * policy. Freed slots are reused. Not thread-safe; {@link LinkIndex}
+ * guards it.
+ */
+final class CompactLinkTable {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final LongIntHashMap slotsByKey;
+    // Codes that do not pack into a long; aliases longer than ten characters
+    private final Map<String, Integer> overflow = new HashMap<>();
+    private final UrlArena arena;
+
+    private long[] urlAddresses;
+    private long[] expiresAtMillis;
+    // -1 when the link has no max-age of its own
+    private int[] cacheMaxAgeSeconds;
+    // 0 when the link uses the default status
+    private short[] redirectStatuses;
+    private byte[] shards;
+
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int nextSlot;
+
+    CompactLinkTable(int expectedSize, int arenaChunkBytes) {
+        int capacity = Math.max(expectedSize, 16);
+        slotsByKey = new LongIntHashMap(capacity);
+        arena = new UrlArena(arenaChunkBytes);
+        urlAddresses = new long[capacity];
+        expiresAtMillis = new long[capacity];
+        cacheMaxAgeSeconds = new int[capacity];
+        redirectStatuses = new short[capacity];
+        shards = new byte[capacity];
+    }
+
+    int size() {
+        return slotsByKey.size() + overflow.size();
+    }
+
+    UrlArena arena() {
+        return arena;
+    }
+
+    CachedRedirect get(String shortCode) {
+        int slot = slotOf(shortCode);
+        if (slot == LongIntHashMap.MISSING) {
+            return null;
+        }
+        String url = arena.read(urlAddresses[slot]);
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMillis[slot]), ZONE);
+        int status = redirectStatuses[slot];
+        int maxAge = cacheMaxAgeSeconds[slot];
+        return new CachedRedirect(url, expiresAt, status != 0 ? status : null, maxAge >= 0 ? maxAge : null,
+                shards[slot]);
+    }
+
+    void put(String shortCode, CachedRedirect redirect) {
+        long address = arena.append(redirect.originalUrl());
+        int slot = slotOf(shortCode);
+        if (slot == LongIntHashMap.MISSING) {
+            slot = allocateSlot();
+            long key = ShortCodeKeys.encode(shortCode);
+            if (key != ShortCodeKeys.NO_KEY) {
+                slotsByKey.put(key, slot);
+            } else {
+                overflow.put(shortCode, slot);
+            }
+        } else {
+            arena.release(urlAddresses[slot]);
+        }
+        expiresAtMillis[slot] = redirect.expiresAt().atZone(ZONE).toInstant().toEpochMilli();
+        cacheMaxAgeSeconds[slot] = redirect.cacheMaxAgeSeconds() != null ? redirect.cacheMaxAgeSeconds() : -1;
+        redirectStatuses[slot] = redirect.redirectStatus() != null ? redirect.redirectStatus().shortValue() : 0;
+        shards[slot] = (byte) redirect.shard();
+        urlAddresses[slot] = address;
+    }
+
+    boolean remove(String shortCode) {
+        long key = ShortCodeKeys.encode(shortCode);
+        int slot;
+        if (key != ShortCodeKeys.NO_KEY) {
+            slot = slotsByKey.remove(key);
+        } else {
+            Integer removed = overflow.remove(shortCode);
+            slot = removed != null ? removed : LongIntHashMap.MISSING;
+        }
+        if (slot == LongIntHashMap.MISSING) {
+            return false;
+        }
+        arena.release(urlAddresses[slot]);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        return true;
+    }
+
+    private int slotOf(String shortCode) {
+        long key = ShortCodeKeys.encode(shortCode);
+        if (key != ShortCodeKeys.NO_KEY) {
+            return slotsByKey.get(key);
+        }
+        Integer slot = overflow.get(shortCode);
+        return slot != null ? slot : LongIntHashMap.MISSING;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (nextSlot == urlAddresses.length) {
+            int capacity = urlAddresses.length + (urlAddresses.length >> 1);
+            urlAddresses = Arrays.copyOf(urlAddresses, capacity);
+            expiresAtMillis = Arrays.copyOf(expiresAtMillis, capacity);
+            cacheMaxAgeSeconds = Arrays.copyOf(cacheMaxAgeSeconds, capacity);
+            redirectStatuses = Arrays.copyOf(redirectStatuses, capacity);
+            shards = Arrays.copyOf(shards, capacity);
+        }
+        return nextSlot++;
+    }
+}
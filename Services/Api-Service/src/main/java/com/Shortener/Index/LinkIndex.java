@@ -0,0 +1,260 @@
+package com.Shortener.Index;
+
+import com.Shortener.Cache.CachedRedirect;
+import com.Shortener.Event.UrlCreatedEvent;
+import com.Shortener.Event.UrlDeactivatedEvent;
+import com.Shortener.Repo.LinkIndexView;
+import com.Shortener.Repo.UrlRepository;
+import com.Shortener.Shard.UrlShardRouter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Every active link of every shard, held in memory in the compact form of
+ * {@link CompactLinkTable}, so redirects are answered without the database.
+ *
+ * The index is built in the background once the application is ready, and
+ * rebuilt every {@code shortener.link-index.rebuild-interval-ms}. A rebuild
+ * picks up links created on other instances and returns the arena space of
+ * removed links. It needs room for a second copy while it runs. Between
+ * rebuilds the index follows this instance's creates, deletes and expiries
+ * through events, and other instances' deletes and expiries through the
+ * invalidation bus. Before the first build finishes, and for codes
+ * it does not hold, redirects go to the database.
+ *
+ * Reads take no lock: they run optimistically and are repeated under the
+ * read lock only if a write overlapped them.
+ */
+@Component
+@Slf4j
+public class LinkIndex {
+
+    private final UrlRepository urlRepository;
+    private final UrlShardRouter shardRouter;
+    private final boolean enabled;
+    private final int pageSize;
+    private final int arenaChunkBytes;
+
+    private final StampedLock lock = new StampedLock();
+    private volatile CompactLinkTable table;
+
+    // Events are applied to the table being built too, and removals are
+    // remembered so a page read before the removal cannot bring the link back
+    private final Object buildLock = new Object();
+    private CompactLinkTable building;
+    private final Set<String> removedWhileBuilding = new HashSet<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public LinkIndex(UrlRepository urlRepository, UrlShardRouter shardRouter,
+            @Value("${shortener.link-index.enabled:false}") boolean enabled,
+            @Value("${shortener.link-index.page-size:5000}") int pageSize,
+            @Value("${shortener.link-index.arena-chunk-bytes:4194304}") int arenaChunkBytes,
+            MeterRegistry meterRegistry) {
+        this.urlRepository = urlRepository;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.pageSize = pageSize;
+        this.arenaChunkBytes = arenaChunkBytes;
+
+        gauge(meterRegistry, "shortener.link.index.links", "Links held in memory", t -> t.size());
+        gauge(meterRegistry, "shortener.link.index.arena.bytes", "Bytes allocated for URLs",
+                t -> t.arena().allocatedBytes());
+        gauge(meterRegistry, "shortener.link.index.arena.dead.bytes",
+                "URL bytes of removed links, freed by the next rebuild", t -> t.arena().deadBytes());
+    }
+
+    public boolean isReady() {
+        return table != null;
+    }
+
+    public CachedRedirect get(String shortCode) {
+        CompactLinkTable current = table;
+        if (current == null) {
+            return null;
+        }
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                CachedRedirect redirect = current.get(shortCode);
+                if (lock.validate(stamp)) {
+                    return redirect;
+                }
+            } catch (RuntimeException e) {
+                // Read arrays a writer was changing; the locked read below decides
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return table.get(shortCode);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // The table being built is updated first, so a swap in between cannot lose the change
+    public void put(String shortCode, CachedRedirect redirect) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (buildLock) {
+            if (building != null) {
+                building.put(shortCode, redirect);
+                removedWhileBuilding.remove(shortCode);
+            }
+        }
+        if (table != null) {
+            long stamp = lock.writeLock();
+            try {
+                table.put(shortCode, redirect);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    public void remove(Collection<String> shortCodes) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (buildLock) {
+            if (building != null) {
+                for (String shortCode : shortCodes) {
+                    building.remove(shortCode);
+                    removedWhileBuilding.add(shortCode);
+                }
+            }
+        }
+        if (table != null) {
+            long stamp = lock.writeLock();
+            try {
+                for (String shortCode : shortCodes) {
+                    table.remove(shortCode);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    @EventListener
+    public void onCreated(UrlCreatedEvent event) {
+        put(event.getUrl().getShortCode(), CachedRedirect.of(event.getUrl(), event.getShard()));
+    }
+
+    @EventListener
+    public void onDeactivated(UrlDeactivatedEvent event) {
+        remove(event.getShortCodes());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuildInBackground();
+    }
+
+    public void rebuildInBackground() {
+        if (enabled) {
+            Thread.ofPlatform().name("link-index-build").daemon().start(this::rebuild);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${shortener.link-index.rebuild-interval-ms:1800000}",
+            fixedDelayString = "${shortener.link-index.rebuild-interval-ms:1800000}")
+    public void rebuildScheduled() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /** Loads every shard into a fresh table and swaps it in; the current one keeps serving meanwhile. */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            CompactLinkTable current = table;
+            CompactLinkTable fresh = new CompactLinkTable(current != null ? current.size() : pageSize, arenaChunkBytes);
+            synchronized (buildLock) {
+                building = fresh;
+                removedWhileBuilding.clear();
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            int loaded = 0;
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                loaded += loadShard(shard, fresh, now);
+            }
+
+            long stamp = lock.writeLock();
+            try {
+                synchronized (buildLock) {
+                    table = fresh;
+                    building = null;
+                    removedWhileBuilding.clear();
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            log.info("Link index built: {} links, {} MB of URLs, {} host prefixes ({} ms)", loaded,
+                    fresh.arena().liveBytes() >> 20, fresh.arena().prefixCount(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            synchronized (buildLock) {
+                building = null;
+                removedWhileBuilding.clear();
+            }
+            log.error("Link index build failed, keeping the previous index", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private int loadShard(int shard, CompactLinkTable fresh, LocalDateTime now) {
+        long afterId = 0L;
+        int loaded = 0;
+        List<LinkIndexView> page;
+        do {
+            long from = afterId;
+            page = shardRouter.onShard(shard,
+                    () -> urlRepository.findActiveForIndex(from, now, PageRequest.of(0, pageSize)));
+            synchronized (buildLock) {
+                for (LinkIndexView view : page) {
+                    if (!removedWhileBuilding.contains(view.getShortCode())) {
+                        fresh.put(view.getShortCode(), new CachedRedirect(view.getOriginalUrl(), view.getExpiresAt(),
+                                view.getRedirectStatus(), view.getCacheMaxAgeSeconds(), shard));
+                    }
+                }
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+                loaded += page.size();
+            }
+        } while (page.size() == pageSize);
+        return loaded;
+    }
+
+    private void gauge(MeterRegistry registry, String name, String description,
+            ToDoubleFunction<CompactLinkTable> value) {
+        Gauge.builder(name, this, index -> {
+                    CompactLinkTable current = index.table;
+                    return current != null ? value.applyAsDouble(current) : 0;
+                })
+                .description(description)
+                .register(registry);
+    }
+}
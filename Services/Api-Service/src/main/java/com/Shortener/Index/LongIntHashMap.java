@@ -0,0 +1,139 @@
+package com.Shortener.Index;
+
+/**
+ * Open-addressing map from non-zero long keys to int values: two primitive
+ * arrays, linear probing, and backward-shift deletion so no tombstones
+ * build up. Not thread-safe; {@link LinkIndex} guards it.
+ *
+ * Reads tolerate running against a concurrent write (they may return a
+ * wrong value or throw, never loop forever), which is what lets the index
+ * read optimistically and validate afterwards.
+ */
+final class LongIntHashMap {
+
+    static final int MISSING = -1;
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int resizeAt;
+
+    LongIntHashMap(int expectedSize) {
+        allocate(capacityFor(Math.max(expectedSize, 16)));
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(long key) {
+        long[] k = keys;
+        int[] v = values;
+        int mask = k.length - 1;
+        int i = slot(key, mask);
+        for (int probes = 0; probes < k.length; probes++) {
+            long candidate = k[i];
+            if (candidate == key) {
+                return v[i];
+            }
+            if (candidate == 0) {
+                return MISSING;
+            }
+            i = (i + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    /** Returns the previous value, or {@link #MISSING}. */
+    int put(long key, int value) {
+        if (size >= resizeAt) {
+            rehash(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                int previous = values[i];
+                values[i] = value;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        return MISSING;
+    }
+
+    /** Returns the removed value, or {@link #MISSING}. */
+    int remove(long key) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != key) {
+            if (keys[i] == 0) {
+                return MISSING;
+            }
+            i = (i + 1) & mask;
+        }
+        int removed = values[i];
+
+        // Pull later entries of the probe run back into the gap, unless their home slot lies after it
+        int gap = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            long candidate = keys[j];
+            if (candidate == 0) {
+                break;
+            }
+            int home = slot(candidate, mask);
+            boolean movable = gap <= j ? home <= gap || home > j : home <= gap && home > j;
+            if (movable) {
+                keys[gap] = candidate;
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = 0;
+        size--;
+        return removed;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            long key = oldKeys[j];
+            if (key != 0) {
+                int i = slot(key, mask);
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        // Assigned in this order so a reader never pairs new keys with old values of a smaller table
+        values = new int[capacity];
+        keys = new long[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int needed = (int) Math.ceil(expectedSize / LOAD_FACTOR);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32) & mask;
+    }
+}
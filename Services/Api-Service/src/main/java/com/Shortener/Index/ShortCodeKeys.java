@@ -0,0 +1,54 @@
+package com.Shortener.Index;
+
+import java.util.Arrays;
+
+/**
+ * Packs a short code into a long: the length in the top bits, then six bits
+ * per character over the 64 symbols a code may contain (base62 plus '-' and
+ * '_'). Generated codes and most aliases fit; longer aliases have no key and
+ * are kept in a small overflow map instead.
+ */
+final class ShortCodeKeys {
+
+    static final int MAX_LENGTH = 10;
+
+    // Never produced by encode, since the length is at least one
+    static final long NO_KEY = 0L;
+
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        int value = 0;
+        for (char c = '0'; c <= '9'; c++) {
+            VALUES[c] = (byte) value++;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            VALUES[c] = (byte) value++;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            VALUES[c] = (byte) value++;
+        }
+        VALUES['-'] = (byte) value++;
+        VALUES['_'] = (byte) value;
+    }
+
+    private ShortCodeKeys() {
+    }
+
+    static long encode(String shortCode) {
+        int length = shortCode.length();
+        if (length == 0 || length > MAX_LENGTH) {
+            return NO_KEY;
+        }
+        long key = length;
+        for (int i = 0; i < length; i++) {
+            char c = shortCode.charAt(i);
+            if (c >= VALUES.length || VALUES[c] < 0) {
+                return NO_KEY;
+            }
+            key = key << 6 | VALUES[c];
+        }
+        return key;
+    }
+}
@@ -0,0 +1,172 @@
+package com.Shortener.Index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only storage for destination URLs in large byte[] chunks, so
+ * millions of URLs cost a handful of objects for the collector to track.
+ *
+ * The scheme-and-host prefix of a URL (https://www.example.com) is replaced
+ * by its index in a dictionary, which is where most of the repetition in a
+ * link set is. An entry is varint(prefix id + 1, 0 for none),
+ * varint(byte length), then the rest of the URL as UTF-8, and is addressed
+ * by {@code chunk << 32 | offset}. Removed entries are only counted; their
+ * space comes back when the index is rebuilt. Not thread-safe.
+ */
+final class UrlArena {
+
+    // Entries are at most a 2048-character URL
+    static final int MAX_ENTRY_BYTES = 2048 * 3 + 10;
+
+    private static final int MAX_PREFIXES = 1 << 16;
+
+    private final int chunkSize;
+    private byte[][] chunks = new byte[4][];
+    private int chunkCount;
+    private int position;
+    private long liveBytes;
+    private long deadBytes;
+
+    private final Map<String, Integer> prefixIds = new HashMap<>();
+    private String[] prefixes = new String[256];
+
+    UrlArena(int chunkSize) {
+        this.chunkSize = Math.max(chunkSize, MAX_ENTRY_BYTES);
+        newChunk();
+    }
+
+    long append(String url) {
+        int split = prefixEnd(url);
+        int prefixId = split > 0 ? prefixId(url.substring(0, split)) : -1;
+        byte[] rest = (prefixId >= 0 ? url.substring(split) : url).getBytes(StandardCharsets.UTF_8);
+        if (rest.length > MAX_ENTRY_BYTES - 10) {
+            throw new IllegalArgumentException("URL too long for the index: " + rest.length + " bytes");
+        }
+
+        int size = varintSize(prefixId + 1) + varintSize(rest.length) + rest.length;
+        if (position + size > chunkSize) {
+            newChunk();
+        }
+        byte[] chunk = chunks[chunkCount - 1];
+        int offset = position;
+        int at = writeVarint(chunk, offset, prefixId + 1);
+        at = writeVarint(chunk, at, rest.length);
+        System.arraycopy(rest, 0, chunk, at, rest.length);
+        position = at + rest.length;
+        liveBytes += size;
+        return (long) (chunkCount - 1) << 32 | offset;
+    }
+
+    String read(long address) {
+        byte[] chunk = chunks[(int) (address >>> 32)];
+        int at = (int) address;
+        int prefixRef = readVarint(chunk, at);
+        at += varintSize(prefixRef);
+        int length = readVarint(chunk, at);
+        at += varintSize(length);
+        if (length < 0 || length > MAX_ENTRY_BYTES) {
+            throw new IllegalStateException("Corrupt arena entry at " + address);
+        }
+        String rest = new String(chunk, at, length, StandardCharsets.UTF_8);
+        return prefixRef == 0 ? rest : prefixes[prefixRef - 1].concat(rest);
+    }
+
+    void release(long address) {
+        byte[] chunk = chunks[(int) (address >>> 32)];
+        int at = (int) address;
+        int prefixRef = readVarint(chunk, at);
+        int length = readVarint(chunk, at + varintSize(prefixRef));
+        int size = varintSize(prefixRef) + varintSize(length) + length;
+        liveBytes -= size;
+        deadBytes += size;
+    }
+
+    long allocatedBytes() {
+        return (long) chunkCount * chunkSize;
+    }
+
+    long liveBytes() {
+        return liveBytes;
+    }
+
+    long deadBytes() {
+        return deadBytes;
+    }
+
+    int prefixCount() {
+        return prefixIds.size();
+    }
+
+    private void newChunk() {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        chunks[chunkCount++] = new byte[chunkSize];
+        position = 0;
+    }
+
+    // Once the dictionary is full, new hosts are stored in full
+    private int prefixId(String prefix) {
+        Integer id = prefixIds.get(prefix);
+        if (id != null) {
+            return id;
+        }
+        if (prefixIds.size() >= MAX_PREFIXES) {
+            return -1;
+        }
+        int next = prefixIds.size();
+        if (next == prefixes.length) {
+            prefixes = Arrays.copyOf(prefixes, prefixes.length * 2);
+        }
+        prefixes[next] = prefix;
+        prefixIds.put(prefix, next);
+        return next;
+    }
+
+    // End of scheme://authority, or -1 if the URL has no authority
+    static int prefixEnd(String url) {
+        int schemeEnd = url.indexOf("://");
+        if (schemeEnd <= 0) {
+            return -1;
+        }
+        for (int i = schemeEnd + 3; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == '/' || c == '?' || c == '#') {
+                return i;
+            }
+        }
+        return url.length();
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    private static int writeVarint(byte[] target, int at, int value) {
+        while ((value & ~0x7F) != 0) {
+            target[at++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        target[at++] = (byte) value;
+        return at;
+    }
+
+    private static int readVarint(byte[] source, int at) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = source[at++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Corrupt varint");
+    }
+}
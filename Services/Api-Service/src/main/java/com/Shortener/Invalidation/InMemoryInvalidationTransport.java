@@ -0,0 +1,58 @@
+package com.Shortener.Invalidation;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers messages between buses in the same JVM, synchronously on the
+ * sender's thread. For tests, and for running several application contexts
+ * in one process ({@code shortener.invalidation.transport=in-memory}).
+ */
+public class InMemoryInvalidationTransport implements InvalidationTransport {
+
+    private static final Map<String, InMemoryInvalidationTransport> SHARED = new ConcurrentHashMap<>();
+
+    private final int logSize;
+    private final Deque<String> log = new ArrayDeque<>();
+    private final List<Consumer<String>> receivers = new CopyOnWriteArrayList<>();
+
+    public InMemoryInvalidationTransport(int logSize) {
+        this.logSize = logSize;
+    }
+
+    /** The transport every context in this JVM gets for the channel. */
+    public static InMemoryInvalidationTransport shared(String channel, int logSize) {
+        return SHARED.computeIfAbsent(channel, c -> new InMemoryInvalidationTransport(logSize));
+    }
+
+    @Override
+    public void send(String message) {
+        synchronized (log) {
+            log.addLast(message);
+            while (log.size() > logSize) {
+                log.removeFirst();
+            }
+        }
+        for (Consumer<String> receiver : receivers) {
+            receiver.accept(message);
+        }
+    }
+
+    @Override
+    public Runnable subscribe(Consumer<String> receiver) {
+        receivers.add(receiver);
+        return () -> receivers.remove(receiver);
+    }
+
+    @Override
+    public List<String> recent() {
+        synchronized (log) {
+            return List.copyOf(log);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.Shortener.Invalidation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+@Configuration
+@EnableConfigurationProperties(InvalidationProperties.class)
+public class InvalidationConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "shortener.invalidation.transport", havingValue = "redis", matchIfMissing = true)
+    public RedisMessageListenerContainer invalidationListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        // One thread, so batches from a publisher are received in the order they were sent
+        container.setTaskExecutor(Executors.newSingleThreadExecutor(
+                task -> Thread.ofPlatform().name("invalidation-receive").daemon().unstarted(task)));
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shortener.invalidation.transport", havingValue = "redis", matchIfMissing = true)
+    public InvalidationTransport redisInvalidationTransport(StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer invalidationListenerContainer, InvalidationProperties properties) {
+        return new RedisInvalidationTransport(redisTemplate, invalidationListenerContainer, properties.getChannel(),
+                properties.getReplayLogSize());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shortener.invalidation.transport", havingValue = "in-memory")
+    public InvalidationTransport inMemoryInvalidationTransport(InvalidationProperties properties) {
+        return InMemoryInvalidationTransport.shared(properties.getChannel(), properties.getReplayLogSize());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public InvalidationBus invalidationBus(InvalidationTransport transport, List<InvalidationHandler> handlers,
+            InvalidationProperties properties, MeterRegistry meterRegistry,
+            @Value("${spring.application.name}") String applicationName) {
+        String source = applicationName + "-" + UUID.randomUUID().toString().substring(0, 8);
+        return new InvalidationBus(transport, handlers, properties, source, meterRegistry);
+    }
+}
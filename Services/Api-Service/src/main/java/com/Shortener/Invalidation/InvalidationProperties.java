@@ -0,0 +1,38 @@
+package com.Shortener.Invalidation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shortener.invalidation")
+public class InvalidationProperties {
+
+    // redis, or in-memory to connect the application contexts of one JVM
+    private Transport transport = Transport.REDIS;
+
+    // Shared with the auth service
+    private String channel = "cache:invalidations";
+
+    // Longest a mutation waits to be sent together with others
+    private long flushIntervalMs = 10;
+
+    private int maxBatchSize = 500;
+
+    // An empty batch is sent after this long without mutations, so receivers notice a lost batch
+    private long heartbeatIntervalMs = 1000;
+
+    // Mutations waiting to be sent; beyond it they are dropped and other instances rely on their cache TTLs
+    private int maxPending = 100_000;
+
+    // Batches kept for receivers that missed some
+    private int replayLogSize = 1000;
+
+    // Keys whose latest version is remembered, to drop repeated and out-of-order invalidations
+    private long trackedKeys = 200_000;
+
+    private long versionRetentionMs = 600_000;
+
+    public enum Transport {
+        REDIS, IN_MEMORY
+    }
+}
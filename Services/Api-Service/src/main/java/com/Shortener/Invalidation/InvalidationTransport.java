@@ -0,0 +1,21 @@
+package com.Shortener.Invalidation;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/** Carries encoded {@link InvalidationBatch}es between instances. */
+public interface InvalidationTransport {
+
+    /**
+     * Appends the message to the replay log and delivers it to every
+     * subscriber, including the sender's own. Throws if it may not have been
+     * sent, in which case the caller sends it again.
+     */
+    void send(String message);
+
+    /** Registers a receiver; running the returned handle removes it again. */
+    Runnable subscribe(Consumer<String> receiver);
+
+    /** The most recently sent messages, oldest first, for receivers that missed some. */
+    List<String> recent();
+}
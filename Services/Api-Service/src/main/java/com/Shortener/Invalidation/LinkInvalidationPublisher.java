@@ -0,0 +1,21 @@
+package com.Shortener.Invalidation;
+
+import com.Shortener.Event.UrlDeactivatedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/** Publishes this instance's deletes and expiries on the invalidation bus. */
+@Component
+@RequiredArgsConstructor
+public class LinkInvalidationPublisher {
+
+    private final InvalidationBus invalidationBus;
+
+    @EventListener
+    public void onDeactivated(UrlDeactivatedEvent event) {
+        for (String shortCode : event.getShortCodes()) {
+            invalidationBus.publish(InvalidationType.LINK_DEACTIVATED, shortCode, null);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.Shortener.Invalidation;
+
+import com.Shortener.Cache.RedirectCache;
+import com.Shortener.Entity.UrlEntity;
+import com.Shortener.Index.LinkIndex;
+import com.Shortener.Repo.UrlRepository;
+import com.Shortener.Shard.UrlShardRouter;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Drops links deleted or expired on another instance from the redirect cache,
+ * the link index and the Hibernate second-level cache. The ones deactivated
+ * here are published by {@link LinkInvalidationPublisher}.
+ */
+@Component
+@RequiredArgsConstructor
+public class LinkInvalidations implements InvalidationHandler {
+
+    private final RedirectCache redirectCache;
+    private final LinkIndex linkIndex;
+    private final UrlRepository urlRepository;
+    private final UrlShardRouter shardRouter;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public Set<InvalidationType> types() {
+        return EnumSet.of(InvalidationType.LINK_DEACTIVATED);
+    }
+
+    @Override
+    public void apply(InvalidationType type, List<Invalidation> invalidations) {
+        List<String> shortCodes = invalidations.stream().map(Invalidation::key).toList();
+        redirectCache.invalidateAll(shortCodes);
+        linkIndex.remove(shortCodes);
+        if (secondLevelCacheEnabled()) {
+            evictSecondLevel(shortCodes);
+        }
+    }
+
+    // The index keeps serving until its rebuild is swapped in
+    @Override
+    public void resync() {
+        redirectCache.invalidateAll();
+        linkIndex.rebuildInBackground();
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        cache.evictEntityData(UrlEntity.class);
+        cache.evictNaturalIdData(UrlEntity.class);
+        cache.evictDefaultQueryRegion();
+    }
+
+    // A deactivated row keeps its id, so the natural-id entry still resolves
+    // correctly; the entity entry still says active and is evicted by id
+    private void evictSecondLevel(List<String> shortCodes) {
+        Map<Integer, List<String>> byShard = new LinkedHashMap<>();
+        for (String shortCode : shortCodes) {
+            for (int shard : shardRouter.readShards(shortCode)) {
+                byShard.computeIfAbsent(shard, s -> new ArrayList<>()).add(shortCode);
+            }
+        }
+
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        byShard.forEach((shard, codes) -> shardRouter.onShard(shard, () -> urlRepository.findIdsByShortCodes(codes))
+                .forEach(id -> cache.evictEntityData(UrlEntity.class, id)));
+        // The cached per-user link counts
+        cache.evictDefaultQueryRegion();
+    }
+
+    private boolean secondLevelCacheEnabled() {
+        return Boolean.parseBoolean(
+                String.valueOf(entityManagerFactory.getProperties().get(AvailableSettings.USE_SECOND_LEVEL_CACHE)));
+    }
+}
@@ -0,0 +1,52 @@
+package com.Shortener.Invalidation;
+
+import com.Shortener.JWT.RevocationStore;
+import com.Shortener.JWT.TokenRevocationList;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/** Feeds token revocations made by the auth service into the local {@link TokenRevocationList}. */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RevocationInvalidations implements InvalidationHandler {
+
+    private final TokenRevocationList tokenRevocationList;
+    private final RevocationStore revocationStore;
+
+    @Override
+    public Set<InvalidationType> types() {
+        return EnumSet.of(InvalidationType.TOKEN_REVOKED, InvalidationType.USER_TOKENS_REVOKED);
+    }
+
+    @Override
+    public void apply(InvalidationType type, List<Invalidation> invalidations) {
+        for (Invalidation invalidation : invalidations) {
+            try {
+                if (type == InvalidationType.TOKEN_REVOKED) {
+                    // The username goes last so it may contain the separator
+                    String[] parts = invalidation.data().split("\\|", 3);
+                    tokenRevocationList.revokeToken(invalidation.key(), parts[2],
+                            Long.parseLong(parts[1]), Long.parseLong(parts[0]));
+                } else {
+                    String[] parts = invalidation.data().split("\\|", 2);
+                    tokenRevocationList.revokeUser(invalidation.key(),
+                            Long.parseLong(parts[1]), Long.parseLong(parts[0]));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Ignoring malformed revocation: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Revocations only ever add to the list, so the stored ones are applied on top
+    @Override
+    public void resync() {
+        revocationStore.reload();
+    }
+}
@@ -1,20 +1,29 @@
 package com.Shortener.JWT;
 
+import com.Shortener.Metrics.ShortenerMetrics;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class JwtUtil {
 
+    private final TokenRevocationList tokenRevocationList;
+    private final ShortenerMetrics metrics;
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -51,16 +60,45 @@ public class JwtUtil {
         }
     }
 
+    /**
+     * The subject of a correctly signed token, expired or not, or null.
+     * Only for keying rate limits; it does not authenticate the request.
+     */
+    public String verifiedSubject(String token) {
+        try {
+            return Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody()
+                    .getSubject();
+        } catch (ExpiredJwtException e) {
+            return e.getClaims().getSubject();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public Boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
 
     public Boolean validateToken(String token) {
+        long start = System.nanoTime();
+        boolean valid = false;
         try {
-            return !isTokenExpired(token);
+            Claims claims = extractAllClaims(token);
+            if (claims.getExpiration().before(new Date())) {
+                return false;
+            }
+            long issuedAt = claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L;
+            valid = !tokenRevocationList.isRevoked(claims.getId(), claims.getSubject(), issuedAt);
+            return valid;
         } catch (Exception e) {
             log.error("Token validation failed: {}", e.getMessage());
             return false;
+        } finally {
+            metrics.jwtVerify(valid).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 }
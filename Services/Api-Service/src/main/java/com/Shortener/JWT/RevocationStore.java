@@ -0,0 +1,79 @@
+package com.Shortener.JWT;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Reads the revocations the auth service persists in Redis into the local
+ * {@link TokenRevocationList}, so an instance started after a logout still
+ * rejects the revoked tokens.
+ *
+ * The auth service owns the two sorted sets, scored by the expiry of the
+ * tokens an entry covers: {@code <key>:tokens} with members
+ * {@code <jti>|<issuedAt>|<username>} and {@code <key>:users} with members
+ * {@code <issuedBefore>|<username>}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RevocationStore {
+
+    private final StringRedisTemplate redisTemplate;
+    private final TokenRevocationList tokenRevocationList;
+
+    @Value("${shortener.revocation.store-key:auth:revocations}")
+    private String key;
+
+    @PostConstruct
+    public void init() {
+        try {
+            reload();
+        } catch (DataAccessException e) {
+            // Revocations made from now on still arrive over the invalidation bus
+            log.error("Could not load token revocations: {}", e.getMessage());
+        }
+    }
+
+    /** Applies every stored revocation whose tokens have not expired yet; returns how many there were. */
+    public int reload() {
+        long now = System.currentTimeMillis();
+        int loaded = 0;
+
+        Set<TypedTuple<String>> tokens = redisTemplate.opsForZSet()
+                .rangeByScoreWithScores(key + ":tokens", now, Double.POSITIVE_INFINITY);
+        for (TypedTuple<String> entry : tokens != null ? tokens : Set.<TypedTuple<String>>of()) {
+            try {
+                // The username goes last so it may contain the separator
+                String[] parts = entry.getValue().split("\\|", 3);
+                tokenRevocationList.revokeToken(parts[0], parts[2], Long.parseLong(parts[1]),
+                        entry.getScore().longValue());
+                loaded++;
+            } catch (RuntimeException e) {
+                log.warn("Ignoring malformed stored revocation: {}", e.getMessage());
+            }
+        }
+
+        Set<TypedTuple<String>> users = redisTemplate.opsForZSet()
+                .rangeByScoreWithScores(key + ":users", now, Double.POSITIVE_INFINITY);
+        for (TypedTuple<String> entry : users != null ? users : Set.<TypedTuple<String>>of()) {
+            try {
+                String[] parts = entry.getValue().split("\\|", 2);
+                tokenRevocationList.revokeUser(parts[1], Long.parseLong(parts[0]), entry.getScore().longValue());
+                loaded++;
+            } catch (RuntimeException e) {
+                log.warn("Ignoring malformed stored revocation: {}", e.getMessage());
+            }
+        }
+
+        log.info("Loaded {} token revocations", loaded);
+        return loaded;
+    }
+}
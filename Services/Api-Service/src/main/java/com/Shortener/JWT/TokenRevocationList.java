@@ -0,0 +1,117 @@
+package com.Shortener.JWT;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local replica of the auth service's revocation list, loaded from the
+ * {@link RevocationStore} on startup and fed from the invalidation bus.
+ *
+ * Holds revoked token ids and per-user "issued before" cutoffs, bucketed by
+ * the expiry of the tokens they cover so entries disappear once those tokens
+ * would be rejected as expired anyway. The jti map is capped and overflows
+ * into user cutoffs, keeping memory bounded by the number of users.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, UserCutoff> userCutoffs = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> tokenBuckets = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> userBuckets = new ConcurrentHashMap<>();
+
+    @Value("${shortener.revocation.bucket-ms:60000}")
+    private long bucketMillis;
+
+    @Value("${shortener.revocation.max-tokens:100000}")
+    private int maxTokens;
+
+    private record UserCutoff(long issuedBefore, long expiresAt) {
+    }
+
+    public boolean isRevoked(String jti, String username, long issuedAt) {
+        if (jti != null && revokedTokens.containsKey(jti)) {
+            return true;
+        }
+        UserCutoff cutoff = username != null ? userCutoffs.get(username) : null;
+        return cutoff != null && issuedAt < cutoff.issuedBefore();
+    }
+
+    public void revokeToken(String jti, String username, long issuedAt, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        if (jti == null || revokedTokens.size() >= maxTokens) {
+            // Cover this token with a cutoff just past its issue time
+            revokeUser(username, issuedAt + 1, expiresAt);
+            return;
+        }
+        if (revokedTokens.put(jti, expiresAt) == null) {
+            tokenBuckets.computeIfAbsent(bucketOf(expiresAt), b -> ConcurrentHashMap.newKeySet()).add(jti);
+        }
+    }
+
+    public void revokeUser(String username, long issuedBefore, long expiresAt) {
+        if (username == null || expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        userCutoffs.merge(username, new UserCutoff(issuedBefore, expiresAt),
+                (current, next) -> new UserCutoff(
+                        Math.max(current.issuedBefore(), next.issuedBefore()),
+                        Math.max(current.expiresAt(), next.expiresAt())));
+        userBuckets.computeIfAbsent(bucketOf(expiresAt), b -> ConcurrentHashMap.newKeySet()).add(username);
+    }
+
+    public int size() {
+        return revokedTokens.size() + userCutoffs.size();
+    }
+
+    @Scheduled(fixedDelayString = "${shortener.revocation.bucket-ms:60000}")
+    public void dropExpiredBuckets() {
+        long now = System.currentTimeMillis();
+        long currentBucket = bucketOf(now);
+        int dropped = 0;
+
+        for (Long bucket : tokenBuckets.keySet()) {
+            if (bucket < currentBucket) {
+                Set<String> jtis = tokenBuckets.remove(bucket);
+                if (jtis != null) {
+                    for (String jti : jtis) {
+                        dropped += revokedTokens.remove(jti) != null ? 1 : 0;
+                    }
+                }
+            }
+        }
+
+        for (Long bucket : userBuckets.keySet()) {
+            if (bucket < currentBucket) {
+                Set<String> usernames = userBuckets.remove(bucket);
+                if (usernames != null) {
+                    for (String username : usernames) {
+                        // A later logout may have extended the cutoff into a newer bucket;
+                        // remove(key, value) leaves one merged in meanwhile alone
+                        UserCutoff cutoff = userCutoffs.get(username);
+                        if (cutoff != null && cutoff.expiresAt() <= now && userCutoffs.remove(username, cutoff)) {
+                            dropped++;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (dropped > 0) {
+            log.debug("Dropped {} expired revocation entries, {} remaining", dropped, size());
+        }
+    }
+
+    private long bucketOf(long epochMillis) {
+        return Math.floorDiv(epochMillis, bucketMillis);
+    }
+}
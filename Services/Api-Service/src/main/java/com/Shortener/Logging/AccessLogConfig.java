@@ -0,0 +1,29 @@
+package com.Shortener.Logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(AccessLogProperties.class)
+@ConditionalOnProperty(name = "shortener.access-log.enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogConfig {
+
+    // Inside the Server-Timing filter, so its phases are still readable when the line is written
+    @Bean
+    public FilterRegistrationBean<AccessLogFilter> accessLogFilter(AccessLogProperties properties,
+            MeterRegistry meterRegistry) {
+        Counter budgetDrops = Counter.builder("logging.access.dropped")
+                .description("Access log lines dropped by the per-second budget")
+                .register(meterRegistry);
+        FilterRegistrationBean<AccessLogFilter> registration = new FilterRegistrationBean<>(
+                new AccessLogFilter(properties, budgetDrops));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,69 @@
+package com.Shortener.Logging;
+
+import com.Shortener.Timing.RequestTimings;
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One key=value line per sampled request on the {@code access} logger.
+ * Sampling is per mapped route; server errors are always logged. Every line
+ * counts against a per-second budget and lines over it are only counted, so
+ * a traffic spike cannot turn into a logging spike.
+ */
+@Slf4j(topic = "access")
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private final AccessLogProperties properties;
+    private final LogBudget budget;
+    private final Counter budgetDrops;
+
+    public AccessLogFilter(AccessLogProperties properties, Counter budgetDrops) {
+        this.properties = properties;
+        this.budget = new LogBudget(properties.getMaxLinesPerSecond());
+        this.budgetDrops = budgetDrops;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (log.isInfoEnabled()) {
+                logRequest(request, response.getStatus(), System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void logRequest(HttpServletRequest request, int status, long elapsedNanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? pattern.toString() : "unmapped";
+        if (status < 500 && !isSampled(route)) {
+            return;
+        }
+        if (!budget.tryAcquire()) {
+            budgetDrops.increment();
+            return;
+        }
+
+        RequestTimings timings = RequestTimings.current();
+        log.info("method={} route=\"{}\" path=\"{}\" status={} dur_us={}{}", request.getMethod(), route,
+                request.getRequestURI(), status, elapsedNanos / 1_000,
+                timings != null ? " timing=\"" + timings.toHeader() + "\"" : "");
+    }
+
+    private boolean isSampled(String route) {
+        double rate = properties.getSampleRates().getOrDefault(route, properties.getDefaultSampleRate());
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+}
@@ -0,0 +1,23 @@
+package com.Shortener.Logging;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shortener.access-log")
+public class AccessLogProperties {
+
+    private boolean enabled = true;
+
+    // Share of requests logged for routes without their own rate
+    private double defaultSampleRate = 1.0;
+
+    // Per mapped route, e.g. sample-rates[/{shortCode}]=0.01
+    private Map<String, Double> sampleRates = new HashMap<>();
+
+    // Lines per second across all routes; 0 means unlimited
+    private int maxLinesPerSecond = 1000;
+}
@@ -0,0 +1,208 @@
+package com.Shortener.Logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands events to the attached appenders on a single background thread
+ * through a bounded, lock-free ring buffer.
+ *
+ * Logging threads claim a slot with one CAS and never block: when the buffer
+ * is full the event is dropped and counted. Once fewer than
+ * {@code discardingThreshold} slots are free, events below WARN are dropped
+ * as well, so errors still get through under a flood of INFO lines. Caller
+ * data is not captured unless {@code includeCallerData} is set.
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final AtomicLong tail = new AtomicLong();
+    // Advanced only by the drain thread
+    private final AtomicLong head = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    private AtomicReferenceArray<ILoggingEvent> slots;
+    private int mask;
+    private Thread drainer;
+
+    private int capacity = 8192;
+    private int discardingThreshold = -1;
+    private boolean includeCallerData;
+    private long maxFlushTimeMs = 1000;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (!appenders.iteratorForAppenders().hasNext()) {
+            addError("No appender attached to [" + name + "]");
+            return;
+        }
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        slots = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+        capacity = size;
+        if (discardingThreshold < 0) {
+            discardingThreshold = capacity / 5;
+        }
+
+        super.start();
+        drainer = new Thread(this::drain, "logback-ring-" + name);
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join(maxFlushTimeMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (drainer.isAlive()) {
+            addWarn("Stopped [" + name + "] with " + getQueueSize() + " events not yet written");
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        boolean important = event.getLevel().isGreaterOrEqual(Level.WARN);
+        long claimed;
+        do {
+            claimed = tail.get();
+            long free = capacity - (claimed - head.get());
+            if (free <= 0 || (!important && free <= discardingThreshold)) {
+                dropped.increment();
+                return;
+            }
+        } while (!tail.compareAndSet(claimed, claimed + 1));
+
+        event.prepareForDeferredProcessing();
+        if (includeCallerData) {
+            event.getCallerData();
+        }
+        slots.lazySet((int) claimed & mask, event);
+    }
+
+    private void drain() {
+        long next = head.get();
+        int idle = 0;
+        while (true) {
+            int index = (int) next & mask;
+            ILoggingEvent event = slots.get(index);
+            if (event == null) {
+                // Stopped and every claimed slot written out
+                if (!isStarted() && next == tail.get()) {
+                    return;
+                }
+                if (++idle < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(1_000_000L);
+                }
+                continue;
+            }
+            idle = 0;
+            slots.lazySet(index, null);
+            head.lazySet(++next);
+            try {
+                appenders.appendLoopOnAppenders(event);
+            } catch (RuntimeException e) {
+                addError("Appender attached to [" + name + "] failed", e);
+            }
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public int getQueueSize() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getDiscardingThreshold() {
+        return discardingThreshold;
+    }
+
+    public void setDiscardingThreshold(int discardingThreshold) {
+        this.discardingThreshold = discardingThreshold;
+    }
+
+    public boolean isIncludeCallerData() {
+        return includeCallerData;
+    }
+
+    public void setIncludeCallerData(boolean includeCallerData) {
+        this.includeCallerData = includeCallerData;
+    }
+
+    public long getMaxFlushTimeMs() {
+        return maxFlushTimeMs;
+    }
+
+    public void setMaxFlushTimeMs(long maxFlushTimeMs) {
+        this.maxFlushTimeMs = maxFlushTimeMs;
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
@@ -0,0 +1,43 @@
+package com.Shortener.Logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/** Drop count and backlog of every {@link RingBufferAppender} in the logback configuration. */
+@Component
+public class RingBufferMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        Set<String> bound = new HashSet<>();
+        for (Logger logger : context.getLoggerList()) {
+            for (Iterator<Appender<ILoggingEvent>> it = logger.iteratorForAppenders(); it.hasNext(); ) {
+                if (it.next() instanceof RingBufferAppender appender && bound.add(appender.getName())) {
+                    FunctionCounter.builder("logging.ring.dropped", appender, RingBufferAppender::getDroppedCount)
+                            .description("Log events dropped because the ring buffer was full")
+                            .tag("appender", appender.getName())
+                            .register(registry);
+                    Gauge.builder("logging.ring.queued", appender, RingBufferAppender::getQueueSize)
+                            .description("Log events waiting to be written")
+                            .tag("appender", appender.getName())
+                            .register(registry);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.Shortener.Metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+/**
+ * {@code cache.hit.ratio} gauges for the Hibernate caches, hits over lookups
+ * since startup. For rates over a window use the
+ * {@code hibernate.second.level.cache.requests} counters instead.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheHitRatioMetrics implements MeterBinder {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ratio(registry, "hibernate.second-level", statistics::getSecondLevelCacheHitCount,
+                statistics::getSecondLevelCacheMissCount);
+        ratio(registry, "hibernate.natural-id", statistics::getNaturalIdCacheHitCount,
+                statistics::getNaturalIdCacheMissCount);
+        ratio(registry, "hibernate.query", statistics::getQueryCacheHitCount,
+                statistics::getQueryCacheMissCount);
+    }
+
+    private static void ratio(MeterRegistry registry, String cache, LongSupplier hits, LongSupplier misses) {
+        Gauge.builder("cache.hit.ratio", () -> {
+                    long hit = hits.getAsLong();
+                    long total = hit + misses.getAsLong();
+                    return total == 0 ? Double.NaN : (double) hit / total;
+                })
+                .description("Share of lookups served from the cache since startup")
+                .tag("cache", cache)
+                .register(registry);
+    }
+}
@@ -0,0 +1,62 @@
+package com.Shortener.Metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Timers for the API service's hot paths. Every timer publishes a
+ * percentile histogram and is tagged only with an outcome from a fixed set,
+ * never with a short code or username, so the number of series stays fixed.
+ */
+@Component
+public class ShortenerMetrics {
+
+    private final Map<String, Timer> redirect;
+    private final Map<String, Timer> create;
+    private final Map<String, Timer> stats;
+    private final Map<String, Timer> jwtVerify;
+
+    public ShortenerMetrics(MeterRegistry registry) {
+        redirect = timers(registry, "shortener.redirect", "Short code resolution for a redirect",
+                "found", "not_found", "error");
+        create = timers(registry, "shortener.create", "Short URL creation",
+                "created", "rejected", "error");
+        stats = timers(registry, "shortener.stats", "Per-user statistics",
+                "success", "error");
+        jwtVerify = timers(registry, "shortener.jwt.verify", "JWT signature, expiry and revocation check",
+                "valid", "invalid");
+    }
+
+    public Timer redirect(String outcome) {
+        return redirect.get(outcome);
+    }
+
+    public Timer create(String outcome) {
+        return create.get(outcome);
+    }
+
+    public Timer stats(String outcome) {
+        return stats.get(outcome);
+    }
+
+    public Timer jwtVerify(boolean valid) {
+        return jwtVerify.get(valid ? "valid" : "invalid");
+    }
+
+    private static Map<String, Timer> timers(MeterRegistry registry, String name, String description,
+            String... outcomes) {
+        Map<String, Timer> timers = new HashMap<>();
+        for (String outcome : outcomes) {
+            timers.put(outcome, Timer.builder(name)
+                    .description(description)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        return timers;
+    }
+}
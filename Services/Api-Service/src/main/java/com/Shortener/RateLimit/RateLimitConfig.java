@@ -0,0 +1,54 @@
+package com.Shortener.RateLimit;
+
+import com.Shortener.JWT.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(name = "shortener.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    // Inside the timing and access log filters, so rejected requests are still timed and logged
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties properties, JwtUtil jwtUtil,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        Map<RouteClass, TokenBucketLimiter> limiters = new EnumMap<>(RouteClass.class);
+        Map<RouteClass, Counter> rejections = new EnumMap<>(RouteClass.class);
+        for (RouteClass routeClass : RouteClass.values()) {
+            int requestsPerMinute = properties.requestsPerMinute(routeClass);
+            if (requestsPerMinute <= 0) {
+                continue;
+            }
+            String route = routeClass.name().toLowerCase(Locale.ROOT);
+            TokenBucketLimiter limiter = new TokenBucketLimiter(requestsPerMinute, properties.burst(routeClass),
+                    properties.getMaxKeys());
+            limiters.put(routeClass, limiter);
+            rejections.put(routeClass, Counter.builder("shortener.rate_limit.rejected")
+                    .description("Requests rejected with 429")
+                    .tag("route", route)
+                    .register(meterRegistry));
+            Gauge.builder("shortener.rate_limit.keys", limiter, TokenBucketLimiter::trackedKeys)
+                    .description("Clients with a bucket")
+                    .tag("route", route)
+                    .register(meterRegistry);
+        }
+
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+                new RateLimitFilter(limiters, rejections, jwtUtil, objectMapper));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
@@ -0,0 +1,9 @@
+package com.Shortener.RateLimit;
+
+/**
+ * Outcome of one acquire. {@code resetNanos} is the time until the bucket is
+ * full again, {@code retryAfterNanos} the time until a rejected request would
+ * be allowed (zero when allowed).
+ */
+public record RateLimitDecision(boolean allowed, int limit, int remaining, long resetNanos, long retryAfterNanos) {
+}
@@ -0,0 +1,101 @@
+package com.Shortener.RateLimit;
+
+import com.Shortener.DTO.ErrorResponse;
+import com.Shortener.JWT.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Applies the route class's limit before the request reaches security or the
+ * controllers. Authenticated requests are keyed by the token's subject, so a
+ * user keeps one budget across addresses; everything else, and every
+ * redirect, is keyed by the client address. Allowed requests carry the
+ * {@code RateLimit-*} headers, rejected ones get a 429 with {@code Retry-After}.
+ *
+ * The client address is {@link HttpServletRequest#getRemoteAddr()}. Behind
+ * the ingress that is the proxy unless Tomcat takes it from
+ * {@code X-Forwarded-For}, which {@code server.forward-headers-strategy=native}
+ * does for hops in {@code server.tomcat.remoteip.internal-proxies} only, so a
+ * client connecting directly cannot pick its own key.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final Map<RouteClass, TokenBucketLimiter> limiters;
+    private final Map<RouteClass, Counter> rejections;
+    private final JwtUtil jwtUtil;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(Map<RouteClass, TokenBucketLimiter> limiters, Map<RouteClass, Counter> rejections,
+            JwtUtil jwtUtil, ObjectMapper objectMapper) {
+        this.limiters = limiters;
+        this.rejections = rejections;
+        this.jwtUtil = jwtUtil;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        RouteClass routeClass = RouteClass.of(request.getMethod(), request.getRequestURI());
+        TokenBucketLimiter limiter = routeClass != null ? limiters.get(routeClass) : null;
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RateLimitDecision decision = limiter.tryAcquire(clientKey(request, routeClass));
+        response.setIntHeader("RateLimit-Limit", decision.limit());
+        response.setIntHeader("RateLimit-Remaining", decision.remaining());
+        response.setHeader("RateLimit-Reset", Long.toString(toSeconds(decision.resetNanos())));
+        if (decision.allowed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rejections.get(routeClass).increment();
+        log.debug("Rate limited {} {} ({})", request.getMethod(), request.getRequestURI(), routeClass);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(toSeconds(decision.retryAfterNanos())));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error("Too Many Requests")
+                .message("Rate limit exceeded, retry later")
+                .path(request.getRequestURI())
+                .build());
+    }
+
+    String clientKey(HttpServletRequest request, RouteClass routeClass) {
+        if (routeClass != RouteClass.REDIRECT) {
+            String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                String subject = jwtUtil.verifiedSubject(authHeader.substring(7));
+                if (subject != null) {
+                    return "user:" + subject;
+                }
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static long toSeconds(long nanos) {
+        return (nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+    }
+}
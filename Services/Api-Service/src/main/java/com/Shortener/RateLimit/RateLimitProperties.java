@@ -0,0 +1,42 @@
+package com.Shortener.RateLimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shortener.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Per client, for route classes without their own limit
+    private int requestsPerMinute = 10;
+
+    // Requests a client may send back to back before the per-minute rate applies
+    private int burst = 5;
+
+    // Per route class, e.g. routes.redirect.requests-per-minute=600; 0 turns a class off
+    private Map<RouteClass, Limit> routes = new HashMap<>();
+
+    // Clients tracked per route class; the least recently seen are dropped beyond it
+    private long maxKeys = 100_000;
+
+    public int requestsPerMinute(RouteClass routeClass) {
+        Limit limit = routes.get(routeClass);
+        return limit != null && limit.getRequestsPerMinute() != null ? limit.getRequestsPerMinute() : requestsPerMinute;
+    }
+
+    public int burst(RouteClass routeClass) {
+        Limit limit = routes.get(routeClass);
+        return limit != null && limit.getBurst() != null ? limit.getBurst() : burst;
+    }
+
+    @Data
+    public static class Limit {
+        private Integer requestsPerMinute;
+        private Integer burst;
+    }
+}
@@ -0,0 +1,26 @@
+package com.Shortener.RateLimit;
+
+/** Groups of endpoints that share a rate limit. */
+public enum RouteClass {
+
+    // POST /api/urls: one insert per request, the route an abusive client hurts most
+    CREATE,
+    // GET /{shortCode}: anonymous, keyed by client address
+    REDIRECT,
+    // everything else under /api: listing, stats, deletes, shard admin
+    MANAGEMENT;
+
+    /**
+     * The class of a request, or null for requests that are never limited:
+     * CORS preflights, the health endpoints and actuator.
+     */
+    public static RouteClass of(String method, String path) {
+        if ("OPTIONS".equals(method) || path.startsWith("/actuator") || path.equals("/api/health")) {
+            return null;
+        }
+        if (path.startsWith("/api/")) {
+            return "POST".equals(method) && path.equals("/api/urls") ? CREATE : MANAGEMENT;
+        }
+        return REDIRECT;
+    }
+}
@@ -0,0 +1,68 @@
+package com.Shortener.RateLimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets kept as a single theoretical arrival time per key (GCRA):
+ * each allowed request pushes the key's arrival time one emission interval
+ * further, and a request is rejected when that would put it more than
+ * {@code burst} intervals ahead of now. The update is a compare-and-set on
+ * the key's {@link AtomicLong}, so requests only contend when they share a
+ * key, and there is no refill thread.
+ *
+ * Keys live in a Caffeine map bounded by size. An idle key is dropped once
+ * its bucket would be full again, which is the state a new key starts in, so
+ * expiry never changes a decision.
+ */
+public class TokenBucketLimiter {
+
+    private final int burst;
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final LongSupplier clock;
+    private final Cache<String, AtomicLong> arrivals;
+
+    public TokenBucketLimiter(int requestsPerMinute, int burst, long maxKeys) {
+        this(requestsPerMinute, burst, maxKeys, System::nanoTime);
+    }
+
+    TokenBucketLimiter(int requestsPerMinute, int burst, long maxKeys, LongSupplier clock) {
+        if (requestsPerMinute <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("requestsPerMinute and burst must be positive");
+        }
+        this.burst = burst;
+        this.emissionIntervalNanos = Duration.ofMinutes(1).toNanos() / requestsPerMinute;
+        this.burstNanos = emissionIntervalNanos * burst;
+        this.clock = clock;
+        this.arrivals = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .build();
+    }
+
+    public RateLimitDecision tryAcquire(String key) {
+        AtomicLong arrival = arrivals.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = clock.getAsLong();
+            long current = arrival.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long ahead = next - now;
+            if (ahead > burstNanos) {
+                return new RateLimitDecision(false, burst, 0, Math.max(current - now, 0), ahead - burstNanos);
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return new RateLimitDecision(true, burst, (int) ((burstNanos - ahead) / emissionIntervalNanos),
+                        ahead, 0);
+            }
+        }
+    }
+
+    public long trackedKeys() {
+        return arrivals.estimatedSize();
+    }
+}
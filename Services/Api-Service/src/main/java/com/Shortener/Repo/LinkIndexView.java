@@ -0,0 +1,18 @@
+package com.Shortener.Repo;
+
+import java.time.LocalDateTime;
+
+/** Projection used when building the in-memory link index. */
+public interface LinkIndexView {
+    Long getId();
+
+    String getShortCode();
+
+    String getOriginalUrl();
+
+    LocalDateTime getExpiresAt();
+
+    Integer getRedirectStatus();
+
+    Integer getCacheMaxAgeSeconds();
+}
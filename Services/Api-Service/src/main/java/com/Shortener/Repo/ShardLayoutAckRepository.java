@@ -0,0 +1,23 @@
+package com.Shortener.Repo;
+
+import com.Shortener.Entity.ShardLayoutAck;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ShardLayoutAckRepository extends JpaRepository<ShardLayoutAck, String> {
+
+    List<ShardLayoutAck> findByAckedAtAfter(LocalDateTime ackedAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ShardLayoutAck a WHERE a.ackedAt < :ackedAt")
+    int deleteAckedBefore(@Param("ackedAt") LocalDateTime ackedAt);
+}
@@ -0,0 +1,13 @@
+package com.Shortener.Repo;
+
+import com.Shortener.Entity.ShardMove;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ShardMoveRepository extends JpaRepository<ShardMove, Long> {
+
+    List<ShardMove> findAllByOrderByIdAsc();
+}
@@ -0,0 +1,15 @@
+package com.Shortener.Repo;
+
+import com.Shortener.Entity.UrlEntity;
+
+import java.util.List;
+
+/**
+ * Writes many new links with one multi-row INSERT, for the group-committed
+ * create path.
+ */
+public interface UrlBatchInsertRepository {
+
+    /** Inserts the links in the current transaction and sets their ids; all or none are written. */
+    void insertAll(List<UrlEntity> urls);
+}
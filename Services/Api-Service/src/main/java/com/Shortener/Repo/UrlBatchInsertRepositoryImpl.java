@@ -0,0 +1,102 @@
+package com.Shortener.Repo;
+
+import com.Shortener.Entity.UrlEntity;
+import com.Shortener.Shard.ShardResolver;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.Cache;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.TypedParameterValue;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class UrlBatchInsertRepositoryImpl implements UrlBatchInsertRepository {
+
+    private static final String INSERT = "INSERT INTO urls (original_url, url_hash, short_code, username, created_at, "
+            + "expires_at, click_count, is_active, redirect_status, cache_max_age_seconds, shard_bucket) VALUES ";
+    private static final int COLUMNS = 11;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void insertAll(List<UrlEntity> urls) {
+        if (urls.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sql = new StringBuilder(INSERT);
+        for (int row = 0; row < urls.size(); row++) {
+            sql.append(row == 0 ? "(" : ", (");
+            for (int column = 1; column <= COLUMNS; column++) {
+                sql.append(column == 1 ? "?" : ", ?").append(row * COLUMNS + column);
+            }
+            sql.append(')');
+        }
+
+        // Like the click counter, the statement declares a space no cached
+        // entity maps to, so it does not clear the urls region; the cached
+        // per-user counts are dropped after commit instead, see below
+        Query insert = entityManager.createNativeQuery(sql.toString())
+                .setHint(HibernateHints.HINT_NATIVE_SPACES, "url_inserts");
+        int position = 1;
+        for (UrlEntity url : urls) {
+            LocalDateTime createdAt = url.getCreatedAt() != null ? url.getCreatedAt() : LocalDateTime.now();
+            url.setCreatedAt(createdAt);
+            if (url.getExpiresAt() == null) {
+                url.setExpiresAt(createdAt.plusDays(365));
+            }
+            if (url.getShardBucket() == null) {
+                url.setShardBucket(ShardResolver.bucketOf(url.getShortCode()));
+            }
+            insert.setParameter(position++, url.getOriginalUrl());
+            insert.setParameter(position++, new TypedParameterValue<>(StandardBasicTypes.STRING, url.getUrlHash()));
+            insert.setParameter(position++, url.getShortCode());
+            insert.setParameter(position++, url.getUsername());
+            insert.setParameter(position++, url.getCreatedAt());
+            insert.setParameter(position++, url.getExpiresAt());
+            insert.setParameter(position++, url.getClickCount());
+            insert.setParameter(position++, url.getIsActive());
+            insert.setParameter(position++, new TypedParameterValue<>(StandardBasicTypes.INTEGER, url.getRedirectStatus()));
+            insert.setParameter(position++,
+                    new TypedParameterValue<>(StandardBasicTypes.INTEGER, url.getCacheMaxAgeSeconds()));
+            insert.setParameter(position++, url.getShardBucket());
+        }
+        insert.executeUpdate();
+
+        // Generated keys of a multi-row insert are not portable; one indexed
+        // lookup on the same connection sees the rows just written
+        Map<String, UrlEntity> byCode = new HashMap<>();
+        for (UrlEntity url : urls) {
+            byCode.put(url.getShortCode(), url);
+        }
+        entityManager.createQuery("SELECT u.shortCode, u.id FROM UrlEntity u WHERE u.shortCode IN :codes", Object[].class)
+                .setParameter("codes", byCode.keySet())
+                .getResultList()
+                .forEach(row -> byCode.get((String) row[0]).setId((Long) row[1]));
+
+        // What saving the entities would do: countActiveUrlsByUsername is the only cached query
+        EntityManagerFactory entityManagerFactory = entityManager.getEntityManagerFactory();
+        boolean queryCacheEnabled = Boolean.parseBoolean(
+                String.valueOf(entityManagerFactory.getProperties().get(AvailableSettings.USE_QUERY_CACHE)));
+        if (queryCacheEnabled && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entityManagerFactory.getCache().unwrap(Cache.class).evictDefaultQueryRegion();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.Shortener.Repo;
+
+import java.time.LocalDateTime;
+
+/** Projection used when loading upcoming expiries. */
+public interface UrlExpiryView {
+    Long getId();
+
+    String getShortCode();
+
+    LocalDateTime getExpiresAt();
+}
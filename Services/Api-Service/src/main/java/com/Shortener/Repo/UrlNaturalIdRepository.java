@@ -0,0 +1,17 @@
+package com.Shortener.Repo;
+
+import com.Shortener.Entity.UrlEntity;
+
+import java.util.Optional;
+
+/**
+ * Short code lookups and click counting that go through Hibernate's
+ * natural-id API, so a redirect is served from the {@code urls-by-short-code}
+ * and {@code urls} second-level cache regions instead of a query.
+ */
+public interface UrlNaturalIdRepository {
+
+    Optional<UrlEntity> findByShortCodeAndIsActiveTrue(String shortCode);
+
+    void incrementClickCount(String shortCode);
+}
@@ -0,0 +1,38 @@
+package com.Shortener.Repo;
+
+import com.Shortener.Entity.UrlEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public class UrlNaturalIdRepositoryImpl implements UrlNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UrlEntity> findByShortCodeAndIsActiveTrue(String shortCode) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(UrlEntity.class)
+                .loadOptional(shortCode)
+                .filter(UrlEntity::getIsActive);
+    }
+
+    @Override
+    @Transactional
+    public void incrementClickCount(String shortCode) {
+        // A JPQL bulk update would clear the whole urls region on every click.
+        // The native statement declares a space no cached entity maps to, so
+        // the cached link keeps serving redirects. Its clickCount goes stale,
+        // which is why that column is never written from the entity.
+        entityManager.createNativeQuery("UPDATE urls SET click_count = click_count + 1 WHERE short_code = :shortCode")
+                .setParameter("shortCode", shortCode)
+                .setHint(HibernateHints.HINT_NATIVE_SPACES, "url_click_counts")
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,10 @@
+package com.Shortener.Repo;
+
+/** Projection used when purging deactivated and long-expired rows. */
+public interface UrlPurgeView {
+    Long getId();
+
+    String getShortCode();
+
+    String getUsername();
+}
@@ -1,37 +1,109 @@
 package com.Shortener.Repo;
 
 import com.Shortener.Entity.UrlEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface UrlRepository extends JpaRepository<UrlEntity, Long> {
-
-    Optional<UrlEntity> findByShortCodeAndIsActiveTrue(String shortCode);
+public interface UrlRepository extends JpaRepository<UrlEntity, Long>, UrlNaturalIdRepository,
+        UrlBatchInsertRepository {
 
     Page<UrlEntity> findByUsernameAndIsActiveTrueOrderByCreatedAtDesc(String username, Pageable pageable);
 
     List<UrlEntity> findByUsernameAndIsActiveTrueOrderByClickCountDesc(String username);
 
+    List<UrlEntity> findTop5ByUsernameAndIsActiveTrueOrderByClickCountDesc(String username);
+
     boolean existsByShortCode(String shortCode);
 
-    @Modifying
-    @Transactional
-    @Query("UPDATE UrlEntity u SET u.clickCount = u.clickCount + 1 WHERE u.shortCode = :shortCode")
-    void incrementClickCount(@Param("shortCode") String shortCode);
+    List<UrlEntity> findByUsernameAndUrlHashAndIsActiveTrue(String username, String urlHash);
 
+    List<UrlEntity> findByShortCodeInAndIsActiveTrue(Collection<String> shortCodes);
+
+    @Query("SELECT u.id FROM UrlEntity u WHERE u.shortCode IN :shortCodes")
+    List<Long> findIdsByShortCodes(@Param("shortCodes") Collection<String> shortCodes);
+
+    // Click increments do not invalidate this; the count does not depend on them
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT COUNT(u) FROM UrlEntity u WHERE u.username = :username AND u.isActive = true")
     long countActiveUrlsByUsername(@Param("username") String username);
 
+    // Uncached, unlike the count above: quota recounts must see rows committed a moment ago
+    @Query("SELECT COUNT(u) FROM UrlEntity u WHERE u.username = :username AND u.isActive = true AND u.expiresAt > :now")
+    long countLiveUrlsByUsername(@Param("username") String username, @Param("now") LocalDateTime now);
+
     @Query("SELECT COALESCE(SUM(u.clickCount), 0) FROM UrlEntity u WHERE u.username = :username AND u.isActive = true")
     Long getTotalClicksByUsername(@Param("username") String username);
+
+    @Query("SELECT u.id AS id, u.shortCode AS shortCode, u.username AS username FROM UrlEntity u "
+            + "WHERE u.id > :afterId AND (u.isActive = false OR u.expiresAt < :expiredBefore) ORDER BY u.id")
+    List<UrlPurgeView> findPurgeable(@Param("afterId") Long afterId,
+            @Param("expiredBefore") LocalDateTime expiredBefore,
+            Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UrlEntity u WHERE u.id IN :ids AND (u.isActive = false OR u.expiresAt < :expiredBefore)")
+    int deletePurgeableByIds(@Param("ids") List<Long> ids, @Param("expiredBefore") LocalDateTime expiredBefore);
+
+    @Query("SELECT u.id AS id, u.shortCode AS shortCode, u.expiresAt AS expiresAt FROM UrlEntity u "
+            + "WHERE u.id > :afterId AND u.isActive = true AND u.expiresAt > :from AND u.expiresAt <= :to ORDER BY u.id")
+    List<UrlExpiryView> findActiveExpiringBetween(@Param("afterId") Long afterId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            Pageable pageable);
+
+    @Query("SELECT u.id AS id, u.shortCode AS shortCode, u.originalUrl AS originalUrl, u.expiresAt AS expiresAt, "
+            + "u.redirectStatus AS redirectStatus, u.cacheMaxAgeSeconds AS cacheMaxAgeSeconds FROM UrlEntity u "
+            + "WHERE u.id > :afterId AND u.isActive = true AND u.expiresAt > :now ORDER BY u.id")
+    List<LinkIndexView> findActiveForIndex(@Param("afterId") Long afterId,
+            @Param("now") LocalDateTime now,
+            Pageable pageable);
+
+    @Query("SELECT u.shortCode FROM UrlEntity u WHERE u.isActive = true AND u.expiresAt <= :now ORDER BY u.id")
+    List<String> findActiveExpiredShortCodes(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UrlEntity u SET u.isActive = false "
+            + "WHERE u.shortCode IN :shortCodes AND u.isActive = true AND u.expiresAt <= :now")
+    int deactivateExpired(@Param("shortCodes") List<String> shortCodes, @Param("now") LocalDateTime now);
+
+    @Query("SELECT u FROM UrlEntity u WHERE u.shardBucket BETWEEN :bucketFrom AND :bucketTo AND u.id > :afterId ORDER BY u.id")
+    List<UrlEntity> findInBucketRange(@Param("bucketFrom") int bucketFrom,
+            @Param("bucketTo") int bucketTo,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Query("SELECT u FROM UrlEntity u WHERE u.shardBucket IS NULL AND u.id > :afterId ORDER BY u.id")
+    List<UrlEntity> findWithoutShardBucket(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UrlEntity u SET u.shardBucket = :bucket WHERE u.id = :id")
+    int setShardBucket(@Param("id") Long id, @Param("bucket") Integer bucket);
+
+    // Folds the clicks a moved link collected on its source shard into the target row
+    @Modifying
+    @Transactional
+    @Query("UPDATE UrlEntity u SET u.clickCount = u.clickCount + :clicks WHERE u.shortCode = :shortCode")
+    int addClicks(@Param("shortCode") String shortCode, @Param("clicks") long clicks);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UrlEntity u WHERE u.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
 }
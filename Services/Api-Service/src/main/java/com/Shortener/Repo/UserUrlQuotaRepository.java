@@ -0,0 +1,64 @@
+package com.Shortener.Repo;
+
+import com.Shortener.Entity.UserUrlQuota;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserUrlQuotaRepository extends JpaRepository<UserUrlQuota, String> {
+
+    // Takes one slot if the user is under the limit; the row lock serialises a user's concurrent creates
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserUrlQuota q SET q.activeUrls = q.activeUrls + 1, q.updatedAt = :now "
+            + "WHERE q.username = :username AND q.activeUrls < :limit")
+    int reserve(@Param("username") String username, @Param("limit") long limit, @Param("now") LocalDateTime now);
+
+    // Like reserve, for an insert committed separately; pendingSince is assigned first
+    // because MySQL evaluates the assignments left to right, on the new values
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserUrlQuota q SET q.pendingSince = COALESCE(q.pendingSince, :now), "
+            + "q.activeUrls = q.activeUrls + 1, q.pendingUrls = q.pendingUrls + 1, q.updatedAt = :now "
+            + "WHERE q.username = :username AND q.activeUrls < :limit")
+    int reservePending(@Param("username") String username, @Param("limit") long limit,
+            @Param("now") LocalDateTime now);
+
+    // The insert of a pending slot finished, either way
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserUrlQuota q SET q.pendingSince = CASE WHEN q.pendingUrls > 1 THEN q.pendingSince END, "
+            + "q.pendingUrls = q.pendingUrls - 1, q.updatedAt = :now "
+            + "WHERE q.username = :username AND q.pendingUrls > 0")
+    int settlePending(@Param("username") String username, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserUrlQuota q SET q.activeUrls = q.activeUrls - 1, q.updatedAt = :now "
+            + "WHERE q.username = :username AND q.activeUrls > 0")
+    int release(@Param("username") String username, @Param("now") LocalDateTime now);
+
+    // An insert, not a merge, so a concurrent first create fails on the key instead of overwriting
+    @Modifying
+    @Transactional
+    @Query("INSERT INTO UserUrlQuota (username, activeUrls, pendingUrls, updatedAt) VALUES (:username, 0L, 0L, :now)")
+    int insertEmpty(@Param("username") String username, @Param("now") LocalDateTime now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT q FROM UserUrlQuota q WHERE q.username = :username")
+    Optional<UserUrlQuota> lockByUsername(@Param("username") String username);
+
+    @Query("SELECT q.username FROM UserUrlQuota q WHERE q.username > :after ORDER BY q.username")
+    List<String> findUsernamesAfter(@Param("after") String after, Pageable pageable);
+}
@@ -0,0 +1,70 @@
+package com.Shortener.Service;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Canonical form of a destination URL, so that spellings of the same
+ * address share one {@code urlHash}: scheme and host are lower-cased, the
+ * scheme's default port is dropped, an empty path becomes {@code /} and
+ * trailing slashes are removed from any other path. Query and fragment are
+ * kept as given, since servers may treat them case- and order-sensitively.
+ */
+public final class UrlNormalizer {
+
+    private UrlNormalizer() {
+    }
+
+    public static String normalize(String url) {
+        URI uri;
+        try {
+            uri = new URI(url.trim());
+        } catch (URISyntaxException e) {
+            return url.trim();
+        }
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            return uri.toString();
+        }
+
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        StringBuilder normalized = new StringBuilder(url.length()).append(scheme).append("://");
+        if (uri.getRawUserInfo() != null) {
+            normalized.append(uri.getRawUserInfo()).append('@');
+        }
+        normalized.append(uri.getHost().toLowerCase(Locale.ROOT));
+        int port = uri.getPort();
+        if (port != -1 && !(port == 80 && scheme.equals("http")) && !(port == 443 && scheme.equals("https"))) {
+            normalized.append(':').append(port);
+        }
+
+        String path = uri.getRawPath();
+        int end = path == null ? 0 : path.length();
+        while (end > 1 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        normalized.append(end == 0 ? "/" : path.substring(0, end));
+
+        if (uri.getRawQuery() != null) {
+            normalized.append('?').append(uri.getRawQuery());
+        }
+        if (uri.getRawFragment() != null) {
+            normalized.append('#').append(uri.getRawFragment());
+        }
+        return normalized.toString();
+    }
+
+    /** Hex SHA-256 of the normalized URL; 64 characters. */
+    public static String hash(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalize(url).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.Shortener.Service;
+
+import com.Shortener.Event.UrlDeactivatedEvent;
+import com.Shortener.Repo.UrlPurgeView;
+import com.Shortener.Repo.UrlRepository;
+import com.Shortener.Shard.UrlShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deletes deactivated and long-expired rows from {@code urls} in small,
+ * primary-key ordered chunks.
+ *
+ * Each chunk is its own short transaction and the delete re-checks the purge
+ * predicate, so several replicas running the reaper at the same time only
+ * ever delete the same rows once. Shards are purged one after another, each
+ * with its own chunk budget.
+ *
+ * A purged chunk's codes are published as a {@link UrlDeactivatedEvent}, so
+ * the redirect cache, the link index and, over the invalidation bus, other
+ * instances drop anything still held for them. Its owners' quota counters
+ * are recounted, since slots of links deactivated by expiry are only given
+ * back that way; a slot given back on delete is not given back twice.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UrlPurgeService {
+
+    private final UrlRepository urlRepository;
+    private final UrlShardRouter shardRouter;
+    private final UrlQuotaService urlQuotaService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${shortener.purge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${shortener.purge.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${shortener.purge.max-chunks-per-second:5}")
+    private double maxChunksPerSecond;
+
+    @Value("${shortener.purge.max-chunks-per-run:1000}")
+    private int maxChunksPerRun;
+
+    @Value("${shortener.purge.expired-grace-days:7}")
+    private long expiredGraceDays;
+
+    @Scheduled(initialDelayString = "${shortener.purge.initial-delay-ms:60000}",
+            fixedDelayString = "${shortener.purge.interval-ms:3600000}")
+    public void purgeScheduled() {
+        if (enabled) {
+            purge();
+        }
+    }
+
+    public long purge() {
+        long totalPurged = 0;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            int target = shard;
+            totalPurged += shardRouter.onShard(target, () -> purgeShard(target));
+        }
+        return totalPurged;
+    }
+
+    private long purgeShard(int shard) {
+        LocalDateTime expiredBefore = LocalDateTime.now().minusDays(expiredGraceDays);
+        long minChunkMillis = maxChunksPerSecond > 0 ? (long) (1000 / maxChunksPerSecond) : 0;
+        long afterId = 0L;
+        long totalPurged = 0;
+        int chunks = 0;
+        long runStart = System.currentTimeMillis();
+
+        while (chunks < maxChunksPerRun) {
+            long chunkStart = System.currentTimeMillis();
+
+            List<UrlPurgeView> rows = urlRepository.findPurgeable(afterId, expiredBefore, PageRequest.of(0, chunkSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            int purged = urlRepository.deletePurgeableByIds(rows.stream().map(UrlPurgeView::getId).toList(),
+                    expiredBefore);
+            afterId = rows.get(rows.size() - 1).getId();
+            totalPurged += purged;
+            chunks++;
+            forget(rows);
+
+            long elapsed = System.currentTimeMillis() - chunkStart;
+            log.info("Purged {} urls up to id {} on shard {} in {} ms", purged, afterId, shard, elapsed);
+
+            if (rows.size() < chunkSize) {
+                break;
+            }
+            if (!throttle(minChunkMillis - elapsed)) {
+                break;
+            }
+        }
+
+        log.info("URL purge of shard {} finished: {} rows in {} chunks ({} ms)",
+                shard, totalPurged, chunks, System.currentTimeMillis() - runStart);
+        return totalPurged;
+    }
+
+    // The purge predicate never turns false again, so every row read was deleted, here or by another replica
+    private void forget(List<UrlPurgeView> rows) {
+        eventPublisher.publishEvent(new UrlDeactivatedEvent(rows.stream().map(UrlPurgeView::getShortCode).toList()));
+        Set<String> owners = new LinkedHashSet<>();
+        rows.forEach(row -> owners.add(row.getUsername()));
+        for (String username : owners) {
+            try {
+                urlQuotaService.recount(username);
+            } catch (Exception e) {
+                // Scheduled reconciliation gets to it
+                log.warn("Could not recount the quota of {} after a purge: {}", username, e.getMessage());
+            }
+        }
+    }
+
+    private boolean throttle(long sleepMillis) {
+        if (sleepMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(sleepMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.Shortener.Service;
+
+import com.Shortener.Entity.UserUrlQuota;
+import com.Shortener.Exception.UrlException;
+import com.Shortener.Repo.UrlRepository;
+import com.Shortener.Repo.UserUrlQuotaRepository;
+import com.Shortener.Shard.UrlShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Enforces {@code shortener.max-urls-per-user} with a per-user counter in
+ * {@code user_url_quotas} instead of a COUNT over {@code urls} per create.
+ *
+ * A create takes a slot with a conditional UPDATE of the user's row, whose
+ * row lock serialises that user's concurrent creates across replicas. When
+ * the link is written to shard 0, where the counters live, the slot and the
+ * insert share one transaction; on another shard, or when the insert is
+ * group-committed, the slot is committed first, marked pending until the
+ * insert finishes, and given back if it fails. Deletes give the slot back
+ * the same way.
+ *
+ * Links deactivated by expiry are not tracked one by one, so counters only
+ * ever run high. A user without a row, or at the limit, is recounted before a
+ * create is refused, and every counter is recounted on a schedule, which also
+ * repairs a slot left taken by a crash between the two sharded writes. A
+ * recount would miss a pending slot's link, so users with one are skipped
+ * until it settles, or until it is older than
+ * {@code shortener.quota.pending-timeout-ms} and taken to be abandoned.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UrlQuotaService {
+
+    static final int QUOTA_SHARD = 0;
+
+    private final UserUrlQuotaRepository quotaRepository;
+    private final UrlRepository urlRepository;
+    private final UrlShardRouter shardRouter;
+
+    @Value("${shortener.quota.enabled:true}")
+    private boolean enabled;
+
+    @Value("${shortener.max-urls-per-user:1000}")
+    private long maxUrlsPerUser;
+
+    @Value("${shortener.quota.reconcile-page-size:500}")
+    private int reconcilePageSize;
+
+    @Value("${shortener.quota.pending-timeout-ms:60000}")
+    private long pendingTimeoutMs;
+
+    /** Runs the insert on the given shard if the user has a slot left, otherwise refuses the create. */
+    public <T> T createWithinQuota(String username, int shard, Supplier<T> insert) {
+        return create(username, shard, insert, true);
+    }
+
+    /**
+     * Like {@link #createWithinQuota}, but the slot is committed before the
+     * insert runs on every shard, for inserts committed by another thread's
+     * transaction (the create group commit).
+     */
+    public <T> T createWithinQuotaSeparately(String username, int shard, Supplier<T> insert) {
+        return create(username, shard, insert, false);
+    }
+
+    private <T> T create(String username, int shard, Supplier<T> insert, boolean shareTransaction) {
+        if (!enabled) {
+            return shardRouter.onShard(shard, insert);
+        }
+        Optional<T> created = tryCreate(username, shard, insert, shareTransaction);
+        if (created.isEmpty()) {
+            recount(username);
+            created = tryCreate(username, shard, insert, shareTransaction);
+        }
+        return created.orElseThrow(() -> new UrlException("URL limit of " + maxUrlsPerUser + " reached"));
+    }
+
+    /** Runs the deactivation on the given shard and gives the slot back if it deactivated a link. */
+    public boolean deactivateWithinQuota(String username, int shard, Supplier<Boolean> deactivate) {
+        if (enabled && shard == QUOTA_SHARD) {
+            return shardRouter.inTransaction(shard, () -> {
+                boolean deactivated = deactivate.get();
+                if (deactivated) {
+                    quotaRepository.release(username, LocalDateTime.now());
+                }
+                return deactivated;
+            });
+        }
+        boolean deactivated = shardRouter.inTransaction(shard, deactivate);
+        if (deactivated && enabled) {
+            shardRouter.inTransaction(QUOTA_SHARD, () -> quotaRepository.release(username, LocalDateTime.now()));
+        }
+        return deactivated;
+    }
+
+    // The failed reserve is rolled back before recounting, so the recount's
+    // insert never waits on a lock this transaction holds
+    private <T> Optional<T> tryCreate(String username, int shard, Supplier<T> insert, boolean shareTransaction) {
+        if (shard == QUOTA_SHARD && shareTransaction) {
+            return shardRouter.inTransaction(QUOTA_SHARD,
+                    () -> reserve(username) ? Optional.of(insert.get()) : Optional.empty());
+        }
+        if (!shardRouter.inTransaction(QUOTA_SHARD,
+                () -> quotaRepository.reservePending(username, maxUrlsPerUser, LocalDateTime.now()) == 1)) {
+            return Optional.empty();
+        }
+        T created;
+        try {
+            created = shardRouter.onShard(shard, insert);
+        } catch (RuntimeException e) {
+            shardRouter.inTransaction(QUOTA_SHARD, () -> {
+                quotaRepository.settlePending(username, LocalDateTime.now());
+                return quotaRepository.release(username, LocalDateTime.now());
+            });
+            throw e;
+        }
+        shardRouter.inTransaction(QUOTA_SHARD, () -> quotaRepository.settlePending(username, LocalDateTime.now()));
+        return Optional.of(created);
+    }
+
+    private boolean reserve(String username) {
+        return quotaRepository.reserve(username, maxUrlsPerUser, LocalDateTime.now()) == 1;
+    }
+
+    /**
+     * Sets the user's counter to the number of live links they own, creating
+     * the row if needed. The row is locked first, so on shard 0 a concurrent
+     * create has committed its link by the time it is counted; creates on
+     * other shards are pending until theirs has, and leave the counter alone.
+     */
+    public boolean recount(String username) {
+        if (!shardRouter.onShard(QUOTA_SHARD, () -> quotaRepository.existsById(username))) {
+            try {
+                shardRouter.inTransaction(QUOTA_SHARD, () -> quotaRepository.insertEmpty(username, LocalDateTime.now()));
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Quota row for {} was created concurrently", username);
+            }
+        }
+        return shardRouter.inTransaction(QUOTA_SHARD, () -> {
+            UserUrlQuota quota = quotaRepository.lockByUsername(username).orElseThrow();
+            LocalDateTime now = LocalDateTime.now();
+            boolean abandoned = false;
+            if (quota.getPendingUrls() > 0) {
+                if (quota.getPendingSince() != null
+                        && quota.getPendingSince().isAfter(now.minusNanos(pendingTimeoutMs * 1_000_000))) {
+                    // An insert still in flight; its link may not be countable yet
+                    return false;
+                }
+                abandoned = true;
+                log.warn("Dropping {} pending quota slots of {} taken since {}", quota.getPendingUrls(), username,
+                        quota.getPendingSince());
+                quota.setPendingUrls(0L);
+                quota.setPendingSince(null);
+            }
+            long live = shardRouter.onAllShards(shard -> urlRepository.countLiveUrlsByUsername(username, now))
+                    .stream().mapToLong(Long::longValue).sum();
+            if (!abandoned && quota.getActiveUrls() == live) {
+                return false;
+            }
+            log.debug("Quota of {} corrected from {} to {}", username, quota.getActiveUrls(), live);
+            quota.setActiveUrls(live);
+            quota.setUpdatedAt(now);
+            quotaRepository.save(quota);
+            return true;
+        });
+    }
+
+    @Scheduled(initialDelayString = "${shortener.quota.reconcile-interval-ms:600000}",
+            fixedDelayString = "${shortener.quota.reconcile-interval-ms:600000}")
+    public void reconcileScheduled() {
+        if (enabled) {
+            reconcile();
+        }
+    }
+
+    /** Recounts every user with a counter; several replicas may run this at once, the row lock orders them. */
+    public int reconcile() {
+        long start = System.currentTimeMillis();
+        String after = "";
+        int users = 0;
+        int corrected = 0;
+        List<String> page;
+        do {
+            String from = after;
+            page = shardRouter.onShard(QUOTA_SHARD,
+                    () -> quotaRepository.findUsernamesAfter(from, PageRequest.of(0, reconcilePageSize)));
+            for (String username : page) {
+                if (recount(username)) {
+                    corrected++;
+                }
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+                users += page.size();
+            }
+        } while (page.size() == reconcilePageSize);
+
+        log.info("Quota reconciliation checked {} users, corrected {} ({} ms)",
+                users, corrected, System.currentTimeMillis() - start);
+        return corrected;
+    }
+}
@@ -1,15 +1,33 @@
 package com.Shortener.Service;
 
+import com.Shortener.Cache.CachedRedirect;
+import com.Shortener.Cache.RedirectCache;
+import com.Shortener.Config.ReadRoutingContext;
 import com.Shortener.DTO.CreateUrlRequest;
+import com.Shortener.DTO.RedirectTarget;
 import com.Shortener.DTO.UrlResponse;
 import com.Shortener.DTO.UrlStatsResponse;
 import com.Shortener.Entity.UrlEntity;
+import com.Shortener.Event.UrlCreatedEvent;
+import com.Shortener.Event.UrlDeactivatedEvent;
+import com.Shortener.Exception.ServiceBusyException;
 import com.Shortener.Exception.UrlException;
+import com.Shortener.Expiry.UrlExpiryScheduler;
+import com.Shortener.GroupCommit.UrlInsertBatcher;
+import com.Shortener.Index.LinkIndex;
+import com.Shortener.Metrics.ShortenerMetrics;
 import com.Shortener.Repo.UrlRepository;
+import com.Shortener.Shard.UrlShardRouter;
+import com.Shortener.Timing.RequestTimings;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -17,8 +35,13 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.net.URI;
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,49 +50,77 @@ import java.util.stream.Collectors;
 public class UrlService {
 
     private final UrlRepository urlRepository;
+    private final UrlShardRouter shardRouter;
+    private final RedirectCache redirectCache;
+    private final ShortenerMetrics metrics;
+    private final UrlExpiryScheduler urlExpiryScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UrlQuotaService urlQuotaService;
+    private final LinkIndex linkIndex;
+    private final ObjectProvider<UrlInsertBatcher> urlInsertBatcher;
 
     @Value("${app.base-url}")
     private String baseUrl;
 
+    @Value("${shortener.redirect.max-cache-age-seconds:86400}")
+    private long maxCacheAgeSeconds;
+
     private static final String CHARACTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
     private static final int SHORT_CODE_LENGTH = 6;
+    private static final int MAX_CODE_ATTEMPTS = 5;
+    private static final int DEFAULT_REDIRECT_STATUS = 302;
+    private static final Set<Integer> REDIRECT_STATUSES = Set.of(301, 302, 307, 308);
     private final SecureRandom random = new SecureRandom();
 
-    @Transactional
+    // Not transactional: every repository call below runs on the shard of
+    // the code it touches, and the shard has to be chosen before a
+    // transaction takes its connection
     public UrlResponse createShortUrl(CreateUrlRequest request, String username) {
+        Timer.Sample sample = Timer.start();
+        String outcome = "error";
+        try {
+            UrlResponse response = create(request, username);
+            outcome = "created";
+            return response;
+        } catch (UrlException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(metrics.create(outcome));
+        }
+    }
+
+    private UrlResponse create(CreateUrlRequest request, String username) {
         log.info("Creating short URL for user: {}", username);
 
         try {
             // Validate URL
             validateUrl(request.getOriginalUrl());
-
-            // Generate or use custom short code
-            String shortCode;
-            if (request.getCustomAlias() != null && !request.getCustomAlias().trim().isEmpty()) {
-                if (urlRepository.existsByShortCode(request.getCustomAlias())) {
-                    throw new UrlException("Custom alias already exists");
+            validateRedirectPolicy(request);
+
+            boolean customAlias = request.getCustomAlias() != null && !request.getCustomAlias().trim().isEmpty();
+            String urlHash = UrlNormalizer.hash(request.getOriginalUrl());
+            if (Boolean.TRUE.equals(request.getReuseExisting()) && !customAlias) {
+                Optional<UrlEntity> existing = findReusable(request, username, urlHash);
+                if (existing.isPresent()) {
+                    log.info("Reusing short URL {} for user: {}", existing.get().getShortCode(), username);
+                    UrlResponse response = mapToResponse(existing.get());
+                    response.setReused(true);
+                    return response;
                 }
-                shortCode = request.getCustomAlias().trim();
-            } else {
-                shortCode = generateShortCode();
             }
 
-            // Create URL entity
-            UrlEntity urlEntity = UrlEntity.builder()
-                    .originalUrl(request.getOriginalUrl())
-                    .shortCode(shortCode)
-                    .username(username)
-                    .createdAt(LocalDateTime.now())
-                    .expiresAt(
-                            request.getExpiresAt() != null ? request.getExpiresAt() : LocalDateTime.now().plusDays(365))
-                    .build();
-
-            urlEntity = urlRepository.save(urlEntity);
-            log.info("Short URL created successfully: {}", shortCode);
+            UrlEntity saved = customAlias
+                    ? insert(request, username, urlHash, request.getCustomAlias().trim())
+                            .orElseThrow(() -> new UrlException("Custom alias already exists"))
+                    : insertWithGeneratedCode(request, username, urlHash);
+            urlExpiryScheduler.schedule(saved.getShortCode(), saved.getExpiresAt());
+            eventPublisher.publishEvent(new UrlCreatedEvent(saved, shardRouter.writeShard(saved.getShortCode())));
+            log.info("Short URL created successfully: {}", saved.getShortCode());
 
-            return mapToResponse(urlEntity);
+            return mapToResponse(saved);
 
-        } catch (UrlException e) {
+        } catch (UrlException | ServiceBusyException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error creating short URL: {}", e.getMessage(), e);
@@ -77,82 +128,292 @@ public class UrlService {
         }
     }
 
-    @Transactional
-    public String redirectToOriginalUrl(String shortCode) {
-        log.info("Redirecting short code: {}", shortCode);
+    /**
+     * A live link of the user's to the same normalized destination with the
+     * same redirect policy, and the same expiry if one was asked for. One
+     * index probe on (username, urlHash) per shard.
+     */
+    private Optional<UrlEntity> findReusable(CreateUrlRequest request, String username, String urlHash) {
+        String destination = UrlNormalizer.normalize(request.getOriginalUrl());
+        LocalDateTime now = LocalDateTime.now();
+        return shardRouter.onAllShards(shard -> urlRepository.findByUsernameAndUrlHashAndIsActiveTrue(username, urlHash))
+                .stream()
+                .flatMap(List::stream)
+                .filter(url -> url.getExpiresAt().isAfter(now))
+                .filter(url -> request.getExpiresAt() == null || request.getExpiresAt().equals(url.getExpiresAt()))
+                .filter(url -> Objects.equals(request.getRedirectStatus(), url.getRedirectStatus())
+                        && Objects.equals(request.getCacheMaxAgeSeconds(), url.getCacheMaxAgeSeconds()))
+                .filter(url -> UrlNormalizer.normalize(url.getOriginalUrl()).equals(destination))
+                .min(Comparator.comparing(UrlEntity::getCreatedAt));
+    }
 
-        UrlEntity urlEntity = urlRepository.findByShortCodeAndIsActiveTrue(shortCode)
-                .orElseThrow(() -> new UrlException("Short URL not found or expired"));
+    private UrlEntity insertWithGeneratedCode(CreateUrlRequest request, String username, String urlHash) {
+        for (int attempt = 0; attempt < MAX_CODE_ATTEMPTS; attempt++) {
+            Optional<UrlEntity> saved = insert(request, username, urlHash, generateRandomString());
+            if (saved.isPresent()) {
+                return saved.get();
+            }
+        }
+        throw new UrlException("Could not generate a unique short code");
+    }
+
+    /**
+     * Inserts the link and lets the unique key on {@code shortCode} catch a
+     * taken code, instead of checking first; empty if the code is taken.
+     * Mid-reshard the code may only exist on its old shard, which the insert
+     * cannot see, so only then is it looked up first. With group commit on,
+     * {@link UrlInsertBatcher} writes it together with other creates.
+     */
+    private Optional<UrlEntity> insert(CreateUrlRequest request, String username, String urlHash, String shortCode) {
+        if (shardRouter.readShards(shortCode).length > 1 && existsOnAnyShard(shortCode)) {
+            return Optional.empty();
+        }
+
+        UrlEntity urlEntity = UrlEntity.builder()
+                .originalUrl(request.getOriginalUrl())
+                .urlHash(urlHash)
+                .shortCode(shortCode)
+                .username(username)
+                .createdAt(LocalDateTime.now())
+                .expiresAt(request.getExpiresAt() != null ? request.getExpiresAt() : LocalDateTime.now().plusDays(365))
+                .redirectStatus(request.getRedirectStatus())
+                .cacheMaxAgeSeconds(request.getCacheMaxAgeSeconds())
+                .build();
+
+        int shard = shardRouter.writeShard(shortCode);
+        try {
+            // Slices that do not load the group-commit config simply save directly
+            UrlInsertBatcher batcher = urlInsertBatcher.getIfAvailable();
+            UrlEntity saved = batcher != null && batcher.isEnabled()
+                    ? urlQuotaService.createWithinQuotaSeparately(username, shard,
+                            () -> batcher.insert(shard, urlEntity))
+                    : urlQuotaService.createWithinQuota(username, shard, () -> urlRepository.save(urlEntity));
+            return Optional.of(saved);
+        } catch (DataIntegrityViolationException e) {
+            // Only now pay for a lookup, to tell a taken code from any other constraint
+            boolean taken = shardRouter.onShard(shard,
+                    () -> ReadRoutingContext.onPrimary(() -> urlRepository.existsByShortCode(shortCode)));
+            if (!taken) {
+                throw e;
+            }
+            log.debug("Short code {} was taken, insert rejected by the unique key", shortCode);
+            return Optional.empty();
+        }
+    }
+
+    // Not transactional: the lookup is a read-only repository call, which
+    // can be served by a replica, and the click increment runs on its own
+    public RedirectTarget redirectToOriginalUrl(String shortCode) {
+        Timer.Sample sample = Timer.start();
+        String outcome = "error";
+        try {
+            RedirectTarget target = resolve(shortCode);
+            outcome = "found";
+            return target;
+        } catch (UrlException e) {
+            outcome = "not_found";
+            throw e;
+        } finally {
+            sample.stop(metrics.redirect(outcome));
+        }
+    }
+
+    private RedirectTarget resolve(String shortCode) {
+        log.debug("Redirecting short code: {}", shortCode);
+
+        // Once built, the link index holds every active link and replaces the cache
+        boolean indexed = linkIndex.isReady();
+        CachedRedirect redirect = indexed ? linkIndex.get(shortCode) : redirectCache.get(shortCode);
+        if (redirect == null || !isReadShard(shortCode, redirect.shard())) {
+            long lookupBegin = RequestTimings.begin();
+            try {
+                redirect = redirectCache.load(shortCode, () -> lookUp(shortCode, indexed));
+            } finally {
+                RequestTimings.end("lookup", lookupBegin);
+            }
+        }
 
         // Check if URL is expired
-        if (urlEntity.getExpiresAt().isBefore(LocalDateTime.now())) {
+        if (redirect.expiresAt().isBefore(LocalDateTime.now())) {
             log.warn("Attempt to access expired URL: {}", shortCode);
             throw new UrlException("Short URL has expired");
         }
 
         // Increment click count
+        long clickBegin = RequestTimings.begin();
         try {
-            urlRepository.incrementClickCount(shortCode);
-            log.info("Click count incremented for: {}", shortCode);
+            int shard = redirect.shard();
+            shardRouter.onShard(shard, () -> urlRepository.incrementClickCount(shortCode));
+            log.debug("Click count incremented for: {}", shortCode);
         } catch (Exception e) {
             log.error("Failed to increment click count for: {}", shortCode, e);
+        } finally {
+            RequestTimings.end("click", clickBegin);
+        }
+
+        return redirectTarget(redirect);
+    }
+
+    // Concurrent misses for the code wait for this and share its result or exception.
+    // A delete that lands while it runs, or one the replica has not seen yet,
+    // leaves a tombstone that keeps the link from being cached or served
+    private CachedRedirect lookUp(String shortCode, boolean indexed) {
+        long stamp = redirectCache.stamp();
+        UrlShardRouter.Located<UrlEntity> located = shardRouter.findFirst(shortCode,
+                () -> urlRepository.findByShortCodeAndIsActiveTrue(shortCode)
+                        // A link created moments ago may not have reached the replica yet
+                        .or(() -> ReadRoutingContext.onPrimary(() -> urlRepository.findByShortCodeAndIsActiveTrue(shortCode))))
+                .orElseThrow(() -> new UrlException("Short URL not found or expired"));
+        CachedRedirect redirect = CachedRedirect.of(located.value(), located.shard());
+        boolean kept;
+        if (indexed) {
+            linkIndex.put(shortCode, redirect);
+            kept = !redirectCache.invalidatedSince(shortCode, stamp);
+            if (!kept) {
+                linkIndex.remove(List.of(shortCode));
+            }
+        } else {
+            kept = redirectCache.put(shortCode, redirect, stamp);
+        }
+        if (!kept) {
+            throw new UrlException("Short URL not found or expired");
+        }
+        return redirect;
+    }
+
+    // A cached shard goes stale once resharding moves the code elsewhere
+    private boolean isReadShard(String shortCode, int shard) {
+        for (int readShard : shardRouter.readShards(shortCode)) {
+            if (readShard == shard) {
+                return true;
+            }
         }
+        return false;
+    }
 
-        return urlEntity.getOriginalUrl();
+    // The max-age never outlives the link, so caches stop redirecting once it expires
+    private RedirectTarget redirectTarget(CachedRedirect redirect) {
+        int status = redirect.redirectStatus() != null ? redirect.redirectStatus() : DEFAULT_REDIRECT_STATUS;
+        long maxAge = redirect.cacheMaxAgeSeconds() != null ? redirect.cacheMaxAgeSeconds() : 0L;
+        long remaining = Duration.between(LocalDateTime.now(), redirect.expiresAt()).toSeconds();
+        maxAge = Math.max(0L, Math.min(Math.min(maxAge, maxCacheAgeSeconds), remaining));
+        return new RedirectTarget(redirect.originalUrl(), status, maxAge);
     }
 
+    @Transactional(readOnly = true)
     public Page<UrlResponse> getUserUrls(String username, Pageable pageable) {
         log.info("Fetching URLs for user: {}", username);
 
-        Page<UrlEntity> urls = urlRepository.findByUsernameAndIsActiveTrueOrderByCreatedAtDesc(username, pageable);
-        return urls.map(this::mapToResponse);
+        if (shardRouter.shardCount() == 1) {
+            Page<UrlEntity> urls = urlRepository.findByUsernameAndIsActiveTrueOrderByCreatedAtDesc(username, pageable);
+            return urls.map(this::mapToResponse);
+        }
+
+        // Scatter-gather: every shard returns its newest offset + size rows,
+        // the merged list is cut down to the requested page
+        int window = (int) pageable.getOffset() + pageable.getPageSize();
+        List<Page<UrlEntity>> pages = shardRouter.onAllShards(shard -> urlRepository
+                .findByUsernameAndIsActiveTrueOrderByCreatedAtDesc(username, PageRequest.of(0, window)));
+
+        long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+        List<UrlResponse> content = pages.stream()
+                .flatMap(page -> page.getContent().stream())
+                .sorted(Comparator.comparing(UrlEntity::getCreatedAt).reversed())
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(content, pageable, total);
     }
 
+    @Transactional(readOnly = true)
     public UrlStatsResponse getUserStats(String username) {
+        Timer.Sample sample = Timer.start();
+        String outcome = "error";
+        try {
+            UrlStatsResponse stats = computeStats(username);
+            outcome = "success";
+            return stats;
+        } finally {
+            sample.stop(metrics.stats(outcome));
+        }
+    }
+
+    private UrlStatsResponse computeStats(String username) {
         log.info("Fetching stats for user: {}", username);
 
-        long totalUrls = urlRepository.countActiveUrlsByUsername(username);
-        Long totalClicks = urlRepository.getTotalClicksByUsername(username);
+        List<ShardStats> perShard = shardRouter.onAllShards(shard -> new ShardStats(
+                urlRepository.countActiveUrlsByUsername(username),
+                urlRepository.getTotalClicksByUsername(username),
+                urlRepository.findTop5ByUsernameAndIsActiveTrueOrderByClickCountDesc(username)));
 
-        List<UrlEntity> topUrls = urlRepository.findByUsernameAndIsActiveTrueOrderByClickCountDesc(username)
-                .stream()
+        long totalUrls = perShard.stream().mapToLong(ShardStats::urls).sum();
+        long totalClicks = perShard.stream().mapToLong(stats -> stats.clicks() != null ? stats.clicks() : 0L).sum();
+
+        List<UrlEntity> topUrls = perShard.stream()
+                .flatMap(stats -> stats.top().stream())
+                .sorted(Comparator.comparing(UrlEntity::getClickCount).reversed())
                 .limit(5)
                 .collect(Collectors.toList());
 
         return UrlStatsResponse.builder()
                 .totalUrls(totalUrls)
-                .totalClicks(totalClicks != null ? totalClicks : 0L)
+                .totalClicks(totalClicks)
                 .activeUrls(totalUrls)
                 .topUrls(topUrls.stream().map(this::mapToResponse).collect(Collectors.toList()))
                 .build();
     }
 
-    @Transactional
     public void deleteUrl(String shortCode, String username) {
         log.info("Deleting URL: {} for user: {}", shortCode, username);
 
-        UrlEntity urlEntity = urlRepository.findByShortCodeAndIsActiveTrue(shortCode)
-                .orElseThrow(() -> new UrlException("URL not found"));
+        // While a bucket is being resharded the row may exist on two shards;
+        // a slot given back twice then is corrected by quota reconciliation
+        boolean found = false;
+        for (int shard : shardRouter.readShards(shortCode)) {
+            found |= urlQuotaService.deactivateWithinQuota(username, shard,
+                    () -> deactivateOwnedUrl(shortCode, username));
+        }
+        if (!found) {
+            throw new UrlException("URL not found");
+        }
+
+        eventPublisher.publishEvent(new UrlDeactivatedEvent(List.of(shortCode)));
+
+        log.info("URL deleted successfully: {}", shortCode);
+    }
+
+    private boolean deactivateOwnedUrl(String shortCode, String username) {
+        Optional<UrlEntity> found = urlRepository.findByShortCodeAndIsActiveTrue(shortCode);
+        if (found.isEmpty()) {
+            return false;
+        }
 
+        UrlEntity urlEntity = found.get();
         if (!urlEntity.getUsername().equals(username)) {
             throw new UrlException("Unauthorized to delete this URL");
         }
 
         urlEntity.setIsActive(false);
         urlRepository.save(urlEntity);
+        return true;
+    }
 
-        log.info("URL deleted successfully: {}", shortCode);
+    private record ShardStats(long urls, Long clicks, List<UrlEntity> top) {
     }
 
-    private String generateShortCode() {
-        String shortCode;
-        do {
-            shortCode = generateRandomString();
-        } while (urlRepository.existsByShortCode(shortCode));
-        return shortCode;
+    private boolean existsOnAnyShard(String shortCode) {
+        for (int shard : shardRouter.readShards(shortCode)) {
+            if (shardRouter.onShard(shard, () -> urlRepository.existsByShortCode(shortCode))) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private String generateRandomString() {
+    // Package-private so the JMH benchmarks in src/jmh can reach the helpers below
+    String generateRandomString() {
         StringBuilder sb = new StringBuilder(SHORT_CODE_LENGTH);
         for (int i = 0; i < SHORT_CODE_LENGTH; i++) {
             sb.append(CHARACTERS.charAt(random.nextInt(CHARACTERS.length())));
@@ -160,10 +421,12 @@ public class UrlService {
         return sb.toString();
     }
 
-    private void validateUrl(String url) {
+    void validateUrl(String url) {
         try {
             URI uri = new URI(url);
-            if (!uri.isAbsolute() || (!"http".equals(uri.getScheme()) && !"https".equals(uri.getScheme()))) {
+            // Schemes are case-insensitive; UrlNormalizer lowercases them for the hash
+            if (!uri.isAbsolute() || (!"http".equalsIgnoreCase(uri.getScheme())
+                    && !"https".equalsIgnoreCase(uri.getScheme()))) {
                 throw new UrlException("Invalid URL format. URL must start with http:// or https://");
             }
         } catch (Exception e) {
@@ -171,7 +434,16 @@ public class UrlService {
         }
     }
 
-    private UrlResponse mapToResponse(UrlEntity entity) {
+    private void validateRedirectPolicy(CreateUrlRequest request) {
+        if (request.getRedirectStatus() != null && !REDIRECT_STATUSES.contains(request.getRedirectStatus())) {
+            throw new UrlException("Redirect status must be one of " + REDIRECT_STATUSES);
+        }
+        if (request.getCacheMaxAgeSeconds() != null && request.getCacheMaxAgeSeconds() > maxCacheAgeSeconds) {
+            throw new UrlException("Cache max-age cannot exceed " + maxCacheAgeSeconds + " seconds");
+        }
+    }
+
+    UrlResponse mapToResponse(UrlEntity entity) {
         return UrlResponse.builder()
                 .id(entity.getId())
                 .originalUrl(entity.getOriginalUrl())
@@ -182,6 +454,8 @@ public class UrlService {
                 .expiresAt(entity.getExpiresAt())
                 .clickCount(entity.getClickCount())
                 .isActive(entity.getIsActive())
+                .redirectStatus(entity.getRedirectStatus() != null ? entity.getRedirectStatus() : DEFAULT_REDIRECT_STATUS)
+                .cacheMaxAgeSeconds(entity.getCacheMaxAgeSeconds() != null ? entity.getCacheMaxAgeSeconds() : 0)
                 .build();
     }
 }
@@ -0,0 +1,35 @@
+package com.Shortener.Shard;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard the current thread's next connection is taken from. Must be set
+ * before the first statement of a transaction, which is why the service
+ * enters it outside of any {@code @Transactional} boundary.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard != null ? shard : 0;
+    }
+
+    public static <T> T onShard(int shard, Supplier<T> action) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
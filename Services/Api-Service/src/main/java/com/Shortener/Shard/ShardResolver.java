@@ -0,0 +1,148 @@
+package com.Shortener.Shard;
+
+import com.Shortener.Entity.ShardLayoutAck;
+import com.Shortener.Entity.ShardMove;
+import com.Shortener.Repo.ShardLayoutAckRepository;
+import com.Shortener.Repo.ShardMoveRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Maps a short code to its shard using nothing but the code.
+ *
+ * The code hashes to one of {@value #BUCKETS} buckets; bucket {@code b}
+ * starts on shard {@code b % initialShardCount} and moves recorded in
+ * {@code url_shard_moves} are replayed on top. The initial count is pinned
+ * rather than taken from the configured shards, so adding a shard moves no
+ * bucket: the new shard starts empty and is filled by moves. While a range
+ * is MIGRATING, writes go to the target and reads try the target, then the
+ * source.
+ *
+ * Every reload records the layout version it loaded in
+ * {@code url_shard_layout_acks}, which is how a move knows every instance
+ * routes by its new state.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ShardResolver {
+
+    public static final int BUCKETS = 1024;
+
+    private final ShardingProperties properties;
+    private final ShardMoveRepository shardMoveRepository;
+    private final ShardLayoutAckRepository shardLayoutAckRepository;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private record Layout(int[] owner, int[] migratingTo, long version) {
+    }
+
+    private volatile Layout layout;
+
+    public static int bucketOf(String shortCode) {
+        // String.hashCode is fixed by the language spec, so buckets are stable
+        // across JVMs; the finalizer spreads similar codes apart
+        int h = shortCode.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return Math.floorMod(h, BUCKETS);
+    }
+
+    /**
+     * Counts every state change of every move, which only ever grows: a
+     * move adds one when it starts MIGRATING and one when it is DONE.
+     */
+    public static long versionOf(List<ShardMove> moves) {
+        return moves.size() + moves.stream().filter(move -> move.getState() == ShardMove.State.DONE).count();
+    }
+
+    @PostConstruct
+    public void init() {
+        if (properties.initialShardCount() > shardCount()) {
+            throw new IllegalStateException("shortener.sharding.initial-shard-count is "
+                    + properties.initialShardCount() + " but only " + shardCount() + " shards are configured");
+        }
+        layout = buildLayout(List.of());
+        refresh();
+    }
+
+    public int shardCount() {
+        return properties.shardCount();
+    }
+
+    public int writeShard(String shortCode) {
+        Layout current = layout;
+        int bucket = bucketOf(shortCode);
+        int target = current.migratingTo()[bucket];
+        return target >= 0 ? target : current.owner()[bucket];
+    }
+
+    public int[] readShards(String shortCode) {
+        Layout current = layout;
+        int bucket = bucketOf(shortCode);
+        int target = current.migratingTo()[bucket];
+        int owner = current.owner()[bucket];
+        return target >= 0 && target != owner ? new int[] { target, owner } : new int[] { owner };
+    }
+
+    public long layoutVersion() {
+        return layout.version();
+    }
+
+    @Scheduled(fixedDelayString = "${shortener.sharding.refresh-interval-ms:5000}")
+    public void refresh() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            Layout loaded = buildLayout(ShardContext.onShard(0, shardMoveRepository::findAllByOrderByIdAsc));
+            layout = loaded;
+            // Only after the swap: from here on this instance routes by the version it acknowledges
+            ShardContext.onShard(0, () -> shardLayoutAckRepository.save(ShardLayoutAck.builder()
+                    .instanceId(instanceId)
+                    .layoutVersion(loaded.version())
+                    .ackedAt(LocalDateTime.now())
+                    .build()));
+        } catch (Exception e) {
+            log.error("Failed to reload shard layout, keeping the previous one: {}", e.getMessage());
+        }
+    }
+
+    private Layout buildLayout(List<ShardMove> moves) {
+        int shards = shardCount();
+        int initialShards = properties.initialShardCount();
+        int[] owner = new int[BUCKETS];
+        int[] migratingTo = new int[BUCKETS];
+        Arrays.fill(migratingTo, -1);
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            owner[bucket] = bucket % initialShards;
+        }
+
+        for (ShardMove move : moves) {
+            if (move.getTargetShard() >= shards) {
+                log.warn("Ignoring move {} to unknown shard {}", move.getId(), move.getTargetShard());
+                continue;
+            }
+            for (int bucket = move.getBucketFrom(); bucket <= move.getBucketTo(); bucket++) {
+                if (move.getState() == ShardMove.State.DONE) {
+                    owner[bucket] = move.getTargetShard();
+                    migratingTo[bucket] = -1;
+                } else {
+                    migratingTo[bucket] = move.getTargetShard();
+                }
+            }
+        }
+        return new Layout(owner, migratingTo, versionOf(moves));
+    }
+}
@@ -0,0 +1,84 @@
+package com.Shortener.Shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hash sharding of the {@code urls} table, enabled with
+ * {@code shortener.sharding.enabled}. Shard 0 is {@code spring.datasource}
+ * and also holds {@code url_shard_moves} and {@code url_shard_layout_acks};
+ * the other shards must already have the {@code urls} schema. Cannot be
+ * combined with replica routing.
+ *
+ * Ids are only unique per shard, so the second-level cache, which is keyed
+ * by id, is switched off while sharding is enabled.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "shortener.sharding", name = "enabled", havingValue = "true")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource shardZeroDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "shortener.sharding", name = "enabled", havingValue = "true")
+    public ShardRoutingDataSource shardRoutingDataSource(HikariDataSource shardZeroDataSource,
+            ShardingProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(shardZeroDataSource);
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = properties.getShards().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("shard-" + (i + 1));
+            pool.setJdbcUrl(shard.getUrl());
+            pool.setUsername(shard.getUsername());
+            pool.setPassword(shard.getPassword());
+            // Left unset, Hikari picks the driver from the URL, so shards can be embedded databases in tests
+            if (shard.getDriverClassName() != null) {
+                pool.setDriverClassName(shard.getDriverClassName());
+            }
+            pool.setMaximumPoolSize(shard.getMaximumPoolSize());
+            // Pools that are not beans are not picked up by Boot's Hikari metrics
+            meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            shards.add(pool);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "shortener.sharding", name = "enabled", havingValue = "true")
+    public HibernatePropertiesCustomizer shardingCacheCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+        };
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "shortener.sharding", name = "enabled", havingValue = "true")
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        // Lazy so the shard is only chosen when the first statement runs
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+}
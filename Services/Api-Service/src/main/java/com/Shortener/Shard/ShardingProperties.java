@@ -0,0 +1,51 @@
+package com.Shortener.Shard;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "shortener.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    // Shards after shard 0, which is always spring.datasource
+    private List<Shard> shards = new ArrayList<>();
+
+    // Shards the buckets were spread over when sharding was first enabled.
+    // Shards added later start empty and only get buckets through moves;
+    // 0 means every configured shard, which is only right until one is added
+    private int initialShardCount = 0;
+
+    // How often the bucket map is reloaded from url_shard_moves
+    private long refreshIntervalMs = 5000;
+
+    // An instance that has not acknowledged a layout for this long is taken to be gone
+    private long instanceExpiryMs = 60000;
+
+    // How long a move waits for every instance to load its layout before giving up
+    private long propagationTimeoutMs = 120000;
+
+    // Required in the X-Admin-Token header of the resharding endpoint; blank disables it
+    private String adminToken = "";
+
+    public int shardCount() {
+        return enabled ? shards.size() + 1 : 1;
+    }
+
+    public int initialShardCount() {
+        return enabled && initialShardCount > 0 ? initialShardCount : shardCount();
+    }
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,218 @@
+package com.Shortener.Shard;
+
+import com.Shortener.Entity.ShardLayoutAck;
+import com.Shortener.Entity.ShardMove;
+import com.Shortener.Entity.UrlEntity;
+import com.Shortener.Exception.UrlException;
+import com.Shortener.Repo.ShardLayoutAckRepository;
+import com.Shortener.Repo.ShardMoveRepository;
+import com.Shortener.Repo.UrlRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Moves a range of buckets to another shard while the service keeps serving.
+ *
+ * 1. The move is recorded as MIGRATING; once every instance has
+ *    acknowledged the new layout version, new links in the range are
+ *    written to the target and reads try the target before the source.
+ * 2. Existing rows are copied to the target in id order, skipping codes the
+ *    target already has. Copies start with no clicks: clicks keep landing
+ *    on whichever copy a redirect found, so the source still collects some.
+ * 3. The move is marked DONE; once every instance has acknowledged that,
+ *    reads and clicks only go to the target. Each source row's clicks are
+ *    added to its copy, then the source rows are deleted in chunks.
+ *
+ * Instances that have not acknowledged any layout within
+ * {@code instance-expiry-ms} are taken to be gone and not waited for.
+ * Moves run one at a time on a background thread. A move that fails before
+ * it is DONE, including one whose layout did not propagate in time, stays
+ * MIGRATING, which is safe to serve from. One that fails later leaves source
+ * rows nothing reads any more. Either way it can be started again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UrlReshardingService {
+
+    private final UrlRepository urlRepository;
+    private final ShardMoveRepository shardMoveRepository;
+    private final ShardLayoutAckRepository shardLayoutAckRepository;
+    private final ShardResolver shardResolver;
+    private final UrlShardRouter shardRouter;
+    private final ShardingProperties properties;
+    private final ExecutorService moveExecutor = Executors.newSingleThreadExecutor();
+
+    @Value("${shortener.sharding.move-chunk-size:500}")
+    private int chunkSize;
+
+    public List<ShardMove> listMoves() {
+        return shardRouter.onShard(0, shardMoveRepository::findAllByOrderByIdAsc);
+    }
+
+    public ShardMove startMove(int bucketFrom, int bucketTo, int targetShard) {
+        if (!properties.isEnabled()) {
+            throw new UrlException("Sharding is not enabled");
+        }
+        if (bucketFrom > bucketTo || bucketTo >= ShardResolver.BUCKETS) {
+            throw new UrlException("Invalid bucket range");
+        }
+        if (targetShard >= shardRouter.shardCount()) {
+            throw new UrlException("Unknown shard: " + targetShard);
+        }
+        if (listMoves().stream().anyMatch(move -> move.getState() == ShardMove.State.MIGRATING)) {
+            throw new UrlException("Another move is still in progress");
+        }
+
+        ShardMove move = shardRouter.onShard(0, () -> shardMoveRepository.save(ShardMove.builder()
+                .bucketFrom(bucketFrom)
+                .bucketTo(bucketTo)
+                .targetShard(targetShard)
+                .state(ShardMove.State.MIGRATING)
+                .updatedAt(LocalDateTime.now())
+                .build()));
+        log.info("Started move {} of buckets {}-{} to shard {}", move.getId(), bucketFrom, bucketTo, targetShard);
+
+        moveExecutor.submit(() -> runMove(move));
+        return move;
+    }
+
+    private void runMove(ShardMove move) {
+        try {
+            shardResolver.refresh();
+            awaitLayoutPropagation(ShardResolver.versionOf(listMoves()));
+
+            long copied = 0;
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                int source = shard;
+                shardRouter.onShard(source, () -> backfillBuckets(source));
+                if (source != move.getTargetShard()) {
+                    copied += copyRange(move, source);
+                }
+            }
+            log.info("Move {} copied {} rows to shard {}", move.getId(), copied, move.getTargetShard());
+
+            move.setState(ShardMove.State.DONE);
+            move.setUpdatedAt(LocalDateTime.now());
+            shardRouter.onShard(0, () -> shardMoveRepository.save(move));
+            shardResolver.refresh();
+            awaitLayoutPropagation(ShardResolver.versionOf(listMoves()));
+
+            long deleted = 0;
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                if (shard != move.getTargetShard()) {
+                    int source = shard;
+                    deleted += shardRouter.onShard(source, () -> foldAndDeleteRange(move));
+                }
+            }
+            log.info("Move {} finished, removed {} rows from the source shards", move.getId(), deleted);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Move {} interrupted, left in state {}", move.getId(), move.getState());
+        } catch (Exception e) {
+            log.error("Move {} failed in state {}: {}", move.getId(), move.getState(), e.getMessage(), e);
+        }
+    }
+
+    // Rows written before the shardBucket column existed
+    private void backfillBuckets(int shard) {
+        long afterId = 0L;
+        int filled = 0;
+        List<UrlEntity> page;
+        do {
+            page = urlRepository.findWithoutShardBucket(afterId, PageRequest.of(0, chunkSize));
+            for (UrlEntity url : page) {
+                urlRepository.setShardBucket(url.getId(), ShardResolver.bucketOf(url.getShortCode()));
+                afterId = url.getId();
+            }
+            filled += page.size();
+        } while (page.size() == chunkSize);
+
+        if (filled > 0) {
+            log.info("Backfilled shard bucket of {} rows on shard {}", filled, shard);
+        }
+    }
+
+    private long copyRange(ShardMove move, int source) {
+        long afterId = 0L;
+        long copied = 0;
+        List<UrlEntity> page;
+        do {
+            long cursor = afterId;
+            page = shardRouter.onShard(source, () -> urlRepository.findInBucketRange(
+                    move.getBucketFrom(), move.getBucketTo(), cursor, PageRequest.of(0, chunkSize)));
+            for (UrlEntity url : page) {
+                copied += copyRow(url, move.getTargetShard()) ? 1 : 0;
+                afterId = url.getId();
+            }
+        } while (page.size() == chunkSize);
+        return copied;
+    }
+
+    private boolean copyRow(UrlEntity url, int targetShard) {
+        return shardRouter.onShard(targetShard, () -> {
+            // Created on the target after the move started, or copied by an earlier attempt
+            if (urlRepository.existsByShortCode(url.getShortCode())) {
+                return false;
+            }
+            // Every column but the id, which is only unique per shard, and the
+            // clicks, which are added from the source row before it is deleted
+            urlRepository.save(url.toBuilder().id(null).clickCount(0L).build());
+            return true;
+        });
+    }
+
+    // A failure between adding a chunk's clicks and deleting it counts that chunk twice on the retry
+    private long foldAndDeleteRange(ShardMove move) {
+        long deleted = 0;
+        List<UrlEntity> page;
+        do {
+            // Deleted rows drop out of the range, so every chunk starts from the beginning
+            page = urlRepository.findInBucketRange(move.getBucketFrom(), move.getBucketTo(), 0L,
+                    PageRequest.of(0, chunkSize));
+            for (UrlEntity url : page) {
+                if (url.getClickCount() != null && url.getClickCount() > 0) {
+                    shardRouter.onShard(move.getTargetShard(),
+                            () -> urlRepository.addClicks(url.getShortCode(), url.getClickCount()));
+                }
+            }
+            if (!page.isEmpty()) {
+                deleted += urlRepository.deleteByIds(page.stream().map(UrlEntity::getId).toList());
+            }
+        } while (page.size() == chunkSize);
+        return deleted;
+    }
+
+    private void awaitLayoutPropagation(long version) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + properties.getPropagationTimeoutMs();
+        while (true) {
+            LocalDateTime expiry = LocalDateTime.now().minusNanos(properties.getInstanceExpiryMs() * 1_000_000);
+            List<ShardLayoutAck> behind = shardRouter.onShard(0, () -> {
+                shardLayoutAckRepository.deleteAckedBefore(expiry);
+                return shardLayoutAckRepository.findByAckedAtAfter(expiry);
+            }).stream().filter(ack -> ack.getLayoutVersion() < version).toList();
+            if (behind.isEmpty()) {
+                return;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                throw new IllegalStateException(behind.size() + " instances have not loaded layout version "
+                        + version + ", e.g. " + behind.get(0).getInstanceId());
+            }
+            Thread.sleep(Math.max(100L, properties.getRefreshIntervalMs() / 2));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        moveExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,105 @@
+package com.Shortener.Shard;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Runs {@code UrlRepository} work on the right shard. With sharding disabled
+ * there is a single shard and every call runs inline.
+ */
+@Component
+@RequiredArgsConstructor
+public class UrlShardRouter {
+
+    private final ShardResolver shardResolver;
+    private final PlatformTransactionManager transactionManager;
+    private final ExecutorService scatterExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public record Located<T>(int shard, T value) {
+    }
+
+    public int shardCount() {
+        return shardResolver.shardCount();
+    }
+
+    public int writeShard(String shortCode) {
+        return shardResolver.writeShard(shortCode);
+    }
+
+    public int[] readShards(String shortCode) {
+        return shardResolver.readShards(shortCode);
+    }
+
+    public <T> T onShard(int shard, Supplier<T> action) {
+        return ShardContext.onShard(shard, action);
+    }
+
+    public void onShard(int shard, Runnable action) {
+        ShardContext.onShard(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /** Runs the action in one transaction on the given shard. */
+    public <T> T inTransaction(int shard, Supplier<T> action) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        return ShardContext.onShard(shard, () -> template.execute(status -> action.get()));
+    }
+
+    /** Returns the first non-empty lookup result over the code's read shards. */
+    public <T> Optional<Located<T>> findFirst(String shortCode, Supplier<Optional<T>> lookup) {
+        for (int shard : readShards(shortCode)) {
+            Optional<T> found = onShard(shard, lookup);
+            if (found.isPresent()) {
+                return Optional.of(new Located<>(shard, found.get()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** Runs the action on every shard in parallel; results are in shard order. */
+    public <T> List<T> onAllShards(IntFunction<T> action) {
+        int shards = shardCount();
+        if (shards == 1) {
+            return List.of(onShard(0, () -> action.apply(0)));
+        }
+
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> onShard(target, () -> action.apply(target)), scatterExecutor));
+        }
+
+        List<T> results = new ArrayList<>(shards);
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scatterExecutor.shutdown();
+    }
+}
@@ -0,0 +1,122 @@
+package com.Shortener.Timing;
+
+/**
+ * Thread-confined recorder of named phases for the request being served.
+ *
+ * One recorder per thread is reused across requests, so recording a phase is
+ * two {@code System.nanoTime()} calls and an array update. Repeated phases
+ * with the same name are summed. Outside a request, or on worker threads a
+ * request fans out to, {@link #begin()} returns 0 and {@link #end} ignores it.
+ */
+public final class RequestTimings {
+
+    private static final int MAX_PHASES = 16;
+
+    private static final ThreadLocal<RequestTimings> RECORDER = ThreadLocal.withInitial(RequestTimings::new);
+
+    private final String[] names = new String[MAX_PHASES];
+    private final long[] nanos = new long[MAX_PHASES];
+    private final int[] counts = new int[MAX_PHASES];
+    private int size;
+    private long startNanos;
+    private boolean active;
+
+    private RequestTimings() {
+    }
+
+    /** Starts recording on this thread, discarding whatever the previous request left. */
+    public static RequestTimings start() {
+        RequestTimings timings = RECORDER.get();
+        timings.size = 0;
+        timings.startNanos = System.nanoTime();
+        timings.active = true;
+        return timings;
+    }
+
+    /** Stops recording; the returned recorder stays readable until this thread starts the next request. */
+    public static RequestTimings finish() {
+        RequestTimings timings = RECORDER.get();
+        timings.active = false;
+        return timings;
+    }
+
+    /** The recorder of the request being served on this thread, or null outside one. */
+    public static RequestTimings current() {
+        RequestTimings timings = RECORDER.get();
+        return timings.active ? timings : null;
+    }
+
+    public static long begin() {
+        RequestTimings timings = RECORDER.get();
+        return timings.active ? System.nanoTime() : 0L;
+    }
+
+    public static void end(String phase, long begin) {
+        if (begin != 0L) {
+            RECORDER.get().add(phase, System.nanoTime() - begin);
+        }
+    }
+
+    /** Records the time from the start of the request up to now as {@code phase}. */
+    public static void sinceStart(String phase) {
+        RequestTimings timings = RECORDER.get();
+        if (timings.active) {
+            timings.add(phase, System.nanoTime() - timings.startNanos);
+        }
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String name(int index) {
+        return names[index];
+    }
+
+    public long nanos(int index) {
+        return nanos[index];
+    }
+
+    public int count(int index) {
+        return counts[index];
+    }
+
+    /** Renders the phases plus {@code total} as a Server-Timing header value, durations in milliseconds. */
+    public String toHeader() {
+        StringBuilder header = new StringBuilder(24 * (size + 1));
+        for (int i = 0; i < size; i++) {
+            appendMetric(header, names[i], nanos[i]).append(", ");
+        }
+        return appendMetric(header, "total", elapsedNanos()).toString();
+    }
+
+    private void add(String phase, long elapsed) {
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(phase)) {
+                nanos[i] += elapsed;
+                counts[i]++;
+                return;
+            }
+        }
+        if (size < MAX_PHASES) {
+            names[size] = phase;
+            nanos[size] = elapsed;
+            counts[size] = 1;
+            size++;
+        }
+    }
+
+    private static StringBuilder appendMetric(StringBuilder header, String name, long nanos) {
+        long micros = nanos / 1_000;
+        long fraction = micros % 1_000;
+        header.append(name).append(";dur=").append(micros / 1_000).append('.');
+        if (fraction < 100) {
+            header.append(fraction < 10 ? "00" : "0");
+        }
+        return header.append(fraction);
+    }
+}
@@ -0,0 +1,68 @@
+package com.Shortener.Timing;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Adds the Server-Timing header at the last moment it can still be set: the
+ * first call that may commit the response, or the end of the filter chain.
+ */
+class ServerTimingResponse extends HttpServletResponseWrapper {
+
+    static final String HEADER = "Server-Timing";
+
+    private final RequestTimings timings;
+    private boolean written;
+
+    ServerTimingResponse(HttpServletResponse response, RequestTimings timings) {
+        super(response);
+        this.timings = timings;
+    }
+
+    void writeHeader() {
+        if (!written && !isCommitted()) {
+            setHeader(HEADER, timings.toHeader());
+        }
+        written = true;
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        writeHeader();
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        writeHeader();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        writeHeader();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        writeHeader();
+        return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        writeHeader();
+        return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        writeHeader();
+        super.flushBuffer();
+    }
+}
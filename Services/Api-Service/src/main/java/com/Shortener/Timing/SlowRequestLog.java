@@ -0,0 +1,68 @@
+package com.Shortener.Timing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregates slow requests per route and logs one summary line per route
+ * every interval, so a latency spike produces a handful of lines with the
+ * average phase breakdown instead of one line per request.
+ */
+@Slf4j
+public class SlowRequestLog {
+
+    private static final int MAX_ROUTES = 200;
+
+    private final Map<String, Aggregate> routes = new ConcurrentHashMap<>();
+
+    private static final class Aggregate {
+        private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+        private int count;
+        private long totalNanos;
+        private long maxNanos;
+
+        synchronized void add(RequestTimings timings, long elapsed) {
+            count++;
+            totalNanos += elapsed;
+            maxNanos = Math.max(maxNanos, elapsed);
+            for (int i = 0; i < timings.size(); i++) {
+                phaseNanos.merge(timings.name(i), timings.nanos(i), Long::sum);
+            }
+        }
+
+        synchronized String summary(String route) {
+            StringBuilder phases = new StringBuilder();
+            phaseNanos.forEach((phase, nanos) -> phases.append(phases.isEmpty() ? "" : ", ")
+                    .append(phase).append('=').append(TimeUnit.NANOSECONDS.toMillis(nanos / count)).append("ms"));
+            return String.format("%s: %d slow requests, avg %d ms, max %d ms, avg phases [%s]", route, count,
+                    TimeUnit.NANOSECONDS.toMillis(totalNanos / count), TimeUnit.NANOSECONDS.toMillis(maxNanos), phases);
+        }
+    }
+
+    public void record(String route, RequestTimings timings) {
+        long elapsed = timings.elapsedNanos();
+        Aggregate aggregate = routes.get(route);
+        if (aggregate == null) {
+            if (routes.size() >= MAX_ROUTES) {
+                return;
+            }
+            aggregate = routes.computeIfAbsent(route, r -> new Aggregate());
+        }
+        aggregate.add(timings, elapsed);
+    }
+
+    @Scheduled(fixedDelayString = "${shortener.server-timing.slow-log-interval-ms:60000}")
+    public void flush() {
+        for (String route : routes.keySet()) {
+            Aggregate aggregate = routes.remove(route);
+            if (aggregate != null) {
+                log.warn("Slow requests on {}", aggregate.summary(route));
+            }
+        }
+    }
+}
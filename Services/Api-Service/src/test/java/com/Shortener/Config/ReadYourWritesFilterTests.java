@@ -0,0 +1,77 @@
+package com.Shortener.Config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stickiness travels with the client: a write hands out its time, and a
+ * fresh filter, standing in for another instance, pins the next read on it.
+ */
+class ReadYourWritesFilterTests {
+
+    @Test
+    void aReadAfterAWriteGoesToThePrimaryOnAnyInstance() throws Exception {
+        MockHttpServletResponse written = request(new ReadYourWritesFilter(5000),
+                new MockHttpServletRequest("POST", "/api/urls"), 201);
+        String lastWrite = written.getHeader(ReadYourWritesFilter.HEADER);
+        assertNotNull(lastWrite);
+        Cookie cookie = written.getCookie(ReadYourWritesFilter.COOKIE);
+        assertNotNull(cookie);
+        assertEquals(lastWrite, cookie.getValue());
+        assertEquals(5, cookie.getMaxAge());
+
+        MockHttpServletRequest withCookie = new MockHttpServletRequest("GET", "/api/urls");
+        withCookie.setCookies(cookie);
+        assertTrue(readsPrimary(new ReadYourWritesFilter(5000), withCookie));
+
+        MockHttpServletRequest withHeader = new MockHttpServletRequest("GET", "/api/urls");
+        withHeader.addHeader(ReadYourWritesFilter.HEADER, lastWrite);
+        assertTrue(readsPrimary(new ReadYourWritesFilter(5000), withHeader));
+
+        assertFalse(readsPrimary(new ReadYourWritesFilter(5000), new MockHttpServletRequest("GET", "/api/urls")));
+    }
+
+    @Test
+    void oldFailedAndMadeUpWritesDoNotPin() throws Exception {
+        MockHttpServletResponse failed = request(new ReadYourWritesFilter(5000),
+                new MockHttpServletRequest("POST", "/api/urls"), 400);
+        assertNull(failed.getHeader(ReadYourWritesFilter.HEADER));
+        assertNull(failed.getCookie(ReadYourWritesFilter.COOKIE));
+
+        long now = System.currentTimeMillis();
+        for (String lastWrite : new String[] { Long.toString(now - 10_000), Long.toString(now + 60_000), "soon" }) {
+            MockHttpServletRequest read = new MockHttpServletRequest("GET", "/api/urls");
+            read.addHeader(ReadYourWritesFilter.HEADER, lastWrite);
+            assertFalse(readsPrimary(new ReadYourWritesFilter(5000), read), lastWrite);
+        }
+    }
+
+    private static MockHttpServletResponse request(ReadYourWritesFilter filter, MockHttpServletRequest request,
+            int status) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            ((HttpServletResponse) res).setStatus(status);
+            res.getWriter().write("{}");
+        });
+        return response;
+    }
+
+    private static boolean readsPrimary(ReadYourWritesFilter filter, MockHttpServletRequest request) throws Exception {
+        AtomicBoolean pinned = new AtomicBoolean();
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> pinned.set(ReadRoutingContext.isPrimaryPinned()));
+        assertFalse(ReadRoutingContext.isPrimaryPinned(), "the pin must not outlive the request");
+        return pinned.get();
+    }
+}
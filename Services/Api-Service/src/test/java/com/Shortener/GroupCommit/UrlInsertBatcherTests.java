@@ -0,0 +1,159 @@
+package com.Shortener.GroupCommit;
+
+import com.Shortener.Entity.UrlEntity;
+import com.Shortener.Exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The committer against an in-memory writer that rejects short codes it has
+ * already written, the way the unique key does.
+ */
+class UrlInsertBatcherTests {
+
+    private final Set<String> written = new HashSet<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicInteger statements = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private UrlInsertBatcher batcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        batcher.close();
+    }
+
+    private UrlInsertBatcher batcher(long windowMs, int queueCapacity, UrlInsertBatcher.BatchWriter writer) {
+        GroupCommitProperties properties = new GroupCommitProperties();
+        properties.setEnabled(true);
+        properties.setWindowMs(windowMs);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setOfferTimeoutMs(10);
+        meterRegistry = new SimpleMeterRegistry();
+        batcher = new UrlInsertBatcher(writer, properties, meterRegistry);
+        batcher.start();
+        return batcher;
+    }
+
+    private synchronized void write(int shard, List<UrlEntity> urls) {
+        statements.incrementAndGet();
+        Set<String> codes = new HashSet<>();
+        for (UrlEntity url : urls) {
+            if (written.contains(url.getShortCode()) || !codes.add(url.getShortCode())) {
+                throw new DataIntegrityViolationException("Duplicate entry '" + url.getShortCode() + "'");
+            }
+        }
+        written.addAll(codes);
+        urls.forEach(url -> url.setId(ids.incrementAndGet()));
+    }
+
+    private static UrlEntity url(String shortCode) {
+        return UrlEntity.builder().shortCode(shortCode).originalUrl("https://example.com/" + shortCode).build();
+    }
+
+    @Test
+    void concurrentCreatesShareStatements() throws Exception {
+        batcher(20, 1000, this::write);
+
+        List<Future<UrlEntity>> results = createConcurrently(500, i -> url("code" + i));
+        Set<Long> assigned = new HashSet<>();
+        for (Future<UrlEntity> result : results) {
+            UrlEntity created = result.get(10, TimeUnit.SECONDS);
+            assertNotNull(created.getId());
+            assigned.add(created.getId());
+        }
+
+        assertEquals(500, written.size());
+        assertEquals(500, assigned.size());
+        assertTrue(statements.get() < 500 / 10, statements.get() + " statements for 500 creates");
+    }
+
+    @Test
+    void aTakenCodeFailsOnlyItsOwnCreate() throws Exception {
+        written.add("taken");
+        batcher(20, 1000, this::write);
+
+        List<Future<UrlEntity>> results = createConcurrently(50, i -> url(i == 25 ? "taken" : "code" + i));
+        for (int i = 0; i < results.size(); i++) {
+            Future<UrlEntity> result = results.get(i);
+            if (i == 25) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+                assertInstanceOf(DataIntegrityViolationException.class, e.getCause());
+            } else {
+                assertNotNull(result.get(10, TimeUnit.SECONDS).getId());
+            }
+        }
+        assertEquals(50, written.size());
+    }
+
+    @Test
+    void aFullQueueRefusesCreates() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        batcher(0, 1, (shard, urls) -> {
+            writing.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            write(shard, urls);
+        });
+
+        // One create is being written, the next one fills the queue
+        ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+        Future<UrlEntity> first = pool.submit(() -> batcher.insert(0, url("first")));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        Future<UrlEntity> queued = pool.submit(() -> batcher.insert(0, url("second")));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("shortener.create.group_commit.queued").gauge().value() < 1) {
+            assertTrue(System.nanoTime() < deadline, "the second create was not queued");
+            Thread.sleep(1);
+        }
+
+        assertThrows(ServiceBusyException.class, () -> batcher.insert(0, url("third")));
+        assertEquals(1.0, meterRegistry.get("shortener.create.group_commit.rejected").counter().count());
+
+        release.countDown();
+        assertNotNull(first.get(10, TimeUnit.SECONDS).getId());
+        assertNotNull(queued.get(10, TimeUnit.SECONDS).getId());
+        pool.shutdown();
+    }
+
+    private List<Future<UrlEntity>> createConcurrently(int creates, IntFunction<UrlEntity> url) {
+        ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<UrlEntity>> results = new ArrayList<>(creates);
+        for (int i = 0; i < creates; i++) {
+            UrlEntity created = url.apply(i);
+            results.add(pool.submit(() -> {
+                start.await();
+                return batcher.insert(0, created);
+            }));
+        }
+        start.countDown();
+        pool.shutdown();
+        return results;
+    }
+}
@@ -0,0 +1,178 @@
+package com.Shortener.Invalidation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Two buses on the in-memory transport, flushed by hand: batching, repeated
+ * and out-of-order delivery, replay after a receiver missed batches, a full
+ * queue that drops everything but revocations, and the wire format Auth
+ * shares.
+ */
+class InvalidationBusTests {
+
+    private InMemoryInvalidationTransport transport;
+    private RecordingHandler received;
+    private InvalidationBus publisher;
+    private InvalidationBus receiver;
+    private SimpleMeterRegistry receiverMetrics;
+
+    @BeforeEach
+    void setUp() {
+        InvalidationProperties properties = new InvalidationProperties();
+        properties.setReplayLogSize(3);
+        transport = new InMemoryInvalidationTransport(properties.getReplayLogSize());
+        received = new RecordingHandler();
+        receiverMetrics = new SimpleMeterRegistry();
+        publisher = new InvalidationBus(transport, List.of(), properties, "publisher", new SimpleMeterRegistry());
+        receiver = new InvalidationBus(transport, List.of(received), properties, "receiver", receiverMetrics);
+    }
+
+    @Test
+    void pendingMutationsAreSentAsOneBatch() {
+        transport.subscribe(receiver::receive);
+        publisher.publish(InvalidationType.LINK_DEACTIVATED, "abc123", null);
+        publisher.publish(InvalidationType.LINK_DEACTIVATED, "def456", null);
+        publisher.flush();
+
+        assertEquals(List.of("abc123", "def456"), received.keys);
+        assertEquals(1, received.batches.get());
+        assertEquals(2, receiverMetrics.get("shortener.invalidation.lag").timer().count());
+    }
+
+    @Test
+    void repeatedAndOlderInvalidationsAreIgnored() {
+        Invalidation newer = new Invalidation(InvalidationType.LINK_DEACTIVATED, "abc123", "", 200, 0);
+        Invalidation older = new Invalidation(InvalidationType.LINK_DEACTIVATED, "abc123", "", 100, 0);
+        String first = new InvalidationBatch("other", 1, 0, List.of(newer)).encode();
+
+        receiver.receive(first);
+        receiver.receive(first);
+        receiver.receive(new InvalidationBatch("other", 2, 0, List.of(older)).encode());
+
+        assertEquals(List.of("abc123"), received.keys);
+        assertEquals(1.0, receiverMetrics.get("shortener.invalidation.batches").tag("result", "duplicate")
+                .counter().count());
+        assertEquals(1.0, receiverMetrics.get("shortener.invalidation.received").tag("result", "stale")
+                .counter().count());
+    }
+
+    @Test
+    void batchesMissedWhileDisconnectedAreReplayed() {
+        Runnable unsubscribe = transport.subscribe(receiver::receive);
+        publish("a");
+        unsubscribe.run();
+        publish("b");
+        publish("c");
+        transport.subscribe(receiver::receive);
+        publish("d");
+
+        assertEquals(List.of("a", "b", "c", "d"), received.keys);
+        assertEquals(0, received.resyncs.get());
+    }
+
+    @Test
+    void heartbeatRevealsALostLastBatch() {
+        Runnable unsubscribe = transport.subscribe(receiver::receive);
+        publish("a");
+        unsubscribe.run();
+        publish("b");
+        transport.subscribe(receiver::receive);
+        // What the publisher sends after a heartbeat interval without mutations
+        transport.send(new InvalidationBatch("publisher", 2, 0, List.of()).encode());
+
+        assertEquals(List.of("a", "b"), received.keys);
+    }
+
+    @Test
+    void batchesOlderThanTheLogResync() {
+        Runnable unsubscribe = transport.subscribe(receiver::receive);
+        publish("a");
+        unsubscribe.run();
+        for (String key : List.of("b", "c", "d", "e")) {
+            publish(key);
+        }
+        transport.subscribe(receiver::receive);
+        publish("f");
+
+        assertEquals(1, received.resyncs.get());
+        assertEquals(List.of("a", "f"), received.keys);
+    }
+
+    @Test
+    void aFullQueueDropsLinkChangesButRevocationsWaitForRoom() throws Exception {
+        InvalidationProperties properties = new InvalidationProperties();
+        properties.setMaxPending(1);
+        SimpleMeterRegistry publisherMetrics = new SimpleMeterRegistry();
+        InvalidationBus full = new InvalidationBus(transport, List.of(), properties, "full", publisherMetrics);
+        transport.subscribe(receiver::receive);
+
+        full.publish(InvalidationType.LINK_DEACTIVATED, "a", null);
+        full.publish(InvalidationType.LINK_DEACTIVATED, "b", null);
+        assertEquals(1, publisherMetrics.get("shortener.invalidation.dropped").counter().count());
+
+        CompletableFuture<Void> revocation = CompletableFuture.runAsync(() ->
+                full.publish(InvalidationType.TOKEN_REVOKED, "jti-1", "1700003600000|1700000000000|alice"));
+        Thread.sleep(100);
+        assertFalse(revocation.isDone(), "the revocation waits while the queue is full");
+
+        full.flush();
+        revocation.get(5, TimeUnit.SECONDS);
+        full.flush();
+
+        assertEquals(List.of("a", "jti-1"), received.keys);
+        assertEquals(1, publisherMetrics.get("shortener.invalidation.dropped").counter().count());
+    }
+
+    @Test
+    void batchesFromAuthDecode() {
+        // As Auth's InvalidationBatch encodes a revoked token; the two copies must stay in step
+        String wire = "B|auth-3b1d|5|1700000000000\nJ|9|1700000000001|jti-1|1700003600000%7C1700000000000%7Calice";
+        InvalidationBatch batch = new InvalidationBatch("auth-3b1d", 5, 1700000000000L, List.of(
+                new Invalidation(InvalidationType.TOKEN_REVOKED, "jti-1", "1700003600000|1700000000000|alice", 9,
+                        1700000000001L)));
+
+        assertEquals(batch, InvalidationBatch.decode(wire));
+        assertEquals(wire, batch.encode());
+    }
+
+    private void publish(String key) {
+        publisher.publish(InvalidationType.LINK_DEACTIVATED, key, null);
+        publisher.flush();
+    }
+
+    private static class RecordingHandler implements InvalidationHandler {
+
+        final List<String> keys = new CopyOnWriteArrayList<>();
+        final AtomicInteger batches = new AtomicInteger();
+        final AtomicInteger resyncs = new AtomicInteger();
+
+        @Override
+        public Set<InvalidationType> types() {
+            return EnumSet.of(InvalidationType.LINK_DEACTIVATED, InvalidationType.TOKEN_REVOKED);
+        }
+
+        @Override
+        public void apply(InvalidationType type, List<Invalidation> invalidations) {
+            batches.incrementAndGet();
+            invalidations.forEach(invalidation -> keys.add(invalidation.key()));
+        }
+
+        @Override
+        public void resync() {
+            resyncs.incrementAndGet();
+        }
+    }
+}
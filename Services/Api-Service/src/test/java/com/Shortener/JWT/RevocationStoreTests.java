@@ -0,0 +1,52 @@
+package com.Shortener.JWT;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Loads entries in the format the auth service's RevocationStore writes, so
+ * a change to that format on one side fails here.
+ */
+class RevocationStoreTests {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void loadsWhatTheAuthServiceStored() {
+        long now = System.currentTimeMillis();
+        double expiresAt = now + 60_000;
+        ZSetOperations<String, String> zSet = mock(ZSetOperations.class);
+        when(zSet.rangeByScoreWithScores(eq("auth:revocations:tokens"), anyDouble(), anyDouble())).thenReturn(Set.of(
+                new DefaultTypedTuple<>("jti-1|" + (now - 5_000) + "|alice", expiresAt),
+                new DefaultTypedTuple<>("not a revocation", expiresAt)));
+        when(zSet.rangeByScoreWithScores(eq("auth:revocations:users"), anyDouble(), anyDouble()))
+                .thenReturn(Set.<TypedTuple<String>>of(new DefaultTypedTuple<>((now - 1_000) + "|bob|ops", expiresAt)));
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSet);
+
+        TokenRevocationList tokenRevocationList = new TokenRevocationList();
+        ReflectionTestUtils.setField(tokenRevocationList, "bucketMillis", 60_000L);
+        ReflectionTestUtils.setField(tokenRevocationList, "maxTokens", 100);
+        RevocationStore store = new RevocationStore(redisTemplate, tokenRevocationList);
+        ReflectionTestUtils.setField(store, "key", "auth:revocations");
+
+        assertEquals(2, store.reload());
+        assertTrue(tokenRevocationList.isRevoked("jti-1", "alice", now - 5_000));
+        assertFalse(tokenRevocationList.isRevoked("jti-2", "alice", now - 5_000));
+        assertTrue(tokenRevocationList.isRevoked("jti-3", "bob|ops", now - 2_000));
+        assertFalse(tokenRevocationList.isRevoked("jti-4", "bob|ops", now));
+    }
+}
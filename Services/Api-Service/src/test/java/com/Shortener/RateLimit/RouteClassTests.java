@@ -0,0 +1,39 @@
+package com.Shortener.RateLimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RouteClassTests {
+
+    @Test
+    void onlyPostingToTheUrlsCollectionIsACreate() {
+        assertEquals(RouteClass.CREATE, RouteClass.of("POST", "/api/urls"));
+        assertEquals(RouteClass.MANAGEMENT, RouteClass.of("GET", "/api/urls"));
+        assertEquals(RouteClass.MANAGEMENT, RouteClass.of("POST", "/api/urls/"));
+        assertEquals(RouteClass.MANAGEMENT, RouteClass.of("DELETE", "/api/urls/abc123"));
+    }
+
+    @Test
+    void everythingElseUnderApiIsManagement() {
+        assertEquals(RouteClass.MANAGEMENT, RouteClass.of("GET", "/api/stats"));
+        assertEquals(RouteClass.MANAGEMENT, RouteClass.of("POST", "/api/admin/shards/moves"));
+    }
+
+    @Test
+    void pathsOutsideApiAreRedirects() {
+        assertEquals(RouteClass.REDIRECT, RouteClass.of("GET", "/abc123"));
+        assertEquals(RouteClass.REDIRECT, RouteClass.of("HEAD", "/abc123"));
+        // Only "/api/" is the API; a short code may start with "api"
+        assertEquals(RouteClass.REDIRECT, RouteClass.of("GET", "/apiXyz"));
+    }
+
+    @Test
+    void preflightsHealthAndActuatorAreNotLimited() {
+        assertNull(RouteClass.of("OPTIONS", "/api/urls"));
+        assertNull(RouteClass.of("OPTIONS", "/abc123"));
+        assertNull(RouteClass.of("GET", "/api/health"));
+        assertNull(RouteClass.of("GET", "/actuator/prometheus"));
+    }
+}
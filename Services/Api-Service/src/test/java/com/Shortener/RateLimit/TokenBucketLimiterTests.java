@@ -0,0 +1,93 @@
+package com.Shortener.RateLimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The limiter on a hand-driven clock: 60 requests per minute is one token per
+ * second, with a burst of five.
+ */
+class TokenBucketLimiterTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.DAYS.toNanos(1));
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter(60, 5, 1000, now::get);
+
+    @Test
+    void aNewKeyMayUseItsWholeBurstAtOnce() {
+        for (int remaining = 4; remaining >= 0; remaining--) {
+            RateLimitDecision decision = limiter.tryAcquire("client");
+            assertTrue(decision.allowed());
+            assertEquals(5, decision.limit());
+            assertEquals(remaining, decision.remaining());
+            assertEquals(0, decision.retryAfterNanos());
+        }
+
+        RateLimitDecision rejected = limiter.tryAcquire("client");
+        assertFalse(rejected.allowed());
+        assertEquals(0, rejected.remaining());
+    }
+
+    @Test
+    void retryAfterIsTheTimeUntilTheNextToken() {
+        exhaust("client");
+
+        now.addAndGet(SECOND / 4);
+        RateLimitDecision rejected = limiter.tryAcquire("client");
+        assertFalse(rejected.allowed());
+        assertEquals(SECOND * 3 / 4, rejected.retryAfterNanos());
+        assertEquals(SECOND * 5 - SECOND / 4, rejected.resetNanos());
+
+        // Rejections do not take a token, so waiting exactly Retry-After is enough
+        now.addAndGet(rejected.retryAfterNanos() - 1);
+        assertFalse(limiter.tryAcquire("client").allowed());
+        now.addAndGet(1);
+        assertTrue(limiter.tryAcquire("client").allowed());
+        assertFalse(limiter.tryAcquire("client").allowed());
+    }
+
+    @Test
+    void tokensRefillAtTheConfiguredRateUpToTheBurst() {
+        exhaust("client");
+
+        now.addAndGet(SECOND * 2);
+        assertEquals(1, limiter.tryAcquire("client").remaining());
+        assertEquals(0, limiter.tryAcquire("client").remaining());
+        assertFalse(limiter.tryAcquire("client").allowed());
+
+        // An idle minute refills the bucket to the burst, not beyond it
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        exhaust("client");
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        exhaust("ip:10.0.0.1");
+
+        RateLimitDecision other = limiter.tryAcquire("ip:10.0.0.2");
+        assertTrue(other.allowed());
+        assertEquals(4, other.remaining());
+        assertEquals(2, limiter.trackedKeys());
+    }
+
+    @Test
+    void limitsMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter(0, 5, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter(60, 0, 1000));
+    }
+
+    private void exhaust(String key) {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(key).allowed(), "request " + (i + 1) + " of the burst");
+        }
+        assertFalse(limiter.tryAcquire(key).allowed());
+    }
+}
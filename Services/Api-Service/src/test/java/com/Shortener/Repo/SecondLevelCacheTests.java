@@ -0,0 +1,135 @@
+package com.Shortener.Repo;
+
+import com.Shortener.Cache.RedirectCache;
+import com.Shortener.Entity.UrlEntity;
+import com.Shortener.Index.LinkIndex;
+import com.Shortener.Invalidation.Invalidation;
+import com.Shortener.Invalidation.InvalidationType;
+import com.Shortener.Invalidation.LinkInvalidations;
+import com.Shortener.Shard.ShardResolver;
+import com.Shortener.Shard.UrlShardRouter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Boots JPA with the second-level cache configured as in
+ * application.properties (Ehcache through JCache, regions from ehcache.xml)
+ * and checks that a committed link is served from the cache by short code,
+ * that clicks neither evict it nor get overwritten by its cached count, and
+ * that a deactivation on another instance evicts it.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:second-level-cache;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTests {
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shortCodeLookupsAreServedFromTheCache() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        assertEquals("true",
+                String.valueOf(entityManagerFactory.getProperties().get(AvailableSettings.USE_SECOND_LEVEL_CACHE)));
+
+        UrlEntity saved = urlRepository.save(UrlEntity.builder()
+                .originalUrl("https://example.com/cached")
+                .shortCode("c4ch3d")
+                .username("alice")
+                .createdAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .build());
+        // The first lookup may have to load the row; it leaves it cached
+        urlRepository.findByShortCodeAndIsActiveTrue("c4ch3d").orElseThrow();
+        assertTrue(entityManagerFactory.getCache().contains(UrlEntity.class, saved.getId()));
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        assertEquals("https://example.com/cached",
+                urlRepository.findByShortCodeAndIsActiveTrue("c4ch3d").orElseThrow().getOriginalUrl());
+
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 1,
+                statistics.getSecondLevelCacheHitCount() + " second-level cache hits");
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void clicksLeaveTheLinkCachedAndAreNeverOverwritten() {
+        UrlEntity saved = urlRepository.save(UrlEntity.builder()
+                .originalUrl("https://example.com/clicked")
+                .shortCode("cl1ck5")
+                .username("bob")
+                .createdAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .build());
+        urlRepository.findByShortCodeAndIsActiveTrue("cl1ck5").orElseThrow();
+
+        urlRepository.incrementClickCount("cl1ck5");
+        urlRepository.incrementClickCount("cl1ck5");
+        assertTrue(entityManagerFactory.getCache().contains(UrlEntity.class, saved.getId()));
+
+        // The cached copy still says 0 clicks; saving it must not write that back
+        UrlEntity cached = urlRepository.findByShortCodeAndIsActiveTrue("cl1ck5").orElseThrow();
+        cached.setExpiresAt(cached.getExpiresAt().plusDays(1));
+        urlRepository.save(cached);
+
+        assertEquals(2L, urlRepository.getTotalClicksByUsername("bob"));
+    }
+
+    @Test
+    void aLinkDeactivatedOnAnotherInstanceIsEvicted() {
+        urlRepository.save(UrlEntity.builder()
+                .originalUrl("https://example.com/remote")
+                .shortCode("r3m0t3")
+                .username("carol")
+                .createdAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .build());
+        urlRepository.findByShortCodeAndIsActiveTrue("r3m0t3").orElseThrow();
+
+        // What the other instance's delete does to the row, behind this cache's back
+        jdbcTemplate.update("UPDATE urls SET is_active = false WHERE short_code = ?", "r3m0t3");
+        assertTrue(urlRepository.findByShortCodeAndIsActiveTrue("r3m0t3").isPresent(), "served stale from the cache");
+
+        ShardResolver shardResolver = mock(ShardResolver.class);
+        when(shardResolver.readShards(anyString())).thenReturn(new int[] { 0 });
+        LinkInvalidations linkInvalidations = new LinkInvalidations(mock(RedirectCache.class), mock(LinkIndex.class),
+                urlRepository, new UrlShardRouter(shardResolver, null), entityManagerFactory);
+        linkInvalidations.apply(InvalidationType.LINK_DEACTIVATED, List.of(
+                new Invalidation(InvalidationType.LINK_DEACTIVATED, "r3m0t3", "", 1, System.currentTimeMillis())));
+
+        assertFalse(urlRepository.findByShortCodeAndIsActiveTrue("r3m0t3").isPresent());
+    }
+}
@@ -0,0 +1,110 @@
+package com.Shortener.Service;
+
+import com.Shortener.Cache.CachedRedirect;
+import com.Shortener.Cache.RedirectCache;
+import com.Shortener.Entity.UrlEntity;
+import com.Shortener.Entity.UserUrlQuota;
+import com.Shortener.Index.LinkIndex;
+import com.Shortener.Repo.UrlRepository;
+import com.Shortener.Repo.UserUrlQuotaRepository;
+import com.Shortener.Shard.ShardResolver;
+import com.Shortener.Shard.ShardingConfig;
+import com.Shortener.Shard.UrlShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The purge against a real database: purged codes leave the redirect cache
+ * and their owners' quota counters drop the slots of links that expired.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:url-purge;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "shortener.purge.chunk-size=2",
+        "shortener.purge.max-chunks-per-second=0"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ UrlPurgeService.class, UrlQuotaService.class, UrlShardRouter.class, ShardResolver.class,
+        ShardingConfig.class, RedirectCache.class, LinkIndex.class, SimpleMeterRegistry.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UrlPurgeServiceTests {
+
+    @Autowired
+    private UrlPurgeService purgeService;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private UserUrlQuotaRepository quotaRepository;
+
+    @Autowired
+    private RedirectCache redirectCache;
+
+    @BeforeEach
+    void cleanUp() {
+        urlRepository.deleteAll();
+        quotaRepository.deleteAll();
+    }
+
+    @Test
+    void purgedLinksAreEvictedAndTheirSlotsGivenBack() {
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(30);
+        save("old111", "alice", longAgo, true);
+        save("old222", "alice", longAgo, false);
+        save("old333", "bob", longAgo, true);
+        save("live11", "alice", LocalDateTime.now().plusDays(1), true);
+        // Expired links keep holding their slots until a recount
+        quota("alice", 3);
+        quota("bob", 1);
+        for (String code : new String[] { "old111", "old333", "live11" }) {
+            redirectCache.put(code, new CachedRedirect("https://example.com/" + code, longAgo, null, null, 0),
+                    redirectCache.stamp());
+        }
+
+        assertEquals(3, purgeService.purge());
+
+        assertEquals(1, urlRepository.count());
+        assertNull(redirectCache.get("old111"));
+        assertNull(redirectCache.get("old333"));
+        assertNotNull(redirectCache.get("live11"));
+        assertEquals(1, quotaRepository.findById("alice").orElseThrow().getActiveUrls());
+        assertEquals(0, quotaRepository.findById("bob").orElseThrow().getActiveUrls());
+    }
+
+    private void save(String shortCode, String username, LocalDateTime expiresAt, boolean active) {
+        urlRepository.save(UrlEntity.builder()
+                .originalUrl("https://example.com/" + shortCode)
+                .shortCode(shortCode)
+                .username(username)
+                .createdAt(expiresAt.minusDays(1))
+                .expiresAt(expiresAt)
+                .isActive(active)
+                .build());
+    }
+
+    private void quota(String username, long activeUrls) {
+        quotaRepository.save(UserUrlQuota.builder()
+                .username(username)
+                .activeUrls(activeUrls)
+                .updatedAt(LocalDateTime.now().minusHours(1))
+                .build());
+    }
+}
@@ -0,0 +1,201 @@
+package com.Shortener.Service;
+
+import com.Shortener.Cache.RedirectCache;
+import com.Shortener.DTO.CreateUrlRequest;
+import com.Shortener.DTO.UrlResponse;
+import com.Shortener.Entity.UrlEntity;
+import com.Shortener.Entity.UserUrlQuota;
+import com.Shortener.Exception.UrlException;
+import com.Shortener.Expiry.UrlExpiryScheduler;
+import com.Shortener.Index.LinkIndex;
+import com.Shortener.Metrics.ShortenerMetrics;
+import com.Shortener.Repo.UrlRepository;
+import com.Shortener.Repo.UserUrlQuotaRepository;
+import com.Shortener.Shard.ShardResolver;
+import com.Shortener.Shard.ShardingConfig;
+import com.Shortener.Shard.UrlShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * The create path against a real database: the insert goes first and a
+ * taken short code is only detected by the unique key, reuse finds a link
+ * through the (username, urlHash) index, and a quota recount leaves slots
+ * of inserts still in flight alone.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:url-create;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "shortener.expiry.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ UrlService.class, UrlQuotaService.class, UrlShardRouter.class, ShardResolver.class, ShardingConfig.class,
+        RedirectCache.class, LinkIndex.class, ShortenerMetrics.class, UrlExpiryScheduler.class,
+        SimpleMeterRegistry.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UrlServiceCreateTests {
+
+    private static final int THREADS = 32;
+
+    @MockitoSpyBean
+    private UrlService urlService;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private UserUrlQuotaRepository quotaRepository;
+
+    @Autowired
+    private UrlQuotaService quotaService;
+
+    @BeforeEach
+    void cleanUp() {
+        urlRepository.deleteAll();
+        quotaRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentCreatesOfOneAliasLeaveOneLink() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        int created = 0;
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> outcomes = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                String username = "user-" + i;
+                outcomes.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        urlService.createShortUrl(request("hot-alias"), username);
+                        return "created";
+                    } catch (UrlException e) {
+                        return e.getMessage();
+                    }
+                }));
+            }
+            start.countDown();
+
+            for (Future<String> outcome : outcomes) {
+                String result = outcome.get(30, TimeUnit.SECONDS);
+                if (result.equals("created")) {
+                    created++;
+                } else {
+                    assertEquals("Custom alias already exists", result);
+                }
+            }
+        } finally {
+            // A failed assertion must not leave creates running into the next test's cleanup
+            pool.shutdownNow();
+            assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1, created);
+        List<UrlEntity> links = urlRepository.findAll();
+        assertEquals(1, links.size());
+        assertEquals("hot-alias", links.get(0).getShortCode());
+
+        // A refused create gives its quota slot back with the failed insert
+        long slotsTaken = quotaRepository.findAll().stream().mapToLong(UserUrlQuota::getActiveUrls).sum();
+        assertEquals(1, slotsTaken);
+        assertEquals(1, quotaRepository.findById(links.get(0).getUsername()).orElseThrow().getActiveUrls());
+    }
+
+    @Test
+    void takenGeneratedCodeIsRetriedWithANewOne() {
+        urlService.createShortUrl(request("taken1"), "owner");
+        doReturn("taken1", "fresh1").when(urlService).generateRandomString();
+
+        assertEquals("fresh1", urlService.createShortUrl(request(null), "someone").getShortCode());
+        assertEquals(2, urlRepository.count());
+        assertEquals(1, quotaRepository.findById("someone").orElseThrow().getActiveUrls());
+    }
+
+    @Test
+    void reuseExistingReturnsTheLinkToTheSameNormalizedDestination() {
+        UrlResponse first = urlService.createShortUrl(request(null), "owner");
+
+        CreateUrlRequest again = request(null);
+        again.setOriginalUrl("HTTPS://Example.com:443/landing/");
+        again.setReuseExisting(true);
+        UrlResponse reused = urlService.createShortUrl(again, "owner");
+
+        assertTrue(reused.isReused());
+        assertEquals(first.getShortCode(), reused.getShortCode());
+        assertEquals(1, urlRepository.count());
+        assertEquals(1, quotaRepository.findById("owner").orElseThrow().getActiveUrls());
+    }
+
+    @Test
+    void aRecountWhileAnInsertIsPendingKeepsItsSlot() {
+        quotaService.recount("pending");
+        UrlEntity saved = quotaService.createWithinQuotaSeparately("pending", 0, () -> {
+            // What reconciliation on another replica does before the insert commits
+            assertFalse(quotaService.recount("pending"));
+            return urlRepository.save(UrlEntity.builder()
+                    .originalUrl("https://example.com/pending")
+                    .shortCode("p3nd1n")
+                    .username("pending")
+                    .createdAt(LocalDateTime.now())
+                    .expiresAt(LocalDateTime.now().plusDays(1))
+                    .build());
+        });
+
+        UserUrlQuota quota = quotaRepository.findById("pending").orElseThrow();
+        assertEquals(1, quota.getActiveUrls());
+        assertEquals(0, quota.getPendingUrls());
+        assertNull(quota.getPendingSince());
+        assertFalse(quotaService.recount("pending"));
+        assertEquals("p3nd1n", saved.getShortCode());
+    }
+
+    @Test
+    void anAbandonedPendingSlotIsDroppedByTheRecount() {
+        quotaRepository.save(UserUrlQuota.builder()
+                .username("crashed")
+                .activeUrls(1L)
+                .pendingUrls(1L)
+                .pendingSince(LocalDateTime.now().minusHours(1))
+                .updatedAt(LocalDateTime.now().minusHours(1))
+                .build());
+
+        assertTrue(quotaService.recount("crashed"));
+        UserUrlQuota quota = quotaRepository.findById("crashed").orElseThrow();
+        assertEquals(0, quota.getActiveUrls());
+        assertEquals(0, quota.getPendingUrls());
+    }
+
+    private static CreateUrlRequest request(String customAlias) {
+        CreateUrlRequest request = new CreateUrlRequest();
+        request.setOriginalUrl("https://example.com/landing");
+        request.setCustomAlias(customAlias);
+        return request;
+    }
+}
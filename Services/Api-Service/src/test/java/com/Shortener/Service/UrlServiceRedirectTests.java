@@ -0,0 +1,198 @@
+package com.Shortener.Service;
+
+import com.Shortener.Cache.CachedRedirect;
+import com.Shortener.Cache.RedirectCache;
+import com.Shortener.DTO.RedirectTarget;
+import com.Shortener.Entity.UrlEntity;
+import com.Shortener.Exception.LookupTimeoutException;
+import com.Shortener.Exception.UrlException;
+import com.Shortener.Index.LinkIndex;
+import com.Shortener.Metrics.ShortenerMetrics;
+import com.Shortener.Repo.UrlRepository;
+import com.Shortener.Shard.UrlShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Concurrent redirect misses for one code: the lookup runs once and every
+ * waiting request gets its result, or its exception, within the wait bound.
+ * The repository holds the lookup open until all other requests are waiting.
+ * A delete that lands during a lookup keeps the link out of the cache.
+ */
+class UrlServiceRedirectTests {
+
+    private static final String SHORT_CODE = "vir4l1";
+    private static final int REQUESTS = 1000;
+
+    private UrlRepository urlRepository;
+    private UrlShardRouter shardRouter;
+    private SimpleMeterRegistry meterRegistry;
+    private RedirectCache redirectCache;
+    private UrlService urlService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        urlRepository = mock(UrlRepository.class);
+        shardRouter = mock(UrlShardRouter.class);
+        when(shardRouter.readShards(anyString())).thenReturn(new int[] { 0 });
+        when(shardRouter.findFirst(anyString(), any())).thenAnswer(invocation -> {
+            Supplier<Optional<UrlEntity>> lookup = invocation.getArgument(1);
+            return lookup.get().map(url -> new UrlShardRouter.Located<>(0, url));
+        });
+        urlService = service(2000);
+    }
+
+    private UrlService service(long loadTimeoutMillis) {
+        meterRegistry = new SimpleMeterRegistry();
+        redirectCache = new RedirectCache(true, 1000, 60_000, loadTimeoutMillis, meterRegistry);
+        return new UrlService(urlRepository, shardRouter, redirectCache, new ShortenerMetrics(meterRegistry),
+                null, null, null, mock(LinkIndex.class), null);
+    }
+
+    @Test
+    void concurrentMissesShareOneQuery() throws Exception {
+        UrlEntity url = UrlEntity.builder()
+                .shortCode(SHORT_CODE)
+                .originalUrl("https://example.com/viral")
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .isActive(true)
+                .build();
+        when(urlRepository.findByShortCodeAndIsActiveTrue(SHORT_CODE)).thenAnswer(invocation -> {
+            awaitJoined(REQUESTS - 1);
+            return Optional.of(url);
+        });
+
+        List<Future<RedirectTarget>> results = redirectConcurrently(REQUESTS);
+        for (Future<RedirectTarget> result : results) {
+            assertEquals("https://example.com/viral", result.get(10, TimeUnit.SECONDS).location());
+        }
+
+        verify(urlRepository, times(1)).findByShortCodeAndIsActiveTrue(SHORT_CODE);
+    }
+
+    @Test
+    void waitersGetTheLookupsException() throws Exception {
+        QueryTimeoutException failure = new QueryTimeoutException("database too slow");
+        when(urlRepository.findByShortCodeAndIsActiveTrue(SHORT_CODE)).thenAnswer(invocation -> {
+            awaitJoined(REQUESTS - 1);
+            throw failure;
+        });
+
+        for (Future<RedirectTarget> result : redirectConcurrently(REQUESTS)) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+        }
+        verify(urlRepository, times(1)).findByShortCodeAndIsActiveTrue(SHORT_CODE);
+    }
+
+    @Test
+    void waitingIsBounded() throws Exception {
+        urlService = service(100);
+        CountDownLatch release = new CountDownLatch(1);
+        when(urlRepository.findByShortCodeAndIsActiveTrue(SHORT_CODE)).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+
+        List<Future<RedirectTarget>> results = redirectConcurrently(2);
+        awaitJoined(1);
+
+        // The request that joined gives up while the lookup is still stuck
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        Future<RedirectTarget> done;
+        while ((done = results.stream().filter(Future::isDone).findFirst().orElse(null)) == null) {
+            assertTrue(System.nanoTime() < deadline, "the waiting request did not time out");
+            Thread.sleep(1);
+        }
+        ExecutionException e = assertThrows(ExecutionException.class, done::get);
+        assertInstanceOf(LookupTimeoutException.class, e.getCause());
+        release.countDown();
+    }
+
+    @Test
+    void aLinkDeletedDuringItsLookupIsNotCached() {
+        UrlEntity url = UrlEntity.builder()
+                .shortCode(SHORT_CODE)
+                .originalUrl("https://example.com/deleted")
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .isActive(true)
+                .build();
+        when(urlRepository.findByShortCodeAndIsActiveTrue(SHORT_CODE)).thenAnswer(invocation -> {
+            // The delete commits, and evicts, after the row was read
+            redirectCache.invalidate(SHORT_CODE);
+            return Optional.of(url);
+        });
+        assertThrows(UrlException.class, () -> urlService.redirectToOriginalUrl(SHORT_CODE));
+        assertNull(redirectCache.get(SHORT_CODE));
+
+        // A replica that has not seen the delete yet still returns the row
+        when(urlRepository.findByShortCodeAndIsActiveTrue(SHORT_CODE)).thenReturn(Optional.of(url));
+        assertThrows(UrlException.class, () -> urlService.redirectToOriginalUrl(SHORT_CODE));
+        assertNull(redirectCache.get(SHORT_CODE));
+    }
+
+    @Test
+    void evictedTombstonesStillRejectOlderLoads() {
+        redirectCache = new RedirectCache(true, 1, 60_000, 1000, new SimpleMeterRegistry());
+        long stamp = redirectCache.stamp();
+        redirectCache.invalidate("first");
+        redirectCache.invalidate("second");
+        redirectCache.invalidate("third");
+
+        CachedRedirect redirect = new CachedRedirect("https://example.com", LocalDateTime.now().plusDays(1), null, null, 0);
+        assertFalse(redirectCache.put("first", redirect, stamp));
+        assertTrue(redirectCache.put("other", redirect, redirectCache.stamp()));
+    }
+
+    private List<Future<RedirectTarget>> redirectConcurrently(int requests) {
+        ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<RedirectTarget>> results = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return urlService.redirectToOriginalUrl(SHORT_CODE);
+            }));
+        }
+        start.countDown();
+        pool.shutdown();
+        return results;
+    }
+
+    private void awaitJoined(int waiters) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("shortener.redirect.loads.joined").counter().count() < waiters) {
+            assertTrue(System.nanoTime() < deadline, "requests did not join the lookup");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.Shortener.Shard;
+
+import com.Shortener.Entity.ShardLayoutAck;
+import com.Shortener.Entity.ShardMove;
+import com.Shortener.Repo.ShardLayoutAckRepository;
+import com.Shortener.Repo.ShardMoveRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The bucket layout on an embedded url_shard_moves: adding a shard leaves
+ * every existing code where it was, and the new shard only gets buckets
+ * through a move. Every reload acknowledges the version it loaded.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard-resolver;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ShardResolverTests {
+
+    @Autowired
+    private ShardMoveRepository shardMoveRepository;
+
+    @Autowired
+    private ShardLayoutAckRepository shardLayoutAckRepository;
+
+    @Test
+    void addingAShardKeepsExistingCodesWhereTheyWere() {
+        shardMoveRepository.save(move(0, 99, 1, ShardMove.State.DONE));
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            codes.add(Integer.toString(i * 7919, 36));
+        }
+
+        ShardResolver twoShards = resolver(2, 0);
+        Map<String, Integer> before = new HashMap<>();
+        for (String code : codes) {
+            before.put(code, twoShards.writeShard(code));
+        }
+
+        ShardResolver threeShards = resolver(3, 2);
+        for (String code : codes) {
+            assertEquals(before.get(code), threeShards.writeShard(code), code);
+            assertArrayEquals(new int[] { before.get(code) }, threeShards.readShards(code), code);
+        }
+
+        // Only a move puts anything on the new shard
+        shardMoveRepository.save(move(100, 199, 2, ShardMove.State.MIGRATING));
+        threeShards.refresh();
+        for (String code : codes) {
+            int bucket = ShardResolver.bucketOf(code);
+            if (bucket >= 100 && bucket <= 199) {
+                assertEquals(2, threeShards.writeShard(code), code);
+                assertArrayEquals(new int[] { 2, before.get(code) }, threeShards.readShards(code), code);
+            } else {
+                assertEquals(before.get(code), threeShards.writeShard(code), code);
+            }
+        }
+
+        assertEquals(3, threeShards.layoutVersion());
+        // One row per instance: the first resolver is still on the layout it loaded
+        assertEquals(List.of(2L, 3L), shardLayoutAckRepository.findByAckedAtAfter(LocalDateTime.now().minusMinutes(1))
+                .stream().map(ShardLayoutAck::getLayoutVersion).sorted().toList());
+    }
+
+    @Test
+    void anInitialCountAboveTheConfiguredShardsIsRejected() {
+        assertThrows(IllegalStateException.class, () -> resolver(2, 3));
+    }
+
+    private ShardResolver resolver(int shards, int initialShardCount) {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        for (int i = 1; i < shards; i++) {
+            properties.getShards().add(new ShardingProperties.Shard());
+        }
+        properties.setInitialShardCount(initialShardCount);
+        ShardResolver resolver = new ShardResolver(properties, shardMoveRepository, shardLayoutAckRepository);
+        resolver.init();
+        return resolver;
+    }
+
+    private static ShardMove move(int bucketFrom, int bucketTo, int targetShard, ShardMove.State state) {
+        return ShardMove.builder()
+                .bucketFrom(bucketFrom)
+                .bucketTo(bucketTo)
+                .targetShard(targetShard)
+                .state(state)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
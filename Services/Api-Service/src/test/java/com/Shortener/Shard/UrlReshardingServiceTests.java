@@ -0,0 +1,145 @@
+package com.Shortener.Shard;
+
+import com.Shortener.Entity.ShardLayoutAck;
+import com.Shortener.Entity.ShardMove;
+import com.Shortener.Entity.UrlEntity;
+import com.Shortener.Repo.ShardLayoutAckRepository;
+import com.Shortener.Repo.ShardMoveRepository;
+import com.Shortener.Repo.UrlRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A move of one link from shard 0 to shard 1, against a mocked repository:
+ * the row saved on the target must carry every column of the source row but
+ * the clicks, which are added before the source row is deleted, and the move
+ * waits for a lagging instance to acknowledge each layout.
+ */
+class UrlReshardingServiceTests {
+
+    private UrlRepository urlRepository;
+    private ShardMoveRepository shardMoveRepository;
+    private ShardLayoutAckRepository shardLayoutAckRepository;
+    private UrlReshardingService reshardingService;
+    private final AtomicInteger savedOnShard = new AtomicInteger(-1);
+    private final AtomicInteger clicksAddedOnShard = new AtomicInteger(-1);
+    private final List<ShardMove> moves = new ArrayList<>();
+    private final AtomicInteger ackPolls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        urlRepository = mock(UrlRepository.class);
+        shardMoveRepository = mock(ShardMoveRepository.class);
+        shardLayoutAckRepository = mock(ShardLayoutAckRepository.class);
+        ShardResolver shardResolver = mock(ShardResolver.class);
+        when(shardResolver.shardCount()).thenReturn(2);
+        when(shardMoveRepository.save(any(ShardMove.class))).thenAnswer(invocation -> {
+            ShardMove move = invocation.getArgument(0);
+            if (!moves.contains(move)) {
+                moves.add(move);
+            }
+            return move;
+        });
+        when(shardMoveRepository.findAllByOrderByIdAsc()).thenAnswer(invocation -> List.copyOf(moves));
+        // Another instance that only catches up with each layout on the second poll
+        when(shardLayoutAckRepository.findByAckedAtAfter(any())).thenAnswer(invocation -> {
+            long version = ShardResolver.versionOf(moves) - (ackPolls.getAndIncrement() % 2 == 0 ? 1 : 0);
+            return List.of(new ShardLayoutAck("other", version, LocalDateTime.now()));
+        });
+        doAnswer(invocation -> {
+            clicksAddedOnShard.set(ShardContext.current());
+            return 1;
+        }).when(urlRepository).addClicks(anyString(), anyLong());
+        doAnswer(invocation -> {
+            savedOnShard.set(ShardContext.current());
+            return invocation.getArgument(0);
+        }).when(urlRepository).save(any(UrlEntity.class));
+
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        properties.setRefreshIntervalMs(0);
+        reshardingService = new UrlReshardingService(urlRepository, shardMoveRepository, shardLayoutAckRepository,
+                shardResolver, new UrlShardRouter(shardResolver, null), properties);
+        ReflectionTestUtils.setField(reshardingService, "chunkSize", 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reshardingService.shutdown();
+    }
+
+    @Test
+    void aMovedLinkKeepsEveryColumn() {
+        UrlEntity source = UrlEntity.builder()
+                .id(42L)
+                .originalUrl("https://example.com/landing?utm_source=mail")
+                .urlHash("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+                .shortCode("m0v3d1")
+                .username("owner")
+                .createdAt(LocalDateTime.of(2025, 1, 2, 3, 4, 5))
+                .expiresAt(LocalDateTime.of(2026, 1, 2, 3, 4, 5))
+                .clickCount(1234L)
+                .isActive(false)
+                .redirectStatus(301)
+                .cacheMaxAgeSeconds(3600)
+                .shardBucket(ShardResolver.bucketOf("m0v3d1"))
+                .build();
+        when(urlRepository.findInBucketRange(anyInt(), anyInt(), anyLong(), any())).thenReturn(List.of(source));
+        when(urlRepository.existsByShortCode(anyString())).thenReturn(false);
+
+        reshardingService.startMove(0, ShardResolver.BUCKETS - 1, 1);
+
+        // The source rows are deleted once the copy is done
+        verify(urlRepository, timeout(5000)).deleteByIds(List.of(42L));
+        ArgumentCaptor<UrlEntity> saved = ArgumentCaptor.forClass(UrlEntity.class);
+        verify(urlRepository).save(saved.capture());
+        UrlEntity copy = saved.getValue();
+
+        assertEquals(1, savedOnShard.get());
+        assertNull(copy.getId());
+        assertEquals(source.getOriginalUrl(), copy.getOriginalUrl());
+        assertEquals(source.getUrlHash(), copy.getUrlHash());
+        assertEquals(source.getShortCode(), copy.getShortCode());
+        assertEquals(source.getUsername(), copy.getUsername());
+        assertEquals(source.getCreatedAt(), copy.getCreatedAt());
+        assertEquals(source.getExpiresAt(), copy.getExpiresAt());
+        assertEquals(0L, copy.getClickCount());
+        assertEquals(source.getIsActive(), copy.getIsActive());
+        assertEquals(source.getRedirectStatus(), copy.getRedirectStatus());
+        assertEquals(source.getCacheMaxAgeSeconds(), copy.getCacheMaxAgeSeconds());
+        assertEquals(source.getShardBucket(), copy.getShardBucket());
+        // Nothing else differs, including columns added after this test was written
+        assertEquals(source.toBuilder().id(null).clickCount(0L).build(), copy);
+
+        // The source's clicks reach the target before its row goes
+        InOrder order = inOrder(urlRepository);
+        order.verify(urlRepository).addClicks("m0v3d1", 1234L);
+        order.verify(urlRepository).deleteByIds(List.of(42L));
+        assertEquals(1, clicksAddedOnShard.get());
+        // Each of the two layouts was polled until the other instance had it
+        verify(shardLayoutAckRepository, atLeast(4)).findByAckedAtAfter(any());
+    }
+}
@@ -0,0 +1,57 @@
+package com.Auth.security;
+
+import com.Auth.metrics.AuthMetrics;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret",
+                "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", TimeUnit.DAYS.toMillis(1));
+        ReflectionTestUtils.setField(jwtService, "authMetrics", new AuthMetrics(new SimpleMeterRegistry()));
+        token = jwtService.generateToken("benchmark-user");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("benchmark-user");
+    }
+
+    @Benchmark
+    public Claims parseClaims() {
+        return jwtService.parseClaims(token);
+    }
+
+    // Parses the token twice, once for the subject and once for the expiry
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtService.validateToken(token, "benchmark-user");
+    }
+}
@@ -0,0 +1,47 @@
+package com.Auth.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt at the default strength used by WebSecurityConfig; this is the
+ * bulk of the CPU time of register and login.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    private BCryptPasswordEncoder passwordEncoder;
+    private String encoded;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder();
+        encoded = passwordEncoder.encode("benchmark-password");
+    }
+
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode("benchmark-password");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches("benchmark-password", encoded);
+    }
+}
@@ -0,0 +1,90 @@
+package com.Auth.service;
+
+import com.Auth.dto.BatchValidationRequest;
+import com.Auth.dto.BatchValidationResponse;
+import com.Auth.metrics.AuthMetrics;
+import com.Auth.security.JwtService;
+import com.Auth.security.TokenRevocationList;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POST /api/auth/validate/batch with every token either unseen (each one is
+ * verified) or already in the token_validation cache. The cache is in memory
+ * here; in production it is Redis, which adds a round trip per token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchValidationBenchmark {
+
+    @Param({ "10", "100" })
+    private int batchSize;
+
+    @Param({ "false", "true" })
+    private boolean cached;
+
+    private AuthService authService;
+    private ConcurrentMapCacheManager cacheManager;
+    private BatchValidationRequest request;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret",
+                "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", TimeUnit.DAYS.toMillis(1));
+        ReflectionTestUtils.setField(jwtService, "authMetrics", new AuthMetrics(new SimpleMeterRegistry()));
+
+        cacheManager = new ConcurrentMapCacheManager("token_validation");
+
+        authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "jwtService", jwtService);
+        ReflectionTestUtils.setField(authService, "cacheManager", cacheManager);
+        ReflectionTestUtils.setField(authService, "tokenRevocationList", new TokenRevocationList());
+        ReflectionTestUtils.setField(authService, "batchMaxSize", batchSize);
+
+        List<String> tokens = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            tokens.add(jwtService.generateToken("benchmark-user-" + i));
+        }
+        request = new BatchValidationRequest();
+        request.setTokens(tokens);
+        if (cached) {
+            authService.validateTokens(request);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void clearCache() {
+        if (!cached) {
+            cacheManager.getCache("token_validation").clear();
+        }
+    }
+
+    @Benchmark
+    public BatchValidationResponse validateTokens() {
+        return authService.validateTokens(request);
+    }
+}
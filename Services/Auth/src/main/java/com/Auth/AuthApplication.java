@@ -1,13 +1,18 @@
 package com.Auth;
 
+import com.Auth.config.NativeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableCaching
 @EnableJpaRepositories
+@EnableScheduling
+@ImportRuntimeHints(NativeHints.class)
 public class AuthApplication {
 
 	public static void main(String[] args) {
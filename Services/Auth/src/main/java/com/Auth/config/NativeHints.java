@@ -0,0 +1,63 @@
+package com.Auth.config;
+
+import com.Auth.dto.AuthResponse;
+import com.Auth.dto.BatchValidationRequest;
+import com.Auth.dto.BatchValidationResponse;
+import com.Auth.dto.LoginRequest;
+import com.Auth.dto.MessageResponse;
+import com.Auth.dto.RefreshTokenRequest;
+import com.Auth.dto.RegisterRequest;
+import com.Auth.dto.ValidationResponse;
+import com.Auth.entity.RefreshToken;
+import com.Auth.entity.User;
+import com.Auth.logging.RingBufferAppender;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Hints for the AOT/native builds. The DTOs are bound by Jackson, and
+ * ValidationResponse is also stored as JSON in the token_validation cache;
+ * JJWT loads its implementation and serializer classes reflectively.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    private static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                AuthResponse.class, BatchValidationRequest.class, BatchValidationResponse.class,
+                LoginRequest.class, MessageResponse.class, RefreshTokenRequest.class,
+                RegisterRequest.class, ValidationResponse.class);
+
+        for (Class<?> entity : List.of(User.class, RefreshToken.class)) {
+            hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+
+        for (String type : JJWT_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+
+        hints.reflection().registerType(RingBufferAppender.class,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.resources().registerPattern("logback-spring.xml");
+        hints.resources().registerPattern("ehcache.xml");
+    }
+}
@@ -0,0 +1,39 @@
+package com.Auth.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-confined override that forces reads onto the primary, used for
+ * read-your-writes stickiness and for retrying a replica miss.
+ */
+public final class ReadRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private ReadRoutingContext() {
+    }
+
+    public static boolean isPrimaryPinned() {
+        return Boolean.TRUE.equals(PRIMARY_PINNED.get());
+    }
+
+    public static void pinPrimary() {
+        PRIMARY_PINNED.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        PRIMARY_PINNED.remove();
+    }
+
+    public static <T> T onPrimary(Supplier<T> action) {
+        if (isPrimaryPinned()) {
+            return action.get();
+        }
+        pinPrimary();
+        try {
+            return action.get();
+        } finally {
+            clear();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.Auth.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Pins a client's reads to the primary for a short window after it wrote,
+ * so it sees its own creates and deletes even when replicas lag.
+ *
+ * The client carries the time of its last write: every successful write
+ * answers with it in the {@value #HEADER} header and the {@value #COOKIE}
+ * cookie, and a request bringing either back within the window reads from
+ * the primary. Nothing is kept per client, so any instance routes the next
+ * request the same way. A time further in the future than the window is
+ * ignored, so a made-up value cannot pin a client for longer.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Last-Write";
+    public static final String COOKIE = "last_write";
+
+    private final long stickinessMs;
+
+    public ReadYourWritesFilter(long stickinessMs) {
+        this.stickinessMs = stickinessMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        long lastWrite = lastWrite(request);
+        if (lastWrite > now - stickinessMs && lastWrite <= now + stickinessMs) {
+            ReadRoutingContext.pinPrimary();
+        }
+
+        LastWriteResponse write = isWrite(request.getMethod()) ? new LastWriteResponse(response, stickinessMs) : null;
+        try {
+            filterChain.doFilter(request, write != null ? write : response);
+        } finally {
+            if (write != null) {
+                write.writeLastWrite();
+            }
+            ReadRoutingContext.clear();
+        }
+    }
+
+    private static boolean isWrite(String method) {
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+
+    // The header wins over the cookie: API clients that echo it may share a cookie jar
+    private static long lastWrite(HttpServletRequest request) {
+        String value = request.getHeader(HEADER);
+        if (value == null && request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (COOKIE.equals(cookie.getName())) {
+                    value = cookie.getValue();
+                }
+            }
+        }
+        if (value == null) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
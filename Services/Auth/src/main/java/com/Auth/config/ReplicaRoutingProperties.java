@@ -0,0 +1,35 @@
+package com.Auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    // Query returning replication lag in seconds (a Seconds_Behind_Source column
+    // or the first column), e.g. SHOW REPLICA STATUS. Empty means liveness only.
+    private String lagQuery = "";
+
+    private long maxLagSeconds = 5;
+
+    private long healthCheckIntervalMs = 5000;
+
+    // How long a client keeps reading from the primary after a write
+    private long stickinessMs = 5000;
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
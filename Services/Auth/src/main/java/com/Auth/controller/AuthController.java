@@ -31,8 +31,10 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<MessageResponse> logout(@Valid @RequestBody LogoutRequest request) {
-        authService.logout(request);
+    public ResponseEntity<MessageResponse> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        authService.logout(accessToken);
         return ResponseEntity.ok(new MessageResponse("Logged out successfully"));
     }
 
@@ -40,4 +42,9 @@ public class AuthController {
     public ResponseEntity<ValidationResponse> validate(@RequestParam String token) {
         return ResponseEntity.ok(authService.validateToken(token));
     }
+
+    @PostMapping("/validate/batch")
+    public ResponseEntity<BatchValidationResponse> validateBatch(@Valid @RequestBody BatchValidationRequest request) {
+        return ResponseEntity.ok(authService.validateTokens(request));
+    }
 }
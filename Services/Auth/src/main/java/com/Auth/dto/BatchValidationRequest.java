@@ -0,0 +1,12 @@
+package com.Auth.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchValidationRequest {
+    @NotEmpty(message = "At least one token is required")
+    private List<String> tokens;
+}
@@ -0,0 +1,13 @@
+package com.Auth.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BatchValidationResponse {
+    // Same order as the tokens in the request
+    private List<ValidationResponse> results;
+}
@@ -1,10 +0,0 @@
-package com.Auth.dto;
-
-import jakarta.validation.constraints.NotBlank;
-import lombok.Data;
-
-@Data
-public class LogoutRequest {
-    @NotBlank(message = "Username is required")
-    private String username;
-}
@@ -0,0 +1,11 @@
+package com.Auth.invalidation;
+
+/**
+ * One mutation as seen on the bus.
+ *
+ * @param version     hybrid logical clock value of the publisher; for the same type and key a higher
+ *                    version is the later mutation, whichever instance published it
+ * @param publishedAt wall clock of the publisher when the mutation was committed, for the lag metric
+ */
+public record Invalidation(InvalidationType type, String key, String data, long version, long publishedAt) {
+}
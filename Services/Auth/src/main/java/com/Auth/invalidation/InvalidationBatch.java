@@ -0,0 +1,65 @@
+package com.Auth.invalidation;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One message on the bus: the invalidations a publisher collected during a
+ * flush interval, numbered per publisher so receivers notice a missed batch.
+ * A batch without invalidations is a heartbeat and repeats the last number sent.
+ *
+ * Encoded as lines, first {@code B|<source>|<seq>|<sentAt>} and then one
+ * {@code <type>|<version>|<publishedAt>|<key>|<data>} per invalidation, with
+ * source, key and data URL-encoded.
+ */
+public record InvalidationBatch(String source, long seq, long sentAt, List<Invalidation> invalidations) {
+
+    public boolean isHeartbeat() {
+        return invalidations.isEmpty();
+    }
+
+    public String encode() {
+        StringBuilder message = new StringBuilder(64 + invalidations.size() * 48)
+                .append("B|").append(escape(source)).append('|').append(seq).append('|').append(sentAt);
+        for (Invalidation invalidation : invalidations) {
+            message.append('\n')
+                    .append(invalidation.type().code()).append('|')
+                    .append(invalidation.version()).append('|')
+                    .append(invalidation.publishedAt()).append('|')
+                    .append(escape(invalidation.key())).append('|')
+                    .append(escape(invalidation.data()));
+        }
+        return message.toString();
+    }
+
+    public static InvalidationBatch decode(String message) {
+        String[] lines = message.split("\n");
+        String[] header = lines[0].split("\\|", 4);
+        if (header.length != 4 || !header[0].equals("B")) {
+            throw new IllegalArgumentException("Not an invalidation batch");
+        }
+
+        List<Invalidation> invalidations = new ArrayList<>(lines.length - 1);
+        for (int i = 1; i < lines.length; i++) {
+            String[] fields = lines[i].split("\\|", 5);
+            if (fields.length != 5 || fields[0].length() != 1) {
+                throw new IllegalArgumentException("Malformed invalidation on line " + (i + 1));
+            }
+            invalidations.add(new Invalidation(InvalidationType.of(fields[0].charAt(0)), unescape(fields[3]),
+                    unescape(fields[4]), Long.parseLong(fields[1]), Long.parseLong(fields[2])));
+        }
+        return new InvalidationBatch(unescape(header[1]), Long.parseLong(header[2]), Long.parseLong(header[3]),
+                invalidations);
+    }
+
+    private static String escape(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String unescape(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+}
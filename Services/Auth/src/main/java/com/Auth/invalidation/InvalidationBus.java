@@ -0,0 +1,363 @@
+package com.Auth.invalidation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tells the other Auth and Api-Service instances about mutations made here,
+ * so they drop what they cached, and applies theirs to this instance.
+ *
+ * Mutations are queued once their transaction commits and sent every
+ * {@code flush-interval-ms} as one numbered {@link InvalidationBatch}. A
+ * failed send is retried with the same number until it succeeds, so delivery
+ * is at least once. When the queue is full, link and user mutations are
+ * dropped, but a revocation waits for room. Receivers track the last number per publisher: a repeat
+ * is dropped, and a jump means batches were missed, which are then replayed
+ * from the transport's log. Heartbeats make a lost last batch show up too.
+ * If the log no longer reaches back far enough, every handler is asked to
+ * resync.
+ *
+ * Each invalidation carries a hybrid logical clock version. Receivers keep
+ * the highest version seen per key and ignore anything older, so replays and
+ * messages that arrive out of order never undo a later mutation.
+ *
+ * {@code auth.invalidation.lag} times each invalidation from commit on
+ * the publishing instance to apply on this one. Its maximum is the measured
+ * staleness bound; by design it is the flush interval plus one Redis round
+ * trip, or the heartbeat interval when a batch has to be replayed. It
+ * compares two wall clocks, so clock skew between hosts shows up in it.
+ */
+public class InvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvalidationBus.class);
+
+    private static final long MAX_RETRY_DELAY_MS = 5000;
+
+    private final InvalidationTransport transport;
+    private final InvalidationProperties properties;
+    private final String source;
+    private final Map<InvalidationType, List<InvalidationHandler>> handlers = new EnumMap<>(InvalidationType.class);
+    private final List<InvalidationHandler> allHandlers;
+
+    private final BlockingQueue<Invalidation> pending;
+    private final AtomicLong clock = new AtomicLong();
+    private final Cache<String, Long> versions;
+    private final Cache<String, SourceState> sources;
+
+    // Sending state, guarded by this
+    private long seq;
+    private String unsent;
+    private long lastSentAt;
+    private int failures;
+    private long retryAt;
+
+    private ScheduledExecutorService flusher;
+    private Runnable unsubscribe;
+
+    private final Timer lag;
+    private final Counter applied;
+    private final Counter stale;
+    private final Counter batchesSent;
+    private final Counter sendFailures;
+    private final Counter duplicates;
+    private final Counter replayed;
+    private final Counter lost;
+    private final Counter dropped;
+
+    private static final class SourceState {
+        long lastSeq = -1;
+    }
+
+    public InvalidationBus(InvalidationTransport transport, List<InvalidationHandler> handlers,
+            InvalidationProperties properties, String source, MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.properties = properties;
+        this.source = source;
+        this.allHandlers = List.copyOf(handlers);
+        for (InvalidationHandler handler : handlers) {
+            for (InvalidationType type : handler.types()) {
+                this.handlers.computeIfAbsent(type, t -> new ArrayList<>()).add(handler);
+            }
+        }
+
+        this.pending = new ArrayBlockingQueue<>(properties.getMaxPending());
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(properties.getTrackedKeys())
+                .expireAfterWrite(Duration.ofMillis(properties.getVersionRetentionMs()))
+                .build();
+        // Live publishers send a heartbeat every interval, so only stopped ones expire
+        this.sources = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMillis(properties.getVersionRetentionMs()))
+                .build();
+
+        lag = Timer.builder("auth.invalidation.lag")
+                .description("Time from a mutation committing on another instance to its invalidation applying here")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        applied = counter(meterRegistry, "auth.invalidation.received", "result", "applied");
+        stale = counter(meterRegistry, "auth.invalidation.received", "result", "stale");
+        batchesSent = counter(meterRegistry, "auth.invalidation.batches", "result", "sent");
+        sendFailures = counter(meterRegistry, "auth.invalidation.batches", "result", "failed");
+        duplicates = counter(meterRegistry, "auth.invalidation.batches", "result", "duplicate");
+        replayed = counter(meterRegistry, "auth.invalidation.gaps", "result", "replayed");
+        lost = counter(meterRegistry, "auth.invalidation.gaps", "result", "lost");
+        dropped = Counter.builder("auth.invalidation.dropped")
+                .description("Mutations not sent because the queue was full; revocations wait instead")
+                .register(meterRegistry);
+        Gauge.builder("auth.invalidation.pending", pending, BlockingQueue::size)
+                .description("Mutations waiting to be sent")
+                .register(meterRegistry);
+    }
+
+    public void start() {
+        unsubscribe = transport.subscribe(this::receive);
+        long interval = properties.getFlushIntervalMs();
+        flusher = Executors.newSingleThreadScheduledExecutor(
+                task -> Thread.ofPlatform().name("invalidation-flush").daemon().unstarted(task));
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void close() throws InterruptedException {
+        if (flusher != null) {
+            flusher.shutdown();
+            flusher.awaitTermination(MAX_RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+        flushQuietly();
+        if (unsubscribe != null) {
+            unsubscribe.run();
+        }
+    }
+
+    /**
+     * Queues a mutation for the other instances; this instance is expected to
+     * have applied it already. Inside a transaction it is queued on commit,
+     * so no one reloads the old row in between.
+     */
+    public void publish(InvalidationType type, String key, String data) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(type, key, data);
+                }
+            });
+        } else {
+            enqueue(type, key, data);
+        }
+    }
+
+    private void enqueue(InvalidationType type, String key, String data) {
+        Invalidation invalidation = new Invalidation(type, key, data != null ? data : "", nextVersion(),
+                System.currentTimeMillis());
+        // Remembered here too, so an older mutation from another instance cannot override it
+        isNewer(invalidation);
+        if (pending.offer(invalidation)) {
+            return;
+        }
+        if (type.isRevocation()) {
+            // Wait for the flusher to make room rather than leave the token usable elsewhere
+            try {
+                pending.put(invalidation);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.error("Interrupted while queueing {} {}, it was not sent", type, key);
+            }
+            return;
+        }
+        dropped.increment();
+        logger.warn("Invalidation queue full, dropped {} {}", type, key);
+    }
+
+    /** Sends what is pending in batches, or a heartbeat after a quiet interval. */
+    public synchronized void flush() {
+        long now = System.currentTimeMillis();
+        while (true) {
+            if (unsent == null) {
+                List<Invalidation> batch = new ArrayList<>();
+                pending.drainTo(batch, properties.getMaxBatchSize());
+                if (!batch.isEmpty()) {
+                    unsent = new InvalidationBatch(source, ++seq, now, batch).encode();
+                } else if (now - lastSentAt >= properties.getHeartbeatIntervalMs()) {
+                    unsent = new InvalidationBatch(source, seq, now, List.of()).encode();
+                } else {
+                    return;
+                }
+            } else if (now < retryAt) {
+                return;
+            }
+
+            try {
+                transport.send(unsent);
+            } catch (RuntimeException e) {
+                failures++;
+                retryAt = now + Math.min(MAX_RETRY_DELAY_MS, properties.getFlushIntervalMs() << Math.min(failures, 10));
+                sendFailures.increment();
+                logger.warn("Failed to send invalidation batch {} (attempt {}): {}", seq, failures, e.getMessage());
+                return;
+            }
+            unsent = null;
+            failures = 0;
+            lastSentAt = now;
+            batchesSent.increment();
+            if (pending.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // An exception would cancel the scheduled flush
+            logger.error("Invalidation flush failed", e);
+        }
+    }
+
+    /** Handles a message from the transport. */
+    public void receive(String message) {
+        InvalidationBatch batch;
+        try {
+            batch = InvalidationBatch.decode(message);
+        } catch (RuntimeException e) {
+            logger.warn("Ignoring malformed invalidation message: {}", e.getMessage());
+            return;
+        }
+        if (batch.source().equals(source)) {
+            return;
+        }
+
+        SourceState state = sources.get(batch.source(), s -> new SourceState());
+        synchronized (state) {
+            if (state.lastSeq >= 0) {
+                if (batch.seq() <= state.lastSeq) {
+                    if (!batch.isHeartbeat()) {
+                        duplicates.increment();
+                    }
+                    return;
+                }
+                // A heartbeat repeats the last number sent, which is then missing too
+                long missedUpTo = batch.isHeartbeat() ? batch.seq() : batch.seq() - 1;
+                if (missedUpTo > state.lastSeq) {
+                    replay(batch.source(), state.lastSeq, missedUpTo);
+                }
+            }
+            apply(batch.invalidations());
+            state.lastSeq = batch.seq();
+        }
+    }
+
+    private void replay(String from, long afterSeq, long upToSeq) {
+        long next = afterSeq + 1;
+        try {
+            List<InvalidationBatch> missed = new ArrayList<>();
+            for (String message : transport.recent()) {
+                InvalidationBatch batch = InvalidationBatch.decode(message);
+                if (batch.source().equals(from) && !batch.isHeartbeat()
+                        && batch.seq() > afterSeq && batch.seq() <= upToSeq) {
+                    missed.add(batch);
+                }
+            }
+            missed.sort(Comparator.comparingLong(InvalidationBatch::seq));
+            for (InvalidationBatch batch : missed) {
+                if (batch.seq() > next) {
+                    break;
+                }
+                if (batch.seq() == next) {
+                    apply(batch.invalidations());
+                    next++;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not replay invalidations from {}: {}", from, e.getMessage());
+        }
+
+        if (next > upToSeq) {
+            replayed.increment();
+            return;
+        }
+        lost.increment();
+        logger.warn("Invalidation batches {} to {} from {} are lost, resynchronising caches", next, upToSeq, from);
+        for (InvalidationHandler handler : allHandlers) {
+            try {
+                handler.resync();
+            } catch (RuntimeException e) {
+                logger.warn("Cache resync failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void apply(List<Invalidation> invalidations) {
+        Map<InvalidationType, List<Invalidation>> fresh = new EnumMap<>(InvalidationType.class);
+        for (Invalidation invalidation : invalidations) {
+            clock.accumulateAndGet(invalidation.version(), Math::max);
+            if (!handlers.containsKey(invalidation.type())) {
+                continue;
+            }
+            if (isNewer(invalidation)) {
+                fresh.computeIfAbsent(invalidation.type(), t -> new ArrayList<>()).add(invalidation);
+            } else {
+                stale.increment();
+            }
+        }
+
+        fresh.forEach((type, batch) -> {
+            for (InvalidationHandler handler : handlers.get(type)) {
+                try {
+                    handler.apply(type, batch);
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to apply {} invalidations: {}", type, e.getMessage());
+                }
+            }
+            long now = System.currentTimeMillis();
+            for (Invalidation invalidation : batch) {
+                lag.record(Math.max(0, now - invalidation.publishedAt()), TimeUnit.MILLISECONDS);
+            }
+            applied.increment(batch.size());
+        });
+    }
+
+    // Milliseconds in the high bits and a counter in the low 16, moved past
+    // every version received, so a mutation made after seeing another always
+    // gets the higher version
+    private long nextVersion() {
+        return clock.accumulateAndGet(System.currentTimeMillis() << 16, (last, now) -> Math.max(last + 1, now));
+    }
+
+    private boolean isNewer(Invalidation invalidation) {
+        long version = invalidation.version();
+        boolean[] newer = new boolean[1];
+        versions.asMap().compute(invalidation.type().code() + invalidation.key(), (key, previous) -> {
+            newer[0] = previous == null || previous < version;
+            return newer[0] ? version : previous;
+        });
+        return newer[0];
+    }
+
+    private static Counter counter(MeterRegistry registry, String name, String tag, String value) {
+        return Counter.builder(name)
+                .tag(tag, value)
+                .register(registry);
+    }
+}
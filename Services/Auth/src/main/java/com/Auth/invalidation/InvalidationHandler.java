@@ -0,0 +1,20 @@
+package com.Auth.invalidation;
+
+import java.util.List;
+import java.util.Set;
+
+/** Applies invalidations received from other instances to this instance's caches. */
+public interface InvalidationHandler {
+
+    Set<InvalidationType> types();
+
+    /** Called with the new invalidations of one type from one batch, oldest first. */
+    void apply(InvalidationType type, List<Invalidation> invalidations);
+
+    /**
+     * Called when batches from another instance were lost and could not be
+     * replayed, so any cached entry may be stale.
+     */
+    default void resync() {
+    }
+}
@@ -0,0 +1,44 @@
+package com.Auth.invalidation;
+
+/**
+ * The mutations sent over the invalidation bus. Auth and Api-Service share the
+ * channel, so both define the same types with the same codes.
+ */
+public enum InvalidationType {
+
+    /** A link was deleted or expired. Key: the short code. */
+    LINK_DEACTIVATED('L'),
+
+    /** A user row changed or was removed. Key: the username, data: the user id. */
+    USER_CHANGED('U'),
+
+    /** One access token was revoked. Key: the jti, data: {@code <expiresAt>|<issuedAt>|<username>}. */
+    TOKEN_REVOKED('J'),
+
+    /** A user's tokens issued before a cutoff were revoked. Key: the username, data: {@code <expiresAt>|<issuedBefore>}. */
+    USER_TOKENS_REVOKED('C');
+
+    private final char code;
+
+    InvalidationType(char code) {
+        this.code = code;
+    }
+
+    public char code() {
+        return code;
+    }
+
+    /** Revocations are never dropped: a lost one would leave the token usable elsewhere. */
+    public boolean isRevocation() {
+        return this == TOKEN_REVOKED || this == USER_TOKENS_REVOKED;
+    }
+
+    public static InvalidationType of(char code) {
+        for (InvalidationType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown invalidation type " + code);
+    }
+}
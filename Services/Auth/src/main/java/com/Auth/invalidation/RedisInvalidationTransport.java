@@ -0,0 +1,66 @@
+package com.Auth.invalidation;
+
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Publishes on a Redis channel and keeps the last messages in a capped list
+ * next to it ({@code <channel>:log}). Pub/sub drops messages while a
+ * subscriber is disconnected; the list is what a receiver replays from once
+ * it notices the gap.
+ */
+public class RedisInvalidationTransport implements InvalidationTransport {
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final String channel;
+    private final String logKey;
+    private final int logSize;
+
+    public RedisInvalidationTransport(StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer, String channel, int logSize) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.channel = channel;
+        this.logKey = channel + ":log";
+        this.logSize = logSize;
+    }
+
+    @Override
+    public void send(String message) {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        byte[] log = logKey.getBytes(StandardCharsets.UTF_8);
+        // Logged before it is published, so a receiver that sees the next batch can replay this one
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.listCommands().lPush(log, body);
+            connection.listCommands().lTrim(log, 0, logSize - 1L);
+            connection.publish(channel.getBytes(StandardCharsets.UTF_8), body);
+            return null;
+        });
+    }
+
+    @Override
+    public Runnable subscribe(Consumer<String> receiver) {
+        MessageListener listener = (message, pattern) ->
+                receiver.accept(new String(message.getBody(), StandardCharsets.UTF_8));
+        listenerContainer.addMessageListener(listener, new ChannelTopic(channel));
+        return () -> listenerContainer.removeMessageListener(listener);
+    }
+
+    @Override
+    public List<String> recent() {
+        List<String> newestFirst = redisTemplate.opsForList().range(logKey, 0, -1);
+        List<String> messages = newestFirst != null ? new ArrayList<>(newestFirst) : new ArrayList<>();
+        Collections.reverse(messages);
+        return messages;
+    }
+}
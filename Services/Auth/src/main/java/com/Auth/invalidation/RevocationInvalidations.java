@@ -0,0 +1,56 @@
+package com.Auth.invalidation;
+
+import com.Auth.security.RevocationStore;
+import com.Auth.security.TokenRevocationList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/** Applies revocations made on other Auth instances to the local {@link TokenRevocationList}. */
+@Component
+public class RevocationInvalidations implements InvalidationHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationInvalidations.class);
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private RevocationStore revocationStore;
+
+    @Override
+    public Set<InvalidationType> types() {
+        return EnumSet.of(InvalidationType.TOKEN_REVOKED, InvalidationType.USER_TOKENS_REVOKED);
+    }
+
+    @Override
+    public void apply(InvalidationType type, List<Invalidation> invalidations) {
+        for (Invalidation invalidation : invalidations) {
+            try {
+                if (type == InvalidationType.TOKEN_REVOKED) {
+                    // The username goes last so it may contain the separator
+                    String[] parts = invalidation.data().split("\\|", 3);
+                    tokenRevocationList.revokeToken(invalidation.key(), parts[2],
+                            Long.parseLong(parts[1]), Long.parseLong(parts[0]));
+                } else {
+                    String[] parts = invalidation.data().split("\\|", 2);
+                    tokenRevocationList.revokeUser(invalidation.key(),
+                            Long.parseLong(parts[1]), Long.parseLong(parts[0]));
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Ignoring malformed revocation: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Revocations only ever add to the list, so the stored ones are applied on top
+    @Override
+    public void resync() {
+        revocationStore.reload();
+    }
+}
@@ -0,0 +1,26 @@
+package com.Auth.invalidation;
+
+import com.Auth.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Entity listener publishing every update or removal of a {@link User}, so
+ * other instances drop it from their second-level cache. The bus is looked
+ * up lazily because Hibernate creates the listener while the entity manager
+ * factory, which the bus's handlers need, is still being built.
+ */
+public class UserChangePublisher {
+
+    @Autowired
+    private ObjectProvider<InvalidationBus> invalidationBus;
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        invalidationBus.getObject().publish(InvalidationType.USER_CHANGED, user.getUsername(),
+                String.valueOf(user.getId()));
+    }
+}
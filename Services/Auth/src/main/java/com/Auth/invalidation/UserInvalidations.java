@@ -0,0 +1,42 @@
+package com.Auth.invalidation;
+
+import com.Auth.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Evicts users changed on another instance from the Hibernate second-level
+ * cache. The username to id mapping in {@code users-by-username} is left
+ * alone, since usernames are immutable and a removed user's id no longer
+ * loads.
+ */
+@Component
+public class UserInvalidations implements InvalidationHandler {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public Set<InvalidationType> types() {
+        return EnumSet.of(InvalidationType.USER_CHANGED);
+    }
+
+    @Override
+    public void apply(InvalidationType type, List<Invalidation> invalidations) {
+        for (Invalidation invalidation : invalidations) {
+            entityManagerFactory.getCache().evict(User.class, Long.valueOf(invalidation.data()));
+        }
+    }
+
+    @Override
+    public void resync() {
+        entityManagerFactory.getCache().evict(User.class);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictNaturalIdData(User.class);
+    }
+}
@@ -0,0 +1,71 @@
+package com.Auth.logging;
+
+import com.Auth.timing.RequestTimings;
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One key=value line per sampled request on the {@code access} logger.
+ * Sampling is per mapped route; server errors are always logged. Every line
+ * counts against a per-second budget and lines over it are only counted, so
+ * a traffic spike cannot turn into a logging spike.
+ */
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger("access");
+
+    private final AccessLogProperties properties;
+    private final LogBudget budget;
+    private final Counter budgetDrops;
+
+    public AccessLogFilter(AccessLogProperties properties, Counter budgetDrops) {
+        this.properties = properties;
+        this.budget = new LogBudget(properties.getMaxLinesPerSecond());
+        this.budgetDrops = budgetDrops;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (logger.isInfoEnabled()) {
+                logRequest(request, response.getStatus(), System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void logRequest(HttpServletRequest request, int status, long elapsedNanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? pattern.toString() : "unmapped";
+        if (status < 500 && !isSampled(route)) {
+            return;
+        }
+        if (!budget.tryAcquire()) {
+            budgetDrops.increment();
+            return;
+        }
+
+        RequestTimings timings = RequestTimings.current();
+        logger.info("method={} route=\"{}\" path=\"{}\" status={} dur_us={}{}", request.getMethod(), route,
+                request.getRequestURI(), status, elapsedNanos / 1_000,
+                timings != null ? " timing=\"" + timings.toHeader() + "\"" : "");
+    }
+
+    private boolean isSampled(String route) {
+        double rate = properties.getSampleRates().getOrDefault(route, properties.getDefaultSampleRate());
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+}
@@ -0,0 +1,32 @@
+package com.Auth.logging;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed per-second allowance of log lines. The window resets on the first
+ * call of each second, so a burst can briefly see up to twice the budget
+ * across a boundary, which is fine for a log limiter.
+ */
+class LogBudget {
+
+    private final int perSecond;
+    private final AtomicLong window = new AtomicLong();
+    private final AtomicInteger used = new AtomicInteger();
+
+    LogBudget(int perSecond) {
+        this.perSecond = perSecond;
+    }
+
+    boolean tryAcquire() {
+        if (perSecond <= 0) {
+            return true;
+        }
+        long second = System.currentTimeMillis() / 1000;
+        long current = window.get();
+        if (current != second && window.compareAndSet(current, second)) {
+            used.set(0);
+        }
+        return used.incrementAndGet() <= perSecond;
+    }
+}
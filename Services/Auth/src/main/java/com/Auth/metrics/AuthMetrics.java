@@ -0,0 +1,64 @@
+package com.Auth.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Timers for the auth service's CPU-heavy paths. All of them publish a
+ * percentile histogram, and tags only take values from a fixed set (never a
+ * username or token), so the number of series is bounded.
+ */
+@Component
+public class AuthMetrics {
+
+    private final Timer jwtVerifyValid;
+    private final Timer jwtVerifyInvalid;
+    private final Timer jwtSignAccess;
+    private final Timer jwtSignRefresh;
+    private final Timer passwordEncode;
+    private final Timer passwordMatch;
+    private final Timer passwordMismatch;
+    private final Timer refreshRotationSuccess;
+    private final Timer refreshRotationError;
+
+    public AuthMetrics(MeterRegistry registry) {
+        jwtVerifyValid = timer(registry, "auth.jwt.verify", "JWT signature and expiry check", "outcome", "valid");
+        jwtVerifyInvalid = timer(registry, "auth.jwt.verify", "JWT signature and expiry check", "outcome", "invalid");
+        jwtSignAccess = timer(registry, "auth.jwt.sign", "JWT creation", "type", "access");
+        jwtSignRefresh = timer(registry, "auth.jwt.sign", "JWT creation", "type", "refresh");
+        passwordEncode = timer(registry, "auth.password.encode", "BCrypt hash of a new password", "outcome", "success");
+        passwordMatch = timer(registry, "auth.password.match", "BCrypt password check", "outcome", "match");
+        passwordMismatch = timer(registry, "auth.password.match", "BCrypt password check", "outcome", "mismatch");
+        refreshRotationSuccess = timer(registry, "auth.refresh.rotation", "Refresh token replacement", "outcome", "success");
+        refreshRotationError = timer(registry, "auth.refresh.rotation", "Refresh token replacement", "outcome", "error");
+    }
+
+    public Timer jwtVerify(boolean valid) {
+        return valid ? jwtVerifyValid : jwtVerifyInvalid;
+    }
+
+    public Timer jwtSign(boolean refresh) {
+        return refresh ? jwtSignRefresh : jwtSignAccess;
+    }
+
+    public Timer passwordEncode() {
+        return passwordEncode;
+    }
+
+    public Timer passwordMatch(boolean matched) {
+        return matched ? passwordMatch : passwordMismatch;
+    }
+
+    public Timer refreshRotation(boolean success) {
+        return success ? refreshRotationSuccess : refreshRotationError;
+    }
+
+    private static Timer timer(MeterRegistry registry, String name, String description, String tag, String value) {
+        return Timer.builder(name)
+                .description(description)
+                .tag(tag, value)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
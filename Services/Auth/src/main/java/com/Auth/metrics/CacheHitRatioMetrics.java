@@ -0,0 +1,62 @@
+package com.Auth.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+/**
+ * {@code cache.hit.ratio} gauges, hits over lookups since startup. The
+ * per-request counters behind them ({@code cache.gets},
+ * {@code hibernate.second.level.cache.requests}) are better for rates over
+ * a window; the ratio is the at-a-glance number.
+ */
+@Component
+public class CacheHitRatioMetrics implements MeterBinder {
+
+    private static final String TOKEN_VALIDATION_CACHE = "token_validation";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ratio(registry, "hibernate.second-level", statistics::getSecondLevelCacheHitCount,
+                statistics::getSecondLevelCacheMissCount);
+        ratio(registry, "hibernate.natural-id", statistics::getNaturalIdCacheHitCount,
+                statistics::getNaturalIdCacheMissCount);
+        ratio(registry, "hibernate.query", statistics::getQueryCacheHitCount,
+                statistics::getQueryCacheMissCount);
+
+        // Needs spring.cache.redis.enable-statistics=true
+        Cache cache = cacheManager.getCache(TOKEN_VALIDATION_CACHE);
+        if (cache instanceof RedisCache redisCache) {
+            ratio(registry, TOKEN_VALIDATION_CACHE, () -> redisCache.getStatistics().getHits(),
+                    () -> redisCache.getStatistics().getMisses());
+        }
+    }
+
+    private static void ratio(MeterRegistry registry, String cache, LongSupplier hits, LongSupplier misses) {
+        Gauge.builder("cache.hit.ratio", () -> {
+                    long hit = hits.getAsLong();
+                    long total = hit + misses.getAsLong();
+                    return total == 0 ? Double.NaN : (double) hit / total;
+                })
+                .description("Share of lookups served from the cache since startup")
+                .tag("cache", cache)
+                .register(registry);
+    }
+}
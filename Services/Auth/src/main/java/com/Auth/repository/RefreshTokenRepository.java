@@ -2,13 +2,19 @@ package com.Auth.repository;
 
 import com.Auth.entity.RefreshToken;
 import com.Auth.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -21,9 +27,12 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     @Transactional
     void deleteByUser_Id(Long userId);
 
-    // Native SQL query as backup
+    // Native SQL query as backup. Hibernate cannot tell what a native statement
+    // touches and would clear every second-level cache region, so the table is
+    // declared and only refresh_tokens (which is not cached) is invalidated.
     @Modifying
     @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "refresh_tokens"))
     @Query(value = "DELETE FROM refresh_tokens WHERE user_id = :userId", nativeQuery = true)
     void deleteByUserIdNative(@Param("userId") Long userId);
 
@@ -31,4 +40,13 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     @Modifying
     @Transactional
     void deleteByUser(User user);
-}
\ No newline at end of file
+
+    // Keyset scan used by the expired token purge
+    @Query("SELECT r.id FROM RefreshToken r WHERE r.id > :afterId AND r.expiryDate < :now ORDER BY r.id")
+    List<Long> findExpiredIds(@Param("afterId") Long afterId, @Param("now") Instant now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.id IN :ids AND r.expiryDate < :now")
+    int deleteExpiredByIds(@Param("ids") List<Long> ids, @Param("now") Instant now);
+}
@@ -0,0 +1,15 @@
+package com.Auth.repository;
+
+import com.Auth.entity.User;
+
+import java.util.Optional;
+
+/**
+ * Username lookups through Hibernate's natural-id API, so they are served by
+ * the {@code users-by-username} and {@code users} second-level cache regions
+ * instead of a query.
+ */
+public interface UserNaturalIdRepository {
+
+    Optional<User> findByUsername(String username);
+}
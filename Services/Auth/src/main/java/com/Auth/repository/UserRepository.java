@@ -1,18 +1,22 @@
 package com.Auth.repository;
 
 import com.Auth.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByUsername(String username);
-
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
     Optional<User> findByEmail(String email);
 
+    // Cached query results are invalidated whenever the users table changes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Boolean existsByUsername(String username);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Boolean existsByEmail(String email);
 }
@@ -1,6 +1,9 @@
 package com.Auth.security;
 
 import com.Auth.service.CustomUserDetailsService;
+import com.Auth.timing.RequestTimings;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -29,18 +32,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
             FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && !jwtService.isTokenExpired(jwt)) {
-                String username = jwtService.extractUsername(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (StringUtils.hasText(jwt)) {
+                // One parse verifies the signature and expiry; everything below reads these claims
+                long begin = RequestTimings.begin();
+                Claims claims = jwtService.parseClaims(jwt);
+                String username = claims.getSubject();
+                // The parser rejects expired tokens but accepts ones without an expiry
+                boolean usable = claims.getExpiration() != null
+                        && StringUtils.hasText(username)
+                        && !tokenRevocationList.isRevoked(claims.getId(), username,
+                                claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L);
+                RequestTimings.end("jwt", begin);
 
-                if (jwtService.validateToken(jwt, username)) {
+                if (usable) {
+                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                             userDetails, null,
                             userDetails.getAuthorities());
@@ -49,6 +63,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
             }
+        } catch (JwtException ex) {
+            // Expired, malformed or badly signed: the request goes on unauthenticated
+            logger.debug("Ignoring invalid JWT: {}", ex.getMessage());
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
         }
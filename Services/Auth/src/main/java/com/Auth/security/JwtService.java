@@ -1,9 +1,11 @@
 package com.Auth.security;
 
+import com.Auth.metrics.AuthMetrics;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -11,11 +13,16 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component // Make sure this annotation is present
 public class JwtService {
 
+    @Autowired
+    private AuthMetrics authMetrics;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -42,32 +49,58 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    public String extractJti(String token) {
+        return extractClaim(token, Claims::getId);
+    }
+
+    /**
+     * Verifies the signature and expiry and returns every claim, so callers
+     * that need several claims only parse the token once.
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        long start = System.nanoTime();
+        boolean valid = false;
+        try {
+            Claims claims = Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            valid = true;
+            return claims;
+        } finally {
+            authMetrics.jwtVerify(valid).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     public String generateToken(String username) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, username, jwtExpiration);
+        return createToken(claims, username, jwtExpiration, false);
     }
 
     public String generateRefreshToken(String username) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, username, refreshExpiration);
+        return createToken(claims, username, refreshExpiration, true);
     }
 
-    private String createToken(Map<String, Object> claims, String subject, long expiration) {
-        return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-                .compact();
+    private String createToken(Map<String, Object> claims, String subject, long expiration, boolean refresh) {
+        long start = System.nanoTime();
+        try {
+            return Jwts.builder()
+                    .setClaims(claims)
+                    .setSubject(subject)
+                    .setId(UUID.randomUUID().toString())
+                    .setIssuedAt(new Date(System.currentTimeMillis()))
+                    .setExpiration(new Date(System.currentTimeMillis() + expiration))
+                    .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                    .compact();
+        } finally {
+            authMetrics.jwtSign(refresh).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     public Boolean isTokenExpired(String token) {
@@ -0,0 +1,116 @@
+package com.Auth.security;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable copy of the {@link TokenRevocationList} in Redis, so revocations
+ * survive a restart and reach instances started after them.
+ *
+ * Two sorted sets, scored by the expiry of the tokens an entry covers:
+ * {@code <key>:tokens} with members {@code <jti>|<issuedAt>|<username>} and
+ * {@code <key>:users} with members {@code <issuedBefore>|<username>}. Every
+ * write trims entries whose tokens have expired and pushes the key's TTL out
+ * to one token lifetime, so nothing outlives the tokens it revokes.
+ * Api-Service reads the same keys.
+ */
+@Component
+public class RevocationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationStore.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Value("${app.revocation.store-key:auth:revocations}")
+    private String key;
+
+    @Value("${jwt.expiration}")
+    private long jwtExpiration;
+
+    public void saveToken(String jti, String username, long issuedAt, long expiresAt) {
+        // The username goes last so it may contain the separator
+        save(key + ":tokens", jti + "|" + issuedAt + "|" + username, expiresAt);
+    }
+
+    public void saveUser(String username, long issuedBefore, long expiresAt) {
+        save(key + ":users", issuedBefore + "|" + username, expiresAt);
+    }
+
+    private void save(String setKey, String member, long expiresAt) {
+        long now = System.currentTimeMillis();
+        if (expiresAt <= now) {
+            return;
+        }
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                redis.opsForZSet().add(setKey, member, expiresAt);
+                redis.opsForZSet().removeRangeByScore(setKey, Double.NEGATIVE_INFINITY, now);
+                redis.expire(setKey, jwtExpiration, TimeUnit.MILLISECONDS);
+                return null;
+            }
+        });
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            reload();
+        } catch (DataAccessException e) {
+            // Revocations made from now on still arrive over the invalidation bus
+            logger.error("Could not load token revocations: {}", e.getMessage());
+        }
+    }
+
+    /** Applies every stored revocation whose tokens have not expired yet; returns how many there were. */
+    public int reload() {
+        long now = System.currentTimeMillis();
+        int loaded = 0;
+
+        Set<TypedTuple<String>> tokens = redisTemplate.opsForZSet()
+                .rangeByScoreWithScores(key + ":tokens", now, Double.POSITIVE_INFINITY);
+        for (TypedTuple<String> entry : tokens != null ? tokens : Set.<TypedTuple<String>>of()) {
+            try {
+                String[] parts = entry.getValue().split("\\|", 3);
+                tokenRevocationList.revokeToken(parts[0], parts[2], Long.parseLong(parts[1]),
+                        entry.getScore().longValue());
+                loaded++;
+            } catch (RuntimeException e) {
+                logger.warn("Ignoring malformed stored revocation: {}", e.getMessage());
+            }
+        }
+
+        Set<TypedTuple<String>> users = redisTemplate.opsForZSet()
+                .rangeByScoreWithScores(key + ":users", now, Double.POSITIVE_INFINITY);
+        for (TypedTuple<String> entry : users != null ? users : Set.<TypedTuple<String>>of()) {
+            try {
+                String[] parts = entry.getValue().split("\\|", 2);
+                tokenRevocationList.revokeUser(parts[1], Long.parseLong(parts[0]), entry.getScore().longValue());
+                loaded++;
+            } catch (RuntimeException e) {
+                logger.warn("Ignoring malformed stored revocation: {}", e.getMessage());
+            }
+        }
+
+        logger.info("Loaded {} token revocations", loaded);
+        return loaded;
+    }
+}
@@ -0,0 +1,50 @@
+package com.Auth.security;
+
+import com.Auth.metrics.AuthMetrics;
+import com.Auth.timing.RequestTimings;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/** Records the time spent in the wrapped encoder, which for BCrypt is most of a login. */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final AuthMetrics authMetrics;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, AuthMetrics authMetrics) {
+        this.delegate = delegate;
+        this.authMetrics = authMetrics;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        long begin = RequestTimings.begin();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            authMetrics.passwordEncode().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            RequestTimings.end("password", begin);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        long begin = RequestTimings.begin();
+        boolean matched = false;
+        try {
+            matched = delegate.matches(rawPassword, encodedPassword);
+            return matched;
+        } finally {
+            authMetrics.passwordMatch(matched).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            RequestTimings.end("password", begin);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,124 @@
+package com.Auth.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory set of revoked access tokens. The {@link RevocationStore} keeps
+ * the durable copy it is loaded from on startup.
+ *
+ * Two kinds of entries are kept:
+ * - a token id (jti), revoking exactly one token
+ * - a per-user cutoff, revoking every token of that user issued before it
+ *
+ * Entries are filed in buckets by the expiry of the tokens they cover and a
+ * bucket is dropped once it is in the past, since those tokens fail the
+ * expiry check anyway. The jti map is capped; once full, a revocation is
+ * recorded as a user cutoff instead, which over-revokes slightly but keeps
+ * memory bounded by the number of users.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, UserCutoff> userCutoffs = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> tokenBuckets = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> userBuckets = new ConcurrentHashMap<>();
+
+    @Value("${app.revocation.bucket-ms:60000}")
+    private long bucketMillis;
+
+    @Value("${app.revocation.max-tokens:100000}")
+    private int maxTokens;
+
+    private record UserCutoff(long issuedBefore, long expiresAt) {
+    }
+
+    public boolean isRevoked(String jti, String username, long issuedAt) {
+        if (jti != null && revokedTokens.containsKey(jti)) {
+            return true;
+        }
+        UserCutoff cutoff = username != null ? userCutoffs.get(username) : null;
+        return cutoff != null && issuedAt < cutoff.issuedBefore();
+    }
+
+    public void revokeToken(String jti, String username, long issuedAt, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        if (jti == null || revokedTokens.size() >= maxTokens) {
+            // Cover this token with a cutoff just past its issue time
+            revokeUser(username, issuedAt + 1, expiresAt);
+            return;
+        }
+        if (revokedTokens.put(jti, expiresAt) == null) {
+            tokenBuckets.computeIfAbsent(bucketOf(expiresAt), b -> ConcurrentHashMap.newKeySet()).add(jti);
+        }
+    }
+
+    public void revokeUser(String username, long issuedBefore, long expiresAt) {
+        if (username == null || expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        userCutoffs.merge(username, new UserCutoff(issuedBefore, expiresAt),
+                (current, next) -> new UserCutoff(
+                        Math.max(current.issuedBefore(), next.issuedBefore()),
+                        Math.max(current.expiresAt(), next.expiresAt())));
+        userBuckets.computeIfAbsent(bucketOf(expiresAt), b -> ConcurrentHashMap.newKeySet()).add(username);
+    }
+
+    public int size() {
+        return revokedTokens.size() + userCutoffs.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.revocation.bucket-ms:60000}")
+    public void dropExpiredBuckets() {
+        long now = System.currentTimeMillis();
+        long currentBucket = bucketOf(now);
+        int dropped = 0;
+
+        for (Long bucket : tokenBuckets.keySet()) {
+            if (bucket < currentBucket) {
+                Set<String> jtis = tokenBuckets.remove(bucket);
+                if (jtis != null) {
+                    for (String jti : jtis) {
+                        dropped += revokedTokens.remove(jti) != null ? 1 : 0;
+                    }
+                }
+            }
+        }
+
+        for (Long bucket : userBuckets.keySet()) {
+            if (bucket < currentBucket) {
+                Set<String> usernames = userBuckets.remove(bucket);
+                if (usernames != null) {
+                    for (String username : usernames) {
+                        // A later logout may have extended the cutoff into a newer bucket;
+                        // remove(key, value) leaves one merged in meanwhile alone
+                        UserCutoff cutoff = userCutoffs.get(username);
+                        if (cutoff != null && cutoff.expiresAt() <= now && userCutoffs.remove(username, cutoff)) {
+                            dropped++;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (dropped > 0) {
+            logger.debug("Dropped {} expired revocation entries, {} remaining", dropped, size());
+        }
+    }
+
+    private long bucketOf(long epochMillis) {
+        return Math.floorDiv(epochMillis, bucketMillis);
+    }
+}
@@ -0,0 +1,22 @@
+package com.Auth.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Claims of a token whose signature and expiry have been checked. This is what
+ * the token_validation cache holds, so revocation can be checked on a cache
+ * hit without parsing the token again.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VerifiedToken {
+    private String username;
+    private String jti;
+    private long issuedAt;
+    private long expiresAt;
+}
@@ -4,20 +4,30 @@ import com.Auth.dto.*;
 import com.Auth.entity.RefreshToken;
 import com.Auth.entity.User;
 import com.Auth.exception.AuthException;
+import com.Auth.exception.InvalidTokenException;
 import com.Auth.repository.UserRepository;
 import com.Auth.security.JwtService;
+import com.Auth.security.TokenRevocationList;
+import com.Auth.security.VerifiedToken;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 public class AuthService {
 
+    private static final String TOKEN_VALIDATION_CACHE = "token_validation";
+    private static final String USER_TOKENS_CACHE = "user_tokens";
+
     @Autowired
     private UserRepository userRepository;
 
@@ -33,6 +43,18 @@ public class AuthService {
     @Autowired
     private RefreshTokenService refreshTokenService;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Value("${app.validate.batch-max-size:100}")
+    private int batchMaxSize;
+
     @Transactional
     public AuthResponse register(RegisterRequest request) {
         try {
@@ -144,25 +166,109 @@ public class AuthService {
                 .orElseThrow(() -> new AuthException("Invalid refresh token"));
     }
 
-    @CacheEvict(value = "user_tokens", key = "#request.username")
-    public void logout(LogoutRequest request) {
-        refreshTokenService.deleteByUsername(request.getUsername());
+    /**
+     * Logs out the user the access token belongs to. The username is taken
+     * from the verified token, so a caller can only end their own sessions;
+     * a missing, expired or revoked token is refused.
+     */
+    public void logout(String accessToken) {
+        VerifiedToken verified = accessToken != null ? verifyToken(accessToken) : null;
+        if (!isActive(verified)) {
+            throw new InvalidTokenException("A valid access token is required to log out");
+        }
+        String username = verified.getUsername();
+
+        refreshTokenService.deleteByUsername(username);
+        tokenRevocationService.revokeAllForUser(username);
+
+        // Also revoke the presented token by id, which covers it even when it
+        // was issued in the same second as the logout
+        tokenRevocationService.revokeToken(verified.getJti(), username, verified.getIssuedAt(),
+                verified.getExpiresAt());
+
+        Cache userTokens = cacheManager.getCache(USER_TOKENS_CACHE);
+        if (userTokens != null) {
+            userTokens.evict(username);
+        }
     }
 
-    @Cacheable(value = "token_validation", key = "#token", unless = "#result.valid == false")
     public ValidationResponse validateToken(String token) {
+        return toValidationResponse(validateWithCache(cacheManager.getCache(TOKEN_VALIDATION_CACHE), token));
+    }
+
+    public BatchValidationResponse validateTokens(BatchValidationRequest request) {
+        List<String> tokens = request.getTokens();
+        if (tokens.size() > batchMaxSize) {
+            throw new AuthException("At most " + batchMaxSize + " tokens can be validated per request");
+        }
+
+        Cache cache = cacheManager.getCache(TOKEN_VALIDATION_CACHE);
+
+        // Signature checks are CPU bound, so spread them across cores. The
+        // ordered stream keeps results aligned with the request.
+        List<ValidationResponse> results = tokens.parallelStream()
+                .map(token -> toValidationResponse(validateWithCache(cache, token)))
+                .toList();
+
+        return BatchValidationResponse.builder()
+                .results(results)
+                .build();
+    }
+
+    // Only successful verifications are cached; revocation and expiry are
+    // checked on every call, so a cached entry never outlives a logout
+    private VerifiedToken validateWithCache(Cache cache, String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        if (cache == null) {
+            return verifyToken(token);
+        }
+
+        VerifiedToken cached = null;
         try {
-            String username = jwtService.extractUsername(token);
-            boolean isValid = jwtService.validateToken(token, username);
+            cached = cache.get(token, VerifiedToken.class);
+        } catch (IllegalStateException e) {
+            // Entry written in an older format, verify again
+        }
+        if (cached != null) {
+            return cached;
+        }
+
+        VerifiedToken verified = verifyToken(token);
+        if (verified != null) {
+            cache.put(token, verified);
+        }
+        return verified;
+    }
 
-            return ValidationResponse.builder()
-                    .valid(isValid)
-                    .username(isValid ? username : null)
+    private VerifiedToken verifyToken(String token) {
+        try {
+            Claims claims = jwtService.parseClaims(token);
+            return VerifiedToken.builder()
+                    .username(claims.getSubject())
+                    .jti(claims.getId())
+                    .issuedAt(claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L)
+                    .expiresAt(claims.getExpiration().getTime())
                     .build();
         } catch (Exception e) {
-            return ValidationResponse.builder()
-                    .valid(false)
-                    .build();
+            return null;
         }
     }
-}
\ No newline at end of file
+
+    private boolean isActive(VerifiedToken verified) {
+        return verified != null
+                && verified.getUsername() != null
+                && verified.getExpiresAt() > System.currentTimeMillis()
+                && !tokenRevocationList.isRevoked(verified.getJti(), verified.getUsername(), verified.getIssuedAt());
+    }
+
+    private ValidationResponse toValidationResponse(VerifiedToken verified) {
+        boolean isValid = isActive(verified);
+
+        return ValidationResponse.builder()
+                .valid(isValid)
+                .username(isValid ? verified.getUsername() : null)
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.Auth.service;
+
+import com.Auth.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Deletes expired refresh tokens in small id-ordered chunks. Deletes re-check
+ * the expiry predicate, so it is safe for every Auth replica to run it.
+ */
+@Service
+public class RefreshTokenPurgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenPurgeService.class);
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${app.purge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.purge.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.purge.max-chunks-per-second:5}")
+    private double maxChunksPerSecond;
+
+    @Value("${app.purge.max-chunks-per-run:1000}")
+    private int maxChunksPerRun;
+
+    @Scheduled(initialDelayString = "${app.purge.initial-delay-ms:60000}",
+            fixedDelayString = "${app.purge.interval-ms:3600000}")
+    public void purgeScheduled() {
+        if (enabled) {
+            purgeExpiredTokens();
+        }
+    }
+
+    public long purgeExpiredTokens() {
+        Instant now = Instant.now();
+        long minChunkMillis = maxChunksPerSecond > 0 ? (long) (1000 / maxChunksPerSecond) : 0;
+        long afterId = 0L;
+        long totalPurged = 0;
+        int chunks = 0;
+        long runStart = System.currentTimeMillis();
+
+        while (chunks < maxChunksPerRun) {
+            long chunkStart = System.currentTimeMillis();
+
+            List<Long> ids = refreshTokenRepository.findExpiredIds(afterId, now, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            int purged = refreshTokenRepository.deleteExpiredByIds(ids, now);
+            afterId = ids.get(ids.size() - 1);
+            totalPurged += purged;
+            chunks++;
+
+            long elapsed = System.currentTimeMillis() - chunkStart;
+            logger.info("Purged {} expired refresh tokens up to id {} in {} ms", purged, afterId, elapsed);
+
+            if (ids.size() < chunkSize) {
+                break;
+            }
+            if (!throttle(minChunkMillis - elapsed)) {
+                break;
+            }
+        }
+
+        logger.info("Refresh token purge finished: {} rows in {} chunks ({} ms)",
+                totalPurged, chunks, System.currentTimeMillis() - runStart);
+        return totalPurged;
+    }
+
+    private boolean throttle(long sleepMillis) {
+        if (sleepMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(sleepMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
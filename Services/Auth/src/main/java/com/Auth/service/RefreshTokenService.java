@@ -3,8 +3,10 @@ package com.Auth.service;
 import com.Auth.entity.RefreshToken;
 import com.Auth.entity.User;
 import com.Auth.exception.AuthException;
+import com.Auth.metrics.AuthMetrics;
 import com.Auth.repository.RefreshTokenRepository;
 import com.Auth.repository.UserRepository;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -23,11 +25,16 @@ public class RefreshTokenService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AuthMetrics authMetrics;
+
     @Value("${app.jwtRefreshExpirationMs:86400000}") // 24 hours default
     private Long refreshTokenDurationMs;
 
     @Transactional
     public RefreshToken createRefreshToken(Long userId) {
+        Timer.Sample sample = Timer.start();
+        boolean rotated = false;
         try {
             User user = userRepository.findById(userId)
                     .orElseThrow(() -> new AuthException("User not found"));
@@ -49,12 +56,15 @@ public class RefreshTokenService {
             RefreshToken savedToken = refreshTokenRepository.save(refreshToken);
             System.out.println("Successfully created refresh token: " + savedToken.getToken());
 
+            rotated = true;
             return savedToken;
 
         } catch (Exception e) {
             System.out.println("Error creating refresh token: " + e.getMessage());
             e.printStackTrace();
             throw new AuthException("Failed to create refresh token: " + e.getMessage());
+        } finally {
+            sample.stop(authMetrics.refreshRotation(rotated));
         }
     }
 
@@ -0,0 +1,58 @@
+package com.Auth.service;
+
+import com.Auth.invalidation.InvalidationBus;
+import com.Auth.invalidation.InvalidationType;
+import com.Auth.security.RevocationStore;
+import com.Auth.security.TokenRevocationList;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Records revocations in the {@link RevocationStore}, so they outlive this
+ * instance, and in the local {@link TokenRevocationList}, then publishes them
+ * on the invalidation bus so other Auth and Api-Service instances apply them
+ * too.
+ */
+@Service
+public class TokenRevocationService {
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private RevocationStore revocationStore;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Value("${jwt.expiration}")
+    private long jwtExpiration;
+
+    public void revokeToken(String jti, String username, long issuedAt, long expiresAt) {
+        if (jti != null) {
+            revocationStore.saveToken(jti, username, issuedAt, expiresAt);
+        } else {
+            revocationStore.saveUser(username, issuedAt + 1, expiresAt);
+        }
+        tokenRevocationList.revokeToken(jti, username, issuedAt, expiresAt);
+        if (jti != null) {
+            invalidationBus.publish(InvalidationType.TOKEN_REVOKED, jti, expiresAt + "|" + issuedAt + "|" + username);
+        } else {
+            // Covered by a cutoff just past its issue time, as the local list does
+            invalidationBus.publish(InvalidationType.USER_TOKENS_REVOKED, username, expiresAt + "|" + (issuedAt + 1));
+        }
+    }
+
+    public void revokeAllForUser(String username) {
+        // iat has second precision, so a token issued in the same second as the
+        // logout stays valid rather than revoking the user's next login
+        long now = System.currentTimeMillis();
+        long issuedBefore = now - now % 1000;
+        long expiresAt = now + jwtExpiration;
+
+        revocationStore.saveUser(username, issuedBefore, expiresAt);
+        tokenRevocationList.revokeUser(username, issuedBefore, expiresAt);
+        invalidationBus.publish(InvalidationType.USER_TOKENS_REVOKED, username, expiresAt + "|" + issuedBefore);
+    }
+}
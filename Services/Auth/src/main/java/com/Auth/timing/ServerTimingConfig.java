@@ -0,0 +1,77 @@
+package com.Auth.timing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Wires the per-request phase recorder:
+ * - the filter runs first, so {@code total} covers the whole chain
+ * - {@code dispatch} is the time until the handler is reached (security filters, mapping)
+ * - every repository call is recorded as {@code db}
+ * - {@code jwt} and {@code password} are recorded by the JWT filter and the password encoder
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.server-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingConfig implements WebMvcConfigurer {
+
+    @Bean
+    public SlowRequestLog slowRequestLog() {
+        return new SlowRequestLog();
+    }
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            @Value("${app.server-timing.sample-rate:0.05}") double sampleRate,
+            @Value("${app.server-timing.slow-threshold-ms:500}") long slowThresholdMs,
+            SlowRequestLog slowRequestLog) {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(
+                new ServerTimingFilter(sampleRate, slowThresholdMs, slowRequestLog));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryTimingPostProcessor() {
+        MethodInterceptor timing = invocation -> {
+            long begin = RequestTimings.begin();
+            try {
+                return invocation.proceed();
+            } finally {
+                RequestTimings.end("db", begin);
+            }
+        };
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(timing)));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                RequestTimings.sinceStart("dispatch");
+                return true;
+            }
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.Auth.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records phase timings for every request. A sampled share of responses
+ * carries them in a {@code Server-Timing} header; requests slower than the
+ * threshold are handed to the {@link SlowRequestLog} whether sampled or not.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final SlowRequestLog slowRequestLog;
+
+    public ServerTimingFilter(double sampleRate, long slowThresholdMs, SlowRequestLog slowRequestLog) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.start();
+        ServerTimingResponse sampled = isSampled() ? new ServerTimingResponse(response, timings) : null;
+
+        try {
+            filterChain.doFilter(request, sampled != null ? sampled : response);
+        } finally {
+            if (sampled != null) {
+                sampled.writeHeader();
+            }
+            RequestTimings.finish();
+            if (timings.elapsedNanos() >= slowThresholdNanos) {
+                slowRequestLog.record(route(request), timings);
+            }
+        }
+    }
+
+    private boolean isSampled() {
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    // The mapped pattern ("/api/auth/validate"), not the raw path, keeps the slow log's keys bounded
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "unmapped");
+    }
+}
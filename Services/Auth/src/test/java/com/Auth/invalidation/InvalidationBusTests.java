@@ -0,0 +1,201 @@
+package com.Auth.invalidation;
+
+import com.Auth.security.RevocationStore;
+import com.Auth.security.TokenRevocationList;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Two Auth buses on the in-memory transport, flushed by hand: revocations
+ * reaching the other instance's revocation list, repeated and out-of-order
+ * delivery, replay after a receiver missed batches, the resync that reloads
+ * stored revocations, a full queue that drops everything but revocations,
+ * and the wire format Api-Service shares.
+ */
+class InvalidationBusTests {
+
+    private InMemoryInvalidationTransport transport;
+    private RecordingHandler received;
+    private TokenRevocationList revocationList;
+    private RevocationStore revocationStore;
+    private InvalidationBus publisher;
+    private InvalidationBus receiver;
+    private SimpleMeterRegistry receiverMetrics;
+
+    @BeforeEach
+    void setUp() {
+        InvalidationProperties properties = new InvalidationProperties();
+        properties.setReplayLogSize(3);
+        transport = new InMemoryInvalidationTransport(properties.getReplayLogSize());
+        received = new RecordingHandler();
+        revocationList = new TokenRevocationList();
+        ReflectionTestUtils.setField(revocationList, "bucketMillis", 60_000L);
+        ReflectionTestUtils.setField(revocationList, "maxTokens", 100);
+        RevocationInvalidations revocations = new RevocationInvalidations();
+        ReflectionTestUtils.setField(revocations, "tokenRevocationList", revocationList);
+        revocationStore = mock(RevocationStore.class);
+        ReflectionTestUtils.setField(revocations, "revocationStore", revocationStore);
+        receiverMetrics = new SimpleMeterRegistry();
+        publisher = new InvalidationBus(transport, List.of(), properties, "publisher", new SimpleMeterRegistry());
+        receiver = new InvalidationBus(transport, List.of(received, revocations), properties, "receiver",
+                receiverMetrics);
+    }
+
+    @Test
+    void revocationsReachTheOtherInstance() {
+        transport.subscribe(receiver::receive);
+        long now = System.currentTimeMillis();
+        long expiresAt = now + TimeUnit.HOURS.toMillis(1);
+        // Usernames may contain the separator
+        publisher.publish(InvalidationType.TOKEN_REVOKED, "jti-1", expiresAt + "|" + now + "|alice|ops");
+        publisher.publish(InvalidationType.USER_TOKENS_REVOKED, "bob", expiresAt + "|" + now);
+        publisher.flush();
+
+        assertTrue(revocationList.isRevoked("jti-1", "alice|ops", now));
+        assertFalse(revocationList.isRevoked("jti-2", "alice|ops", now));
+        assertTrue(revocationList.isRevoked("jti-3", "bob", now - 1));
+        assertFalse(revocationList.isRevoked("jti-4", "bob", now + 1));
+        assertEquals(2, receiverMetrics.get("auth.invalidation.lag").timer().count());
+    }
+
+    @Test
+    void pendingMutationsAreSentAsOneBatch() {
+        transport.subscribe(receiver::receive);
+        publisher.publish(InvalidationType.USER_CHANGED, "alice", "1");
+        publisher.publish(InvalidationType.USER_CHANGED, "bob", "2");
+        publisher.flush();
+
+        assertEquals(List.of("alice", "bob"), received.keys);
+        assertEquals(1, received.batches.get());
+    }
+
+    @Test
+    void repeatedAndOlderInvalidationsAreIgnored() {
+        Invalidation newer = new Invalidation(InvalidationType.USER_CHANGED, "alice", "1", 200, 0);
+        Invalidation older = new Invalidation(InvalidationType.USER_CHANGED, "alice", "1", 100, 0);
+        String first = new InvalidationBatch("other", 1, 0, List.of(newer)).encode();
+
+        receiver.receive(first);
+        receiver.receive(first);
+        receiver.receive(new InvalidationBatch("other", 2, 0, List.of(older)).encode());
+
+        assertEquals(List.of("alice"), received.keys);
+        assertEquals(1.0, receiverMetrics.get("auth.invalidation.batches").tag("result", "duplicate")
+                .counter().count());
+        assertEquals(1.0, receiverMetrics.get("auth.invalidation.received").tag("result", "stale")
+                .counter().count());
+    }
+
+    @Test
+    void batchesMissedWhileDisconnectedAreReplayed() {
+        Runnable unsubscribe = transport.subscribe(receiver::receive);
+        publish("a");
+        unsubscribe.run();
+        publish("b");
+        publish("c");
+        transport.subscribe(receiver::receive);
+        publish("d");
+
+        assertEquals(List.of("a", "b", "c", "d"), received.keys);
+        assertEquals(0, received.resyncs.get());
+    }
+
+    @Test
+    void batchesOlderThanTheLogResync() {
+        Runnable unsubscribe = transport.subscribe(receiver::receive);
+        publish("a");
+        unsubscribe.run();
+        for (String key : List.of("b", "c", "d", "e")) {
+            publish(key);
+        }
+        transport.subscribe(receiver::receive);
+        publish("f");
+
+        assertEquals(1, received.resyncs.get());
+        assertEquals(List.of("a", "f"), received.keys);
+        // Revocations in the lost batches are reloaded from the store
+        verify(revocationStore).reload();
+    }
+
+    @Test
+    void aFullQueueDropsUserChangesButRevocationsWaitForRoom() throws Exception {
+        InvalidationProperties properties = new InvalidationProperties();
+        properties.setMaxPending(1);
+        SimpleMeterRegistry publisherMetrics = new SimpleMeterRegistry();
+        InvalidationBus full = new InvalidationBus(transport, List.of(), properties, "full", publisherMetrics);
+        transport.subscribe(receiver::receive);
+        long expiresAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+
+        full.publish(InvalidationType.USER_CHANGED, "alice", "1");
+        full.publish(InvalidationType.USER_CHANGED, "bob", "2");
+        assertEquals(1, publisherMetrics.get("auth.invalidation.dropped").counter().count());
+
+        CompletableFuture<Void> revocation = CompletableFuture.runAsync(() ->
+                full.publish(InvalidationType.USER_TOKENS_REVOKED, "carol", expiresAt + "|" + 1000));
+        Thread.sleep(100);
+        assertFalse(revocation.isDone(), "the revocation waits while the queue is full");
+
+        full.flush();
+        revocation.get(5, TimeUnit.SECONDS);
+        full.flush();
+
+        assertEquals(List.of("alice"), received.keys);
+        assertTrue(revocationList.isRevoked("jti-1", "carol", 999));
+        assertEquals(1, publisherMetrics.get("auth.invalidation.dropped").counter().count());
+    }
+
+    @Test
+    void batchesFromApiServiceDecode() {
+        // As Api-Service's InvalidationBatch encodes a deleted link; the two copies must stay in step
+        String wire = "B|api-7f9c|12|1700000000000\nL|3|1700000000001|ab%2Fc1|";
+        InvalidationBatch batch = new InvalidationBatch("api-7f9c", 12, 1700000000000L, List.of(
+                new Invalidation(InvalidationType.LINK_DEACTIVATED, "ab/c1", "", 3, 1700000000001L)));
+
+        assertEquals(batch, InvalidationBatch.decode(wire));
+        assertEquals(wire, batch.encode());
+    }
+
+    private void publish(String key) {
+        publisher.publish(InvalidationType.USER_CHANGED, key, "1");
+        publisher.flush();
+    }
+
+    private static class RecordingHandler implements InvalidationHandler {
+
+        final List<String> keys = new CopyOnWriteArrayList<>();
+        final AtomicInteger batches = new AtomicInteger();
+        final AtomicInteger resyncs = new AtomicInteger();
+
+        @Override
+        public Set<InvalidationType> types() {
+            return EnumSet.of(InvalidationType.USER_CHANGED);
+        }
+
+        @Override
+        public void apply(InvalidationType type, List<Invalidation> invalidations) {
+            batches.incrementAndGet();
+            invalidations.forEach(invalidation -> keys.add(invalidation.key()));
+        }
+
+        @Override
+        public void resync() {
+            resyncs.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.Auth.security;
+
+import com.Auth.metrics.AuthMetrics;
+import com.Auth.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The filter on real signed tokens. Every request verifies its token once:
+ * a single parseClaims call, and none of the helpers that parse again.
+ */
+class JwtAuthenticationFilterTests {
+
+    private static final String SECRET = "filter-test-secret-that-is-long-enough-for-hs512-signing-0123456789";
+
+    private JwtService jwtService;
+    private CustomUserDetailsService userDetailsService;
+    private TokenRevocationList tokenRevocationList;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = spy(jwtService(60_000));
+        userDetailsService = mock(CustomUserDetailsService.class);
+        when(userDetailsService.loadUserByUsername(anyString())).thenAnswer(invocation ->
+                new User(invocation.getArgument(0), "", List.of()));
+        tokenRevocationList = new TokenRevocationList();
+        ReflectionTestUtils.setField(tokenRevocationList, "bucketMillis", 60_000L);
+        ReflectionTestUtils.setField(tokenRevocationList, "maxTokens", 100);
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "tokenRevocationList", tokenRevocationList);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void aValidTokenAuthenticatesWithOneVerification() throws Exception {
+        String token = jwtService.generateToken("alice");
+
+        Authentication authentication = filter(token);
+
+        assertNotNull(authentication);
+        assertEquals("alice", authentication.getName());
+        assertSingleVerification(token);
+    }
+
+    @Test
+    void anExpiredTokenIsVerifiedOnceAndIgnored() throws Exception {
+        String expired = jwtService(-1_000).generateToken("alice");
+
+        assertNull(filter(expired));
+        assertSingleVerification(expired);
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void aRevokedTokenIsIgnored() throws Exception {
+        String token = jwtService.generateToken("alice");
+        tokenRevocationList.revokeToken(jwtService.extractJti(token), "alice", System.currentTimeMillis(),
+                System.currentTimeMillis() + 60_000);
+
+        assertNull(filter(token));
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void requestsWithoutATokenAreLeftAlone() throws Exception {
+        assertNull(filter(null));
+        verify(jwtService, never()).parseClaims(anyString());
+    }
+
+    private Authentication filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/auth/validate");
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertNotNull(chain.getRequest(), "the request must continue down the chain");
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private void assertSingleVerification(String token) {
+        verify(jwtService, times(1)).parseClaims(token);
+        verify(jwtService, never()).isTokenExpired(anyString());
+        verify(jwtService, never()).validateToken(anyString(), anyString());
+        verify(jwtService, never()).extractUsername(anyString());
+    }
+
+    private JwtService jwtService(long expirationMillis) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "authMetrics", new AuthMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(service, "jwtExpiration", expirationMillis);
+        ReflectionTestUtils.setField(service, "refreshExpiration", expirationMillis);
+        return service;
+    }
+}
@@ -0,0 +1,115 @@
+package com.Auth.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Revocations written by one instance and loaded by a fresh one, against
+ * sorted sets kept in a map the way Redis keeps them.
+ */
+class RevocationStoreTests {
+
+    private final Map<String, Map<String, Double>> sortedSets = new ConcurrentHashMap<>();
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ZSetOperations<String, String> zSet = mock(ZSetOperations.class);
+        when(zSet.add(anyString(), anyString(), anyDouble())).thenAnswer(invocation -> {
+            sortedSets.computeIfAbsent(invocation.getArgument(0), k -> new HashMap<>())
+                    .put(invocation.getArgument(1), invocation.getArgument(2));
+            return true;
+        });
+        when(zSet.removeRangeByScore(anyString(), anyDouble(), anyDouble())).thenAnswer(invocation -> {
+            double min = invocation.getArgument(1);
+            double max = invocation.getArgument(2);
+            Map<String, Double> set = sortedSets.getOrDefault(invocation.getArgument(0), new HashMap<>());
+            long before = set.size();
+            set.values().removeIf(score -> score >= min && score <= max);
+            return before - set.size();
+        });
+        when(zSet.rangeByScoreWithScores(anyString(), anyDouble(), anyDouble())).thenAnswer(invocation -> {
+            double min = invocation.getArgument(1);
+            double max = invocation.getArgument(2);
+            Set<TypedTuple<String>> range = new LinkedHashSet<>();
+            sortedSets.getOrDefault(invocation.getArgument(0), Map.of()).forEach((member, score) -> {
+                if (score >= min && score <= max) {
+                    range.add(new DefaultTypedTuple<>(member, score));
+                }
+            });
+            return range;
+        });
+
+        redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSet);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, SessionCallback.class).execute(redisTemplate);
+            return List.of();
+        });
+    }
+
+    @Test
+    void revocationsSurviveARestart() {
+        long now = System.currentTimeMillis();
+        RevocationStore before = store(new TokenRevocationList());
+        before.saveToken("jti-1", "alice", now - 5_000, now + 60_000);
+        before.saveUser("bob|ops", now - 1_000, now + 60_000);
+
+        TokenRevocationList restarted = new TokenRevocationList();
+        assertEquals(2, store(restarted).reload());
+
+        assertTrue(restarted.isRevoked("jti-1", "alice", now - 5_000));
+        assertFalse(restarted.isRevoked("jti-2", "alice", now - 5_000));
+        assertTrue(restarted.isRevoked("jti-3", "bob|ops", now - 2_000));
+        assertFalse(restarted.isRevoked("jti-4", "bob|ops", now));
+    }
+
+    @Test
+    void revocationsOfExpiredTokensAreTrimmedAndNotLoaded() {
+        long now = System.currentTimeMillis();
+        sortedSets.computeIfAbsent("auth:revocations:tokens", k -> new HashMap<>())
+                .put("old|" + (now - 120_000) + "|alice", (double) (now - 60_000));
+
+        store(new TokenRevocationList()).saveToken("new", "alice", now - 1_000, now + 60_000);
+        store(new TokenRevocationList()).saveToken("expired", "alice", now - 120_000, now - 1);
+
+        assertEquals(Set.of("new|" + (now - 1_000) + "|alice"), sortedSets.get("auth:revocations:tokens").keySet());
+        TokenRevocationList restarted = new TokenRevocationList();
+        assertEquals(1, store(restarted).reload());
+        assertTrue(restarted.isRevoked("new", "alice", now - 1_000));
+    }
+
+    private RevocationStore store(TokenRevocationList tokenRevocationList) {
+        ReflectionTestUtils.setField(tokenRevocationList, "bucketMillis", 60_000L);
+        ReflectionTestUtils.setField(tokenRevocationList, "maxTokens", 100);
+        RevocationStore store = new RevocationStore();
+        ReflectionTestUtils.setField(store, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(store, "tokenRevocationList", tokenRevocationList);
+        ReflectionTestUtils.setField(store, "key", "auth:revocations");
+        ReflectionTestUtils.setField(store, "jwtExpiration", 60_000L);
+        return store;
+    }
+}
@@ -0,0 +1,111 @@
+package com.Auth.service;
+
+import com.Auth.exception.InvalidTokenException;
+import com.Auth.metrics.AuthMetrics;
+import com.Auth.security.JwtService;
+import com.Auth.security.TokenRevocationList;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Logout on real signed tokens: it acts for the user the token names and
+ * refuses requests without a usable token.
+ */
+class AuthServiceLogoutTests {
+
+    private static final String SECRET = "logout-test-secret-that-is-long-enough-for-hs512-signing-0123456789";
+
+    private JwtService jwtService;
+    private RefreshTokenService refreshTokenService;
+    private TokenRevocationService tokenRevocationService;
+    private TokenRevocationList tokenRevocationList;
+    private CacheManager cacheManager;
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = jwtService(SECRET, 60_000);
+        refreshTokenService = mock(RefreshTokenService.class);
+        tokenRevocationService = mock(TokenRevocationService.class);
+        tokenRevocationList = new TokenRevocationList();
+        ReflectionTestUtils.setField(tokenRevocationList, "bucketMillis", 60_000L);
+        ReflectionTestUtils.setField(tokenRevocationList, "maxTokens", 100);
+        cacheManager = new ConcurrentMapCacheManager("user_tokens");
+
+        authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "jwtService", jwtService);
+        ReflectionTestUtils.setField(authService, "refreshTokenService", refreshTokenService);
+        ReflectionTestUtils.setField(authService, "tokenRevocationService", tokenRevocationService);
+        ReflectionTestUtils.setField(authService, "tokenRevocationList", tokenRevocationList);
+        ReflectionTestUtils.setField(authService, "cacheManager", cacheManager);
+    }
+
+    @Test
+    void logsOutTheUserTheTokenBelongsTo() {
+        cacheManager.getCache("user_tokens").put("alice", "cached");
+        String token = jwtService.generateToken("alice");
+
+        authService.logout(token);
+
+        verify(refreshTokenService).deleteByUsername("alice");
+        verify(tokenRevocationService).revokeAllForUser("alice");
+        verify(tokenRevocationService).revokeToken(eq(jwtService.extractJti(token)), eq("alice"), anyLong(), anyLong());
+        assertNull(cacheManager.getCache("user_tokens").get("alice"));
+    }
+
+    @Test
+    void aMissingTokenIsRefused() {
+        assertThrows(InvalidTokenException.class, () -> authService.logout(null));
+        verifyNoInteractions(refreshTokenService, tokenRevocationService);
+    }
+
+    @Test
+    void aTokenSignedWithAnotherKeyIsRefused() {
+        String forged = jwtService(SECRET.replace('0', 'X'), 60_000).generateToken("alice");
+
+        assertThrows(InvalidTokenException.class, () -> authService.logout(forged));
+        verifyNoInteractions(refreshTokenService, tokenRevocationService);
+    }
+
+    @Test
+    void anExpiredTokenIsRefused() {
+        String expired = jwtService(SECRET, -1_000).generateToken("alice");
+
+        assertThrows(InvalidTokenException.class, () -> authService.logout(expired));
+        verify(refreshTokenService, never()).deleteByUsername(any());
+    }
+
+    @Test
+    void aRevokedTokenIsRefused() {
+        String token = jwtService.generateToken("alice");
+        tokenRevocationList.revokeToken(jwtService.extractJti(token), "alice", System.currentTimeMillis(),
+                System.currentTimeMillis() + 60_000);
+
+        assertThrows(InvalidTokenException.class, () -> authService.logout(token));
+        verify(tokenRevocationService, never()).revokeAllForUser(anyString());
+    }
+
+    private static JwtService jwtService(String secret, long expirationMillis) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "authMetrics", new AuthMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "jwtSecret", secret);
+        ReflectionTestUtils.setField(service, "jwtExpiration", expirationMillis);
+        ReflectionTestUtils.setField(service, "refreshExpiration", expirationMillis);
+        return service;
+    }
+}
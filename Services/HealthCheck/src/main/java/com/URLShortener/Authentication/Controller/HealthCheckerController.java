@@ -7,6 +7,8 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.URLShortener.Authentication.Dependency.DeepHealthReport;
+import com.URLShortener.Authentication.Dependency.DeepHealthService;
 import com.URLShortener.Authentication.Service.HealthCheckService;
 
 import java.util.Map;
@@ -14,11 +16,25 @@ import java.util.Map;
 @RestController
 public class HealthCheckerController {
 
+    // Built once: the answer only ever depends on the last probe
+    private static final ResponseEntity<Map<String, String>> UP = ResponseEntity.status(HttpStatus.OK)
+            .headers(setHeaders())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("status", "UP"));
+
+    private static final ResponseEntity<Map<String, String>> UNAVAILABLE = ResponseEntity
+            .status(HttpStatus.SERVICE_UNAVAILABLE)
+            .headers(setHeaders())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("error", "Database connection unavailable"));
+
     private final HealthCheckService healthCheckerService;
+    private final DeepHealthService deepHealthService;
 
     @Autowired
-    public HealthCheckerController(HealthCheckService healthCheckerService) {
+    public HealthCheckerController(HealthCheckService healthCheckerService, DeepHealthService deepHealthService) {
         this.healthCheckerService = healthCheckerService;
+        this.deepHealthService = deepHealthService;
     }
 
     @GetMapping("/healthz")
@@ -38,21 +54,21 @@ public class HealthCheckerController {
                     .body(Map.of("error", "Bad request: Query parameters are not allowed"));
         }
 
-        try {
-            if (!healthCheckerService.isDatabaseConnected()) {
-                throw new RuntimeException("Database connection unavailable");
-            }
-            healthCheckerService.insertHealthCheck();
-            return ResponseEntity.status(HttpStatus.OK)
-                    .headers(setHeaders())
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(Map.of("status", "UP"));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
-                    .headers(setHeaders())
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(Map.of("error", "Database connection unavailable"));
-        }
+        // The service answers from its last background probe; nothing here touches the database
+        return healthCheckerService.isDatabaseConnected() ? UP : UNAVAILABLE;
+    }
+
+    // Probes every dependency; slow or failing ones degrade the report, only
+    // a critical one being down answers 503
+    @GetMapping("/healthz/deep")
+    public ResponseEntity<DeepHealthReport> checkDependencies() {
+        DeepHealthReport report = deepHealthService.check();
+        return ResponseEntity.status(report.status().equals(DeepHealthReport.DOWN)
+                        ? HttpStatus.SERVICE_UNAVAILABLE
+                        : HttpStatus.OK)
+                .headers(setHeaders())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(report);
     }
 
     @RequestMapping(value = "/healthz", method = { RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE,
@@ -61,7 +77,7 @@ public class HealthCheckerController {
         return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).build();
     }
 
-    private HttpHeaders setHeaders() {
+    private static HttpHeaders setHeaders() {
         HttpHeaders headers = new HttpHeaders();
         headers.add("Cache-Control", "no-cache, no-store, must-revalidate");
         headers.add("Pragma", "no-cache");
@@ -0,0 +1,52 @@
+package com.URLShortener.Authentication.Dependency;
+
+/**
+ * Stops probing a dependency that keeps failing. After
+ * {@code failureThreshold} consecutive failures the circuit opens and probes
+ * are skipped for {@code openMillis}; then one trial probe is let through,
+ * which closes the circuit on success and reopens it on failure.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /** Whether a probe may run now; moves an open circuit whose time is up to half-open. */
+    public synchronized boolean allow(long now) {
+        if (state == State.OPEN && now - openedAt >= openMillis) {
+            state = State.HALF_OPEN;
+            return true;
+        }
+        return state == State.CLOSED;
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+    }
+
+    public synchronized void onFailure(long now) {
+        failures++;
+        if (state == State.HALF_OPEN || failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = now;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+}
@@ -0,0 +1,31 @@
+package com.URLShortener.Authentication.Dependency;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/** SELECT 1 on this service's own database, the one dependency it cannot work without. */
+public class DatabaseProbe implements DependencyProbe {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatabaseProbe(DataSource dataSource, int timeoutSeconds) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setQueryTimeout(timeoutSeconds);
+    }
+
+    @Override
+    public String name() {
+        return "database";
+    }
+
+    @Override
+    public boolean critical() {
+        return true;
+    }
+
+    @Override
+    public void check() {
+        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+    }
+}
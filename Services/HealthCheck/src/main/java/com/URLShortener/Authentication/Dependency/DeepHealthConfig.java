@@ -0,0 +1,38 @@
+package com.URLShortener.Authentication.Dependency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+@Configuration
+@EnableConfigurationProperties(DeepHealthProperties.class)
+public class DeepHealthConfig {
+
+    @Bean(destroyMethod = "close")
+    public DeepHealthService deepHealthService(DataSource dataSource, DeepHealthProperties properties,
+            MeterRegistry meterRegistry) {
+        Duration timeout = Duration.ofMillis(properties.getTimeoutMs());
+        List<DependencyProbe> probes = new ArrayList<>();
+        probes.add(new DatabaseProbe(dataSource, (int) Math.max(1, timeout.toSeconds())));
+        if (properties.getRedis().isEnabled()) {
+            probes.add(new RedisProbe(properties.getRedis(), (int) timeout.toMillis()));
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        properties.getHttp().forEach((name, target) -> probes.add(new HttpProbe(name, target, client, timeout)));
+
+        return new DeepHealthService(probes, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,52 @@
+package com.URLShortener.Authentication.Dependency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "healthcheck.deep")
+public class DeepHealthProperties {
+
+    // Longest one probe may take; a slower probe counts as failed
+    private long timeoutMs = 1000;
+
+    // A dependency whose rolling p95 is above this is reported slow and the service degraded
+    private long slowThresholdMs = 250;
+
+    // Concurrent /healthz/deep requests within this long share one round of probes
+    private long cacheMs = 1000;
+
+    // Consecutive failures that open a dependency's circuit
+    private int failureThreshold = 3;
+
+    // How long an open circuit skips the dependency before one trial probe
+    private long openMs = 30_000;
+
+    // Span of the rolling latency percentiles
+    private long latencyWindowMs = 300_000;
+
+    private Redis redis = new Redis();
+
+    // Name to endpoint, e.g. auth, api and the redirect path
+    private Map<String, Http> http = new LinkedHashMap<>();
+
+    @Data
+    public static class Redis {
+        private boolean enabled = true;
+        private String host = "localhost";
+        private int port = 6379;
+        private String password;
+    }
+
+    @Data
+    public static class Http {
+        private String url;
+        // Statuses that count as healthy; empty means any 2xx
+        private List<Integer> statuses = List.of();
+        private boolean critical = false;
+    }
+}
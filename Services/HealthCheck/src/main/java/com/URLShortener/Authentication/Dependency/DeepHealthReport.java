@@ -0,0 +1,15 @@
+package com.URLShortener.Authentication.Dependency;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * UP when every dependency is up; DEGRADED when one is slow or a
+ * non-critical one is down; DOWN only when a critical one is down.
+ */
+public record DeepHealthReport(String status, Instant checkedAt, Map<String, DependencyHealth> dependencies) {
+
+    public static final String UP = "UP";
+    public static final String DEGRADED = "DEGRADED";
+    public static final String DOWN = "DOWN";
+}
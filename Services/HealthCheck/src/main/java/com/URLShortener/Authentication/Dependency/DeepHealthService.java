@@ -0,0 +1,168 @@
+package com.URLShortener.Authentication.Dependency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Probes every dependency at once, one virtual thread each, for
+ * {@code GET /healthz/deep}.
+ *
+ * Each probe is bounded by {@code timeout-ms} and guarded by its own
+ * {@link CircuitBreaker}, so a dependency that is down costs nothing until
+ * its circuit lets a trial probe through. Latencies go to a
+ * {@code healthcheck.dependency.latency} timer per dependency, whose
+ * percentiles cover the last {@code latency-window-ms}; a rolling p95 above
+ * {@code slow-threshold-ms} marks the dependency slow. Slow or failing
+ * dependencies make the report DEGRADED instead of taking the service down.
+ *
+ * A report is reused for {@code cache-ms}, so concurrent callers share one
+ * round of probes rather than multiplying the load on the dependencies.
+ */
+public class DeepHealthService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeepHealthService.class);
+
+    private record Monitored(DependencyProbe probe, CircuitBreaker circuit, Timer up, Timer failed) {
+    }
+
+    private final List<Monitored> dependencies = new ArrayList<>();
+    private final DeepHealthProperties properties;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private DeepHealthReport last;
+    private long lastAt;
+
+    public DeepHealthService(List<DependencyProbe> probes, DeepHealthProperties properties,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (DependencyProbe probe : probes) {
+            dependencies.add(new Monitored(probe,
+                    new CircuitBreaker(properties.getFailureThreshold(), properties.getOpenMs()),
+                    timer(meterRegistry, probe.name(), "up"),
+                    timer(meterRegistry, probe.name(), "failed")));
+        }
+    }
+
+    private Timer timer(MeterRegistry meterRegistry, String dependency, String outcome) {
+        return Timer.builder("healthcheck.dependency.latency")
+                .description("Latency of dependency probes")
+                .tag("dependency", dependency)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .distributionStatisticExpiry(Duration.ofMillis(properties.getLatencyWindowMs()))
+                .register(meterRegistry);
+    }
+
+    public synchronized DeepHealthReport check() {
+        long now = System.currentTimeMillis();
+        if (last != null && now - lastAt < properties.getCacheMs()) {
+            return last;
+        }
+
+        Map<Monitored, Future<Long>> running = new LinkedHashMap<>();
+        for (Monitored dependency : dependencies) {
+            if (dependency.circuit().allow(now)) {
+                running.put(dependency, executor.submit(() -> timed(dependency.probe())));
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getTimeoutMs());
+        Map<String, DependencyHealth> results = new LinkedHashMap<>();
+        for (Monitored dependency : dependencies) {
+            Future<Long> probe = running.get(dependency);
+            results.put(dependency.probe().name(),
+                    probe == null ? skipped(dependency) : await(dependency, probe, deadline));
+        }
+
+        last = new DeepHealthReport(overall(results), Instant.ofEpochMilli(now), results);
+        lastAt = now;
+        return last;
+    }
+
+    private static long timed(DependencyProbe probe) throws Exception {
+        long start = System.nanoTime();
+        probe.check();
+        return System.nanoTime() - start;
+    }
+
+    private DependencyHealth await(Monitored dependency, Future<Long> probe, long deadline) {
+        long start = deadline - TimeUnit.MILLISECONDS.toNanos(properties.getTimeoutMs());
+        String error;
+        try {
+            long nanos = probe.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            dependency.up().record(nanos, TimeUnit.NANOSECONDS);
+            dependency.circuit().onSuccess();
+            boolean slow = percentile(dependency.up(), 0.95) > properties.getSlowThresholdMs();
+            return health(dependency, slow ? DependencyHealth.SLOW : DependencyHealth.UP,
+                    TimeUnit.NANOSECONDS.toMillis(nanos), null);
+        } catch (TimeoutException e) {
+            probe.cancel(true);
+            error = "Timed out after " + properties.getTimeoutMs() + " ms";
+        } catch (ExecutionException e) {
+            error = e.getCause().getMessage() != null ? e.getCause().getMessage() : e.getCause().toString();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            probe.cancel(true);
+            error = "Interrupted";
+        }
+
+        long nanos = System.nanoTime() - start;
+        dependency.failed().record(nanos, TimeUnit.NANOSECONDS);
+        dependency.circuit().onFailure(System.currentTimeMillis());
+        logger.warn("Dependency {} is down: {}", dependency.probe().name(), error);
+        return health(dependency, DependencyHealth.DOWN, TimeUnit.NANOSECONDS.toMillis(nanos), error);
+    }
+
+    private DependencyHealth skipped(Monitored dependency) {
+        return health(dependency, DependencyHealth.DOWN, null, "Circuit open, not probed");
+    }
+
+    private DependencyHealth health(Monitored dependency, String status, Long latencyMs, String error) {
+        return new DependencyHealth(status, dependency.probe().critical(), latencyMs,
+                percentile(dependency.up(), 0.5), percentile(dependency.up(), 0.95),
+                percentile(dependency.up(), 0.99), dependency.circuit().state().name(), error);
+    }
+
+    private static double percentile(Timer timer, double percentile) {
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return 0;
+    }
+
+    private static String overall(Map<String, DependencyHealth> results) {
+        String status = DeepHealthReport.UP;
+        for (DependencyHealth health : results.values()) {
+            if (health.status().equals(DependencyHealth.DOWN) && health.critical()) {
+                return DeepHealthReport.DOWN;
+            }
+            if (!health.status().equals(DependencyHealth.UP)) {
+                status = DeepHealthReport.DEGRADED;
+            }
+        }
+        return status;
+    }
+
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,14 @@
+package com.URLShortener.Authentication.Dependency;
+
+/**
+ * One dependency in a {@link DeepHealthReport}. Latencies are in
+ * milliseconds; the percentiles cover the rolling window, {@code latencyMs}
+ * this probe alone and is null if the probe was skipped.
+ */
+public record DependencyHealth(String status, boolean critical, Long latencyMs, double p50Ms, double p95Ms,
+        double p99Ms, String circuit, String error) {
+
+    public static final String UP = "UP";
+    public static final String SLOW = "SLOW";
+    public static final String DOWN = "DOWN";
+}
@@ -0,0 +1,12 @@
+package com.URLShortener.Authentication.Dependency;
+
+/** One check of a dependency; returns normally if it is healthy and throws otherwise. */
+public interface DependencyProbe {
+
+    String name();
+
+    /** A critical dependency being down makes the whole service down rather than degraded. */
+    boolean critical();
+
+    void check() throws Exception;
+}
@@ -0,0 +1,47 @@
+package com.URLShortener.Authentication.Dependency;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/** A GET whose status has to be one of the expected ones; redirects are not followed. */
+public class HttpProbe implements DependencyProbe {
+
+    private final String name;
+    private final DeepHealthProperties.Http target;
+    private final HttpClient client;
+    private final HttpRequest request;
+
+    public HttpProbe(String name, DeepHealthProperties.Http target, HttpClient client, Duration timeout) {
+        this.name = name;
+        this.target = target;
+        this.client = client;
+        this.request = HttpRequest.newBuilder(URI.create(target.getUrl()))
+                .timeout(timeout)
+                .GET()
+                .build();
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public boolean critical() {
+        return target.isCritical();
+    }
+
+    @Override
+    public void check() throws Exception {
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        boolean expected = target.getStatuses().isEmpty()
+                ? status >= 200 && status < 300
+                : target.getStatuses().contains(status);
+        if (!expected) {
+            throw new IllegalStateException("HTTP " + status);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.URLShortener.Authentication.Dependency;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sends PING over a fresh connection and expects PONG. Spoken directly in
+ * RESP, since this service has no Redis client of its own.
+ */
+public class RedisProbe implements DependencyProbe {
+
+    private final DeepHealthProperties.Redis redis;
+    private final int timeoutMillis;
+
+    public RedisProbe(DeepHealthProperties.Redis redis, int timeoutMillis) {
+        this.redis = redis;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public String name() {
+        return "redis";
+    }
+
+    @Override
+    public boolean critical() {
+        return false;
+    }
+
+    @Override
+    public void check() throws Exception {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(redis.getHost(), redis.getPort()), timeoutMillis);
+            socket.setSoTimeout(timeoutMillis);
+            OutputStream out = socket.getOutputStream();
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+            if (redis.getPassword() != null && !redis.getPassword().isEmpty()) {
+                out.write(command("AUTH", redis.getPassword()));
+                expect(in.readLine(), "+OK");
+            }
+            out.write(command("PING"));
+            expect(in.readLine(), "+PONG");
+        }
+    }
+
+    private static byte[] command(String... parts) {
+        StringBuilder command = new StringBuilder("*").append(parts.length).append("\r\n");
+        for (String part : parts) {
+            command.append('$').append(part.getBytes(StandardCharsets.UTF_8).length).append("\r\n")
+                    .append(part).append("\r\n");
+        }
+        return command.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void expect(String reply, String expected) {
+        if (!expected.equals(reply)) {
+            throw new IllegalStateException("Unexpected reply: " + reply);
+        }
+    }
+}
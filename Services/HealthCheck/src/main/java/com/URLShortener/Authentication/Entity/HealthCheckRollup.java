@@ -0,0 +1,54 @@
+package com.URLShortener.Authentication.Entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/** Probe totals of one instance over one rollup window. */
+@Entity
+@Table(name = "health_check_rollup", indexes = @Index(name = "idx_health_check_rollup_window_end", columnList = "windowEnd"))
+public class HealthCheckRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(nullable = false)
+    private String instance;
+
+    @Column(nullable = false)
+    private LocalDateTime windowStart;
+
+    @Column(nullable = false)
+    private LocalDateTime windowEnd;
+
+    @Column(nullable = false)
+    private int probes;
+
+    @Column(nullable = false)
+    private int failures;
+
+    @Column(nullable = false)
+    private long minLatencyMillis;
+
+    @Column(nullable = false)
+    private long avgLatencyMillis;
+
+    @Column(nullable = false)
+    private long maxLatencyMillis;
+
+    protected HealthCheckRollup() {
+    }
+
+    public HealthCheckRollup(String instance, LocalDateTime windowStart, LocalDateTime windowEnd, int probes,
+            int failures, long minLatencyMillis, long avgLatencyMillis, long maxLatencyMillis) {
+        this.instance = instance;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.probes = probes;
+        this.failures = failures;
+        this.minLatencyMillis = minLatencyMillis;
+        this.avgLatencyMillis = avgLatencyMillis;
+        this.maxLatencyMillis = maxLatencyMillis;
+    }
+}
@@ -0,0 +1,21 @@
+package com.URLShortener.Authentication;
+
+import com.URLShortener.Authentication.Dependency.DeepHealthReport;
+import com.URLShortener.Authentication.Dependency.DependencyHealth;
+import com.URLShortener.Authentication.Entity.HealthCheckRollup;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/** Reflection hints for the native image build. */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.reflection().registerType(HealthCheckRollup.class, MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                DeepHealthReport.class, DependencyHealth.class);
+    }
+}
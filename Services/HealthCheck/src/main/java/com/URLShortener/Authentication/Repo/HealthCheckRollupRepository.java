@@ -0,0 +1,19 @@
+package com.URLShortener.Authentication.Repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.URLShortener.Authentication.Entity.HealthCheckRollup;
+
+import java.time.LocalDateTime;
+
+public interface HealthCheckRollupRepository extends JpaRepository<HealthCheckRollup, Long> {
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM HealthCheckRollup r WHERE r.windowEnd < :before")
+    int deleteByWindowEndBefore(@Param("before") LocalDateTime before);
+}
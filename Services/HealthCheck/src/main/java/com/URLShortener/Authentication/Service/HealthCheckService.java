@@ -1,60 +1,125 @@
 package com.URLShortener.Authentication.Service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import com.URLShortener.Authentication.TableNotFoundException;
-import com.URLShortener.Authentication.Entity.HealthCheck;
-import com.URLShortener.Authentication.Repo.HealthCheckRepository;
+import com.URLShortener.Authentication.Entity.HealthCheckRollup;
+import com.URLShortener.Authentication.Repo.HealthCheckRollupRepository;
 
+import jakarta.annotation.PostConstruct;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Probes the database in the background and keeps the latest result, so
+ * {@code GET /healthz} answers from memory instead of querying (and writing
+ * to) the primary on every Kubernetes probe.
+ *
+ * Every {@code healthcheck.probe.interval-ms} one {@code SELECT 1} is run and
+ * timed. The results go to a fixed-size {@link ProbeHistory}; once per
+ * {@code healthcheck.probe.rollup-interval-ms} its totals are written as one
+ * {@link HealthCheckRollup} row, and rows older than the retention are
+ * deleted.
+ */
 @Service
 public class HealthCheckService {
 
-    private final String HEALTH_CHECK_TABLE = "health_check";
+    private static final Logger logger = LoggerFactory.getLogger(HealthCheckService.class);
 
     @Autowired
-    private HealthCheckRepository healthCheckRepository;
+    private JdbcTemplate jdbcTemplate;
 
     @Autowired
-    private JdbcTemplate jdbcTemplate;
+    private HealthCheckRollupRepository rollupRepository;
 
-    public boolean isDatabaseConnected() throws TableNotFoundException {
-        try {
-            if (!tableExists(HEALTH_CHECK_TABLE)) {
-                throw new TableNotFoundException("Table '" + HEALTH_CHECK_TABLE + "' not found in database.");
-            }
+    @Value("${healthcheck.probe.max-age-ms:15000}")
+    private long maxAgeMillis;
+
+    @Value("${healthcheck.probe.history-size:720}")
+    private int historySize;
+
+    @Value("${healthcheck.probe.rollup-retention-days:30}")
+    private long rollupRetentionDays;
 
+    @Value("${HOSTNAME:local}")
+    private String instance;
+
+    private ProbeHistory history;
+
+    private volatile HealthSnapshot snapshot = HealthSnapshot.NOT_YET_PROBED;
+
+    @PostConstruct
+    public void init() {
+        history = new ProbeHistory(historySize);
+    }
+
+    /** True if the latest probe passed and is recent enough; no I/O. */
+    public boolean isDatabaseConnected() {
+        return snapshot.isUp(System.currentTimeMillis(), maxAgeMillis);
+    }
+
+    public HealthSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public List<HealthSnapshot> recentProbes() {
+        return history.recent();
+    }
+
+    @Scheduled(fixedDelayString = "${healthcheck.probe.interval-ms:5000}")
+    public void probe() {
+        long start = System.nanoTime();
+        String error = null;
+        try {
             jdbcTemplate.queryForObject("SELECT 1", Integer.class);
-            return true;
-        } catch (TableNotFoundException e) {
-            throw e;
         } catch (DataAccessException e) {
-            return false;
+            error = e.getMessage();
         }
+        HealthSnapshot probe = new HealthSnapshot(error == null, System.currentTimeMillis(),
+                (System.nanoTime() - start) / 1_000_000, error);
+
+        if (probe.up() != snapshot.up() && snapshot != HealthSnapshot.NOT_YET_PROBED) {
+            logger.warn("Database probe is now {}{}", probe.up() ? "UP" : "DOWN",
+                    probe.up() ? "" : ": " + error);
+        }
+        snapshot = probe;
+        history.record(probe);
     }
 
-    private boolean tableExists(String tableName) {
+    @Scheduled(initialDelayString = "${healthcheck.probe.rollup-interval-ms:300000}",
+            fixedRateString = "${healthcheck.probe.rollup-interval-ms:300000}")
+    public void rollUp() {
+        ProbeHistory.Window window = history.closeWindow();
+        if (window == null) {
+            return;
+        }
         try {
-            jdbcTemplate.execute("SELECT 1 FROM " + tableName + " LIMIT 1");
-            return true;
+            rollupRepository.save(new HealthCheckRollup(instance, toDateTime(window.startedAt()),
+                    toDateTime(window.endedAt()), window.probes(), window.failures(), window.minLatencyMillis(),
+                    window.totalLatencyMillis() / window.probes(), window.maxLatencyMillis()));
         } catch (DataAccessException e) {
-            return false;
+            // Written together with the next window instead
+            history.reopen(window);
+            logger.warn("Could not write the probe rollup: {}", e.getMessage());
+            return;
         }
-    }
-
-    public boolean logHealthCheck() {
         try {
-            HealthCheck healthCheck = new HealthCheck();
-            healthCheckRepository.save(healthCheck);
-            return true;
-        } catch (Exception e) {
-            return false;
+            rollupRepository.deleteByWindowEndBefore(LocalDateTime.now().minusDays(rollupRetentionDays));
+        } catch (DataAccessException e) {
+            logger.warn("Could not delete old probe rollups: {}", e.getMessage());
         }
     }
 
-    public void insertHealthCheck() {
-        logHealthCheck();
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
     }
 }
@@ -0,0 +1,15 @@
+package com.URLShortener.Authentication.Service;
+
+/**
+ * Result of the latest background probe. {@code checkedAt} is in epoch
+ * milliseconds; a snapshot older than the configured maximum age counts as
+ * down, so a prober stuck on a hung connection does not keep reporting UP.
+ */
+public record HealthSnapshot(boolean up, long checkedAt, long latencyMillis, String error) {
+
+    public static final HealthSnapshot NOT_YET_PROBED = new HealthSnapshot(false, 0, 0, "Not probed yet");
+
+    public boolean isUp(long now, long maxAgeMillis) {
+        return up && now - checkedAt <= maxAgeMillis;
+    }
+}
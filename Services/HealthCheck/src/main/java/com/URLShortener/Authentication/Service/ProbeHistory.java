@@ -0,0 +1,66 @@
+package com.URLShortener.Authentication.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The last {@code capacity} probe results, oldest overwritten first, plus
+ * running totals for the current rollup window. Memory use is fixed however
+ * long the service runs; the totals are persisted once per window by
+ * {@link HealthCheckService}.
+ */
+public class ProbeHistory {
+
+    /** Totals over one rollup window. */
+    public record Window(long startedAt, long endedAt, int probes, int failures, long minLatencyMillis,
+            long maxLatencyMillis, long totalLatencyMillis) {
+
+        Window merge(Window later) {
+            return new Window(startedAt, later.endedAt, probes + later.probes, failures + later.failures,
+                    Math.min(minLatencyMillis, later.minLatencyMillis),
+                    Math.max(maxLatencyMillis, later.maxLatencyMillis),
+                    totalLatencyMillis + later.totalLatencyMillis);
+        }
+    }
+
+    private final HealthSnapshot[] ring;
+    private int next;
+    private int size;
+
+    private Window window;
+
+    public ProbeHistory(int capacity) {
+        this.ring = new HealthSnapshot[capacity];
+    }
+
+    public synchronized void record(HealthSnapshot probe) {
+        ring[next] = probe;
+        next = (next + 1) % ring.length;
+        size = Math.min(size + 1, ring.length);
+
+        Window one = new Window(probe.checkedAt(), probe.checkedAt(), 1, probe.up() ? 0 : 1,
+                probe.latencyMillis(), probe.latencyMillis(), probe.latencyMillis());
+        window = window == null ? one : window.merge(one);
+    }
+
+    /** The kept results, oldest first. */
+    public synchronized List<HealthSnapshot> recent() {
+        List<HealthSnapshot> recent = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            recent.add(ring[(next - size + i + ring.length) % ring.length]);
+        }
+        return recent;
+    }
+
+    /** Ends the current window and returns its totals, or null if nothing was probed in it. */
+    public synchronized Window closeWindow() {
+        Window closed = window;
+        window = null;
+        return closed;
+    }
+
+    /** Puts back a closed window that could not be persisted, to be written with the next one. */
+    public synchronized void reopen(Window closed) {
+        window = window == null ? closed : closed.merge(window);
+    }
+}
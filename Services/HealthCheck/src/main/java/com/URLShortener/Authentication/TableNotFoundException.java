@@ -1,7 +0,0 @@
-package com.URLShortener.Authentication;
-
-public class TableNotFoundException extends RuntimeException {
-    public TableNotFoundException(String message) {
-        super(message);
-    }
-}
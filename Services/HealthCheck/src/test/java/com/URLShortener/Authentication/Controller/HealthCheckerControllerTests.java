@@ -0,0 +1,52 @@
+package com.URLShortener.Authentication.Controller;
+
+import com.URLShortener.Authentication.Dependency.DeepHealthReport;
+import com.URLShortener.Authentication.Dependency.DeepHealthService;
+import com.URLShortener.Authentication.Dependency.DependencyHealth;
+import com.URLShortener.Authentication.Service.HealthCheckService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/** Status codes of {@code /healthz/deep}: only a DOWN report is a 503. */
+class HealthCheckerControllerTests {
+
+    private final DeepHealthService deepHealthService = mock(DeepHealthService.class);
+    private final HealthCheckerController controller = new HealthCheckerController(mock(HealthCheckService.class),
+            deepHealthService);
+
+    private ResponseEntity<DeepHealthReport> answer(String status) {
+        DeepHealthReport report = new DeepHealthReport(status, Instant.now(), Map.of("redis",
+                new DependencyHealth(DependencyHealth.UP, false, 1L, 1, 1, 1, "CLOSED", null)));
+        when(deepHealthService.check()).thenReturn(report);
+        ResponseEntity<DeepHealthReport> response = controller.checkDependencies();
+        assertSame(report, response.getBody());
+        return response;
+    }
+
+    @Test
+    void upIsOk() {
+        assertEquals(HttpStatus.OK, answer(DeepHealthReport.UP).getStatusCode());
+    }
+
+    @Test
+    void degradedIsStillOk() {
+        assertEquals(HttpStatus.OK, answer(DeepHealthReport.DEGRADED).getStatusCode());
+    }
+
+    @Test
+    void downIsServiceUnavailable() {
+        ResponseEntity<DeepHealthReport> response = answer(DeepHealthReport.DOWN);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("no-cache, no-store, must-revalidate", response.getHeaders().getCacheControl());
+    }
+}
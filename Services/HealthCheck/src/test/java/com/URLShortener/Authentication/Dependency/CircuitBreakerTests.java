@@ -0,0 +1,79 @@
+package com.URLShortener.Authentication.Dependency;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTests {
+
+    private final CircuitBreaker circuit = new CircuitBreaker(3, 1_000);
+
+    @Test
+    void opensAfterTheThresholdOfConsecutiveFailures() {
+        circuit.onFailure(0);
+        circuit.onFailure(0);
+        assertTrue(circuit.allow(0));
+        assertEquals(CircuitBreaker.State.CLOSED, circuit.state());
+
+        circuit.onFailure(100);
+        assertEquals(CircuitBreaker.State.OPEN, circuit.state());
+        assertFalse(circuit.allow(100));
+        assertFalse(circuit.allow(1_099));
+    }
+
+    @Test
+    void aSuccessResetsTheFailureCount() {
+        circuit.onFailure(0);
+        circuit.onFailure(0);
+        circuit.onSuccess();
+        circuit.onFailure(0);
+        circuit.onFailure(0);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuit.state());
+    }
+
+    @Test
+    void letsOneTrialThroughOnceTheOpenTimeIsUp() {
+        openAt(100);
+
+        assertTrue(circuit.allow(1_100));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuit.state());
+        // Only the one trial; others wait for its outcome
+        assertFalse(circuit.allow(1_100));
+    }
+
+    @Test
+    void aSuccessfulTrialClosesTheCircuit() {
+        openAt(100);
+        circuit.allow(1_100);
+
+        circuit.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuit.state());
+        assertTrue(circuit.allow(1_101));
+        // The failure count starts over
+        circuit.onFailure(1_200);
+        assertEquals(CircuitBreaker.State.CLOSED, circuit.state());
+    }
+
+    @Test
+    void aFailedTrialReopensForAnotherFullPeriod() {
+        openAt(100);
+        circuit.allow(1_100);
+
+        circuit.onFailure(1_150);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuit.state());
+        assertFalse(circuit.allow(2_149));
+        assertTrue(circuit.allow(2_150));
+    }
+
+    private void openAt(long now) {
+        for (int i = 0; i < 3; i++) {
+            circuit.onFailure(now);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuit.state());
+    }
+}
@@ -0,0 +1,226 @@
+package com.URLShortener.Authentication.Dependency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The aggregator over stub probes that answer, fail, answer slowly or hang
+ * until interrupted.
+ */
+class DeepHealthServiceTests {
+
+    private static final long TIMEOUT_MS = 200;
+
+    private DeepHealthService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.close();
+        }
+    }
+
+    /** A probe whose check runs the given behaviour and counts its calls. */
+    private static class StubProbe implements DependencyProbe {
+
+        interface Behaviour {
+            void run() throws Exception;
+        }
+
+        private final String name;
+        private final boolean critical;
+        private volatile Behaviour behaviour;
+        final AtomicInteger calls = new AtomicInteger();
+
+        StubProbe(String name, boolean critical, Behaviour behaviour) {
+            this.name = name;
+            this.critical = critical;
+            this.behaviour = behaviour;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public boolean critical() {
+            return critical;
+        }
+
+        @Override
+        public void check() throws Exception {
+            calls.incrementAndGet();
+            behaviour.run();
+        }
+    }
+
+    private static void healthy() {
+    }
+
+    private static void failing() {
+        throw new IllegalStateException("Connection refused");
+    }
+
+    private static void hanging() throws InterruptedException {
+        new CountDownLatch(1).await();
+    }
+
+    private DeepHealthService service(DeepHealthProperties properties, DependencyProbe... probes) {
+        service = new DeepHealthService(List.of(probes), properties, new SimpleMeterRegistry());
+        return service;
+    }
+
+    private static DeepHealthProperties properties() {
+        DeepHealthProperties properties = new DeepHealthProperties();
+        properties.setTimeoutMs(TIMEOUT_MS);
+        properties.setSlowThresholdMs(50);
+        properties.setCacheMs(0);
+        properties.setFailureThreshold(2);
+        properties.setOpenMs(300);
+        return properties;
+    }
+
+    @Test
+    void everyDependencyUpIsUp() {
+        DeepHealthReport report = service(properties(),
+                new StubProbe("database", true, DeepHealthServiceTests::healthy),
+                new StubProbe("redis", false, DeepHealthServiceTests::healthy)).check();
+
+        assertEquals(DeepHealthReport.UP, report.status());
+        assertEquals(List.of("database", "redis"), List.copyOf(report.dependencies().keySet()));
+        assertEquals(DependencyHealth.UP, report.dependencies().get("redis").status());
+        assertNull(report.dependencies().get("redis").error());
+    }
+
+    @Test
+    void aFailingNonCriticalDependencyDegrades() {
+        DeepHealthReport report = service(properties(),
+                new StubProbe("database", true, DeepHealthServiceTests::healthy),
+                new StubProbe("redis", false, DeepHealthServiceTests::failing)).check();
+
+        assertEquals(DeepHealthReport.DEGRADED, report.status());
+        assertEquals(DependencyHealth.DOWN, report.dependencies().get("redis").status());
+        assertEquals("Connection refused", report.dependencies().get("redis").error());
+    }
+
+    @Test
+    void aFailingCriticalDependencyIsDown() {
+        DeepHealthReport report = service(properties(),
+                new StubProbe("database", true, DeepHealthServiceTests::failing),
+                new StubProbe("redis", false, DeepHealthServiceTests::healthy)).check();
+
+        assertEquals(DeepHealthReport.DOWN, report.status());
+    }
+
+    @Test
+    void aSlowDependencyDegrades() {
+        DeepHealthReport report = service(properties(),
+                new StubProbe("auth", false, () -> Thread.sleep(100))).check();
+
+        assertEquals(DeepHealthReport.DEGRADED, report.status());
+        DependencyHealth auth = report.dependencies().get("auth");
+        assertEquals(DependencyHealth.SLOW, auth.status());
+        assertTrue(auth.latencyMs() >= 100, auth.latencyMs() + " ms");
+        assertTrue(auth.p95Ms() > 50, auth.p95Ms() + " ms");
+    }
+
+    @Test
+    void hangingProbesAreCutOffAtOneSharedDeadline() {
+        CountDownLatch interrupted = new CountDownLatch(2);
+        StubProbe.Behaviour hangUntilInterrupted = () -> {
+            try {
+                hanging();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        };
+        service(properties(),
+                new StubProbe("auth", false, hangUntilInterrupted),
+                new StubProbe("api", false, hangUntilInterrupted),
+                new StubProbe("database", true, DeepHealthServiceTests::healthy));
+
+        long start = System.nanoTime();
+        DeepHealthReport report = service.check();
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Both hang concurrently, so the report takes one timeout, not two
+        assertTrue(tookMs >= TIMEOUT_MS && tookMs < TIMEOUT_MS * 2, tookMs + " ms");
+        assertEquals(DeepHealthReport.DEGRADED, report.status());
+        assertEquals("Timed out after " + TIMEOUT_MS + " ms", report.dependencies().get("auth").error());
+        assertEquals(DependencyHealth.UP, report.dependencies().get("database").status());
+        assertTrue(await(interrupted), "timed-out probes are interrupted");
+    }
+
+    @Test
+    void aFailingDependencyIsSkippedWhileItsCircuitIsOpenAndRecoversThroughATrial() throws Exception {
+        StubProbe redis = new StubProbe("redis", false, DeepHealthServiceTests::failing);
+        service(properties(), redis);
+
+        assertEquals("CLOSED", service.check().dependencies().get("redis").circuit());
+        assertEquals("OPEN", service.check().dependencies().get("redis").circuit());
+        DeepHealthReport open = service.check();
+        assertEquals(2, redis.calls.get());
+        assertEquals(DependencyHealth.DOWN, open.dependencies().get("redis").status());
+        assertEquals("Circuit open, not probed", open.dependencies().get("redis").error());
+        assertNull(open.dependencies().get("redis").latencyMs());
+
+        redis.behaviour = DeepHealthServiceTests::healthy;
+        Thread.sleep(350);
+        DeepHealthReport recovered = service.check();
+
+        assertEquals(3, redis.calls.get());
+        assertEquals("CLOSED", recovered.dependencies().get("redis").circuit());
+        assertEquals(DeepHealthReport.UP, recovered.status());
+    }
+
+    @Test
+    void aFailedTrialReopensTheCircuit() throws Exception {
+        StubProbe redis = new StubProbe("redis", false, DeepHealthServiceTests::failing);
+        service(properties(), redis);
+        service.check();
+        service.check();
+
+        Thread.sleep(350);
+        DeepHealthReport trial = service.check();
+        DeepHealthReport after = service.check();
+
+        assertEquals(3, redis.calls.get());
+        assertEquals("OPEN", trial.dependencies().get("redis").circuit());
+        assertEquals("Circuit open, not probed", after.dependencies().get("redis").error());
+    }
+
+    @Test
+    void reportsAreSharedWithinTheCacheTime() {
+        DeepHealthProperties properties = properties();
+        properties.setCacheMs(60_000);
+        StubProbe database = new StubProbe("database", true, DeepHealthServiceTests::healthy);
+        service(properties, database);
+
+        DeepHealthReport first = service.check();
+
+        assertSame(first, service.check());
+        assertEquals(1, database.calls.get());
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
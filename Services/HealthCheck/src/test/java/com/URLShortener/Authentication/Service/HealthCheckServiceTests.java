@@ -0,0 +1,112 @@
+package com.URLShortener.Authentication.Service;
+
+import com.URLShortener.Authentication.Entity.HealthCheckRollup;
+import com.URLShortener.Authentication.Repo.HealthCheckRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * The prober against a mocked database: {@code isDatabaseConnected} answers
+ * from the latest snapshot and stops trusting it once it is too old.
+ */
+class HealthCheckServiceTests {
+
+    private static final long MAX_AGE_MS = 15_000;
+
+    private JdbcTemplate jdbcTemplate;
+    private HealthCheckRollupRepository rollupRepository;
+    private HealthCheckService healthCheckService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        rollupRepository = mock(HealthCheckRollupRepository.class);
+        healthCheckService = new HealthCheckService();
+        ReflectionTestUtils.setField(healthCheckService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(healthCheckService, "rollupRepository", rollupRepository);
+        ReflectionTestUtils.setField(healthCheckService, "maxAgeMillis", MAX_AGE_MS);
+        ReflectionTestUtils.setField(healthCheckService, "historySize", 10);
+        ReflectionTestUtils.setField(healthCheckService, "rollupRetentionDays", 30L);
+        ReflectionTestUtils.setField(healthCheckService, "instance", "test");
+        healthCheckService.init();
+    }
+
+    @Test
+    void downUntilTheFirstProbe() {
+        assertFalse(healthCheckService.isDatabaseConnected());
+    }
+
+    @Test
+    void upAfterAPassingProbeWithoutQueryingAgain() {
+        when(jdbcTemplate.queryForObject("SELECT 1", Integer.class)).thenReturn(1);
+        healthCheckService.probe();
+
+        assertTrue(healthCheckService.isDatabaseConnected());
+        assertTrue(healthCheckService.isDatabaseConnected());
+        verify(jdbcTemplate, times(1)).queryForObject("SELECT 1", Integer.class);
+    }
+
+    @Test
+    void downAfterAFailingProbe() {
+        when(jdbcTemplate.queryForObject("SELECT 1", Integer.class))
+                .thenThrow(new CannotGetJdbcConnectionException("Connection refused"));
+        healthCheckService.probe();
+
+        assertFalse(healthCheckService.isDatabaseConnected());
+        assertEquals("Connection refused", healthCheckService.snapshot().error());
+    }
+
+    @Test
+    void aStaleSnapshotCountsAsDown() {
+        // What a prober stuck on a hung connection leaves behind: the last result was UP
+        long checkedAt = System.currentTimeMillis() - MAX_AGE_MS - 1_000;
+        ReflectionTestUtils.setField(healthCheckService, "snapshot", new HealthSnapshot(true, checkedAt, 3, null));
+
+        assertFalse(healthCheckService.isDatabaseConnected());
+
+        ReflectionTestUtils.setField(healthCheckService, "snapshot",
+                new HealthSnapshot(true, System.currentTimeMillis() - MAX_AGE_MS + 1_000, 3, null));
+        assertTrue(healthCheckService.isDatabaseConnected());
+    }
+
+    @Test
+    void aRollupThatCannotBeWrittenIsWrittenWithTheNextOne() {
+        when(jdbcTemplate.queryForObject("SELECT 1", Integer.class)).thenReturn(1);
+        when(rollupRepository.save(any(HealthCheckRollup.class)))
+                .thenThrow(new DataAccessResourceFailureException("primary is read-only"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        healthCheckService.probe();
+        healthCheckService.probe();
+        healthCheckService.rollUp();
+        healthCheckService.probe();
+        healthCheckService.rollUp();
+
+        ArgumentCaptor<HealthCheckRollup> saved = ArgumentCaptor.forClass(HealthCheckRollup.class);
+        verify(rollupRepository, times(2)).save(saved.capture());
+        assertEquals(3, ReflectionTestUtils.getField(saved.getValue(), "probes"));
+        verify(rollupRepository, times(1)).deleteByWindowEndBefore(any());
+    }
+
+    @Test
+    void nothingIsWrittenForAWindowWithoutProbes() {
+        healthCheckService.rollUp();
+
+        verifyNoInteractions(rollupRepository);
+    }
+}
@@ -0,0 +1,77 @@
+package com.URLShortener.Authentication.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProbeHistoryTests {
+
+    private static HealthSnapshot probe(long checkedAt, boolean up, long latencyMillis) {
+        return new HealthSnapshot(up, checkedAt, latencyMillis, up ? null : "down");
+    }
+
+    private static List<Long> checkedAt(List<HealthSnapshot> probes) {
+        return probes.stream().map(HealthSnapshot::checkedAt).toList();
+    }
+
+    @Test
+    void recentIsOldestFirstBeforeTheRingFills() {
+        ProbeHistory history = new ProbeHistory(4);
+        history.record(probe(1, true, 1));
+        history.record(probe(2, true, 1));
+
+        assertEquals(List.of(1L, 2L), checkedAt(history.recent()));
+    }
+
+    @Test
+    void aFullRingOverwritesTheOldestResults() {
+        ProbeHistory history = new ProbeHistory(3);
+        for (long t = 1; t <= 7; t++) {
+            history.record(probe(t, true, 1));
+        }
+
+        assertEquals(List.of(5L, 6L, 7L), checkedAt(history.recent()));
+    }
+
+    @Test
+    void aWindowTotalsEveryProbeSinceTheLastClose() {
+        ProbeHistory history = new ProbeHistory(2);
+        history.record(probe(100, true, 4));
+        history.record(probe(200, false, 30));
+        history.record(probe(300, true, 2));
+
+        // The window counts probes the ring has already overwritten
+        assertEquals(new ProbeHistory.Window(100, 300, 3, 1, 2, 30, 36), history.closeWindow());
+        assertNull(history.closeWindow());
+
+        history.record(probe(400, true, 5));
+        assertEquals(new ProbeHistory.Window(400, 400, 1, 0, 5, 5, 5), history.closeWindow());
+    }
+
+    @Test
+    void aReopenedWindowIsMergedIntoTheNextOne() {
+        ProbeHistory history = new ProbeHistory(8);
+        history.record(probe(100, true, 4));
+        history.record(probe(200, false, 30));
+        ProbeHistory.Window unwritten = history.closeWindow();
+
+        history.record(probe(300, true, 2));
+        history.reopen(unwritten);
+
+        assertEquals(new ProbeHistory.Window(100, 300, 3, 1, 2, 30, 36), history.closeWindow());
+    }
+
+    @Test
+    void reopeningWithNothingNewRestoresTheWindow() {
+        ProbeHistory history = new ProbeHistory(8);
+        history.record(probe(100, true, 4));
+        ProbeHistory.Window unwritten = history.closeWindow();
+
+        history.reopen(unwritten);
+
+        assertEquals(unwritten, history.closeWindow());
+    }
+}
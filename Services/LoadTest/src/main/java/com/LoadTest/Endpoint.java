@@ -0,0 +1,81 @@
+package com.LoadTest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/** The request types the generator can send, and the status each should get. */
+public enum Endpoint {
+
+    REDIRECT(302) {
+        @Override
+        HttpRequest.Builder request(SeedData seed, RandomGenerator random) {
+            return HttpRequest.newBuilder(URI.create(seed.apiUrl() + "/" + seed.popularShortCode(random))).GET();
+        }
+    },
+    CREATE(201) {
+        @Override
+        HttpRequest.Builder request(SeedData seed, RandomGenerator random) {
+            String body = "{\"originalUrl\":\"" + SeedData.randomOriginalUrl(random) + "\"}";
+            return authorized(URI.create(seed.apiUrl() + "/api/urls"), seed, random)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+    },
+    LIST(200) {
+        @Override
+        HttpRequest.Builder request(SeedData seed, RandomGenerator random) {
+            return authorized(URI.create(seed.apiUrl() + "/api/urls?page=0&size=10"), seed, random).GET();
+        }
+    },
+    STATS(200) {
+        @Override
+        HttpRequest.Builder request(SeedData seed, RandomGenerator random) {
+            return authorized(URI.create(seed.apiUrl() + "/api/stats"), seed, random).GET();
+        }
+    },
+    LOGIN(200) {
+        @Override
+        HttpRequest.Builder request(SeedData seed, RandomGenerator random) {
+            SeedData.SeedUser user = seed.randomUser(random);
+            String body = "{\"username\":\"" + user.username() + "\",\"password\":\"" + user.password() + "\"}";
+            return HttpRequest.newBuilder(URI.create(seed.authUrl() + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+    },
+    VALIDATE(200) {
+        @Override
+        HttpRequest.Builder request(SeedData seed, RandomGenerator random) {
+            String token = URLEncoder.encode(seed.randomUser(random).accessToken(), StandardCharsets.UTF_8);
+            return HttpRequest.newBuilder(URI.create(seed.authUrl() + "/api/auth/validate?token=" + token)).GET();
+        }
+    };
+
+    private final int expectedStatus;
+
+    Endpoint(int expectedStatus) {
+        this.expectedStatus = expectedStatus;
+    }
+
+    abstract HttpRequest.Builder request(SeedData seed, RandomGenerator random);
+
+    public HttpRequest build(SeedData seed, RandomGenerator random, Duration timeout) {
+        return request(seed, random).timeout(timeout).build();
+    }
+
+    public boolean isSuccess(int status) {
+        return status == expectedStatus;
+    }
+
+    public String key() {
+        return name().toLowerCase();
+    }
+
+    private static HttpRequest.Builder authorized(URI uri, SeedData seed, RandomGenerator random) {
+        return HttpRequest.newBuilder(uri).header("Authorization", "Bearer " + seed.randomUser(random).accessToken());
+    }
+}
@@ -0,0 +1,68 @@
+package com.LoadTest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Latencies and outcomes of one endpoint during one run. Safe to record from many threads. */
+public class EndpointStats {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Histogram responseTime = new ConcurrentHistogram(3);
+    private final Histogram serviceTime = new ConcurrentHistogram(3);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public void record(long scheduledNanos, long sentNanos, long doneNanos, boolean success) {
+        requests.increment();
+        if (!success) {
+            errors.increment();
+        }
+        responseTime.recordValue(Math.max(0, doneNanos - scheduledNanos));
+        serviceTime.recordValue(Math.max(0, doneNanos - sentNanos));
+    }
+
+    public void recordDropped() {
+        requests.increment();
+        dropped.increment();
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public double errorRate() {
+        long total = requests.sum();
+        return total == 0 ? 0 : (double) (errors.sum() + dropped.sum()) / total;
+    }
+
+    public double p99Millis() {
+        return responseTime.getValueAtPercentile(99) / NANOS_PER_MILLI;
+    }
+
+    public LoadTestReport.EndpointResult toResult(double seconds) {
+        long succeeded = requests.sum() - errors.sum() - dropped.sum();
+        return new LoadTestReport.EndpointResult(requests.sum(), errors.sum(), dropped.sum(),
+                seconds > 0 ? succeeded / seconds : 0,
+                summarize(responseTime), summarize(serviceTime));
+    }
+
+    private static LoadTestReport.LatencySummary summarize(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return new LoadTestReport.LatencySummary(
+                histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(90) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                histogram.getMaxValue() / NANOS_PER_MILLI,
+                histogram.getMean() / NANOS_PER_MILLI,
+                Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+    }
+}
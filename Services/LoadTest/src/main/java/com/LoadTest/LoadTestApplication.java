@@ -0,0 +1,182 @@
+package com.LoadTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots Auth and Api-Service against local stand-ins, seeds them, then:
+ * 1. runs the configured endpoint mix at a fixed arrival rate (after a
+ *    warmup that is not recorded);
+ * 2. for each endpoint on its own, raises the arrival rate step by step
+ *    until p99 or the error rate breaks its target, to find the ceiling.
+ *
+ * A summary is printed and the full report is written as JSON.
+ *
+ * Usage, from Services/LoadTest after building both services:
+ *   mvn compile exec:java -Dexec.args="--rate=500 --duration-seconds=120"
+ */
+public class LoadTestApplication {
+
+    private static final String JWT_SECRET =
+            "loadtest-secret-loadtest-secret-loadtest-secret-loadtest-secret-loadtest";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        String startedAt = Instant.now().toString();
+        Files.createDirectories(options.workDir());
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+
+        try (StandIns standIns = new StandIns(options.h2Port(), options.redisPort());
+                ServiceProcess auth = new ServiceProcess("auth", options.authPort(), options.workDir());
+                ServiceProcess api = new ServiceProcess("api", options.apiPort(), options.workDir())) {
+
+            standIns.start();
+            log("Stand-ins up: H2 on " + options.h2Port() + ", Redis on " + options.redisPort());
+
+            auth.start(options.authJar(), options.serviceJvmArgs(), serviceProperties(standIns, "auth"));
+            api.start(options.apiJar(), options.serviceJvmArgs(), serviceProperties(standIns, "api"));
+            auth.awaitHealthy(client, options.startupTimeoutSeconds());
+            api.awaitHealthy(client, options.startupTimeoutSeconds());
+            log("Services up: auth " + auth.baseUrl() + ", api " + api.baseUrl());
+
+            SeedData seed = new Seeder(client).seed(api.baseUrl(), auth.baseUrl(),
+                    options.users(), options.urlsPerUser(), options.zipfExponent());
+            log("Seeded " + seed.users().size() + " users and " + seed.shortCodes().size() + " links");
+
+            OpenLoadGenerator generator = new OpenLoadGenerator(client, seed,
+                    Duration.ofMillis(options.requestTimeoutMillis()), options.maxInFlight());
+
+            if (options.warmupSeconds() > 0) {
+                log("Warming up for " + options.warmupSeconds() + " s at " + options.rate() + " req/s");
+                generator.run(options.mix(), options.rate(), options.warmupSeconds());
+            }
+
+            log("Mixed run: " + options.rate() + " req/s for " + options.durationSeconds() + " s");
+            Map<Endpoint, EndpointStats> mixedStats = generator.run(options.mix(), options.rate(),
+                    options.durationSeconds());
+            LoadTestReport.RunResult mixed = new LoadTestReport.RunResult(options.rate(),
+                    options.durationSeconds(), OpenLoadGenerator.results(mixedStats, options.durationSeconds()));
+            printRun(mixed);
+
+            Map<String, LoadTestReport.Ceiling> ceilings = new LinkedHashMap<>();
+            if (options.ceilings()) {
+                for (Endpoint endpoint : options.mix().keySet()) {
+                    ceilings.put(endpoint.key(), findCeiling(generator, endpoint, options));
+                }
+            }
+
+            LoadTestReport report = new LoadTestReport(startedAt, gitCommit(), System.getProperty("java.version"),
+                    Runtime.getRuntime().availableProcessors(), options.asMap(), mixed, ceilings);
+            writeReport(report, options.reportFile());
+        }
+    }
+
+    private static Map<String, String> serviceProperties(StandIns standIns, String database) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", standIns.jdbcUrl(database));
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.data.redis.host", "localhost");
+        properties.put("spring.data.redis.port", String.valueOf(standIns.redisPort()));
+        properties.put("jwt.secret", JWT_SECRET);
+        properties.put("jwt.expiration", String.valueOf(Duration.ofHours(12).toMillis()));
+        properties.put("jwt.refreshExpiration", String.valueOf(Duration.ofDays(1).toMillis()));
+        // Logging at the services' development levels would dominate the profile
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+        properties.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        properties.put("logging.level.org.springframework.security", "WARN");
+        properties.put("logging.level.org.springframework.web", "WARN");
+        properties.put("logging.file.name", "");
+        properties.put("spring.devtools.restart.enabled", "false");
+        properties.put("shortener.rate-limit.enabled", "false");
+        // Kept on, so creates pay for the quota check, but high enough for the ceiling search
+        properties.put("shortener.max-urls-per-user", "1000000000");
+        return properties;
+    }
+
+    private static LoadTestReport.Ceiling findCeiling(OpenLoadGenerator generator, Endpoint endpoint,
+            LoadTestOptions options) {
+        List<LoadTestReport.CeilingStep> steps = new ArrayList<>();
+        double sustained = 0;
+        for (double rate = options.ceilingStartRate(); rate <= options.ceilingMaxRate();
+                rate *= options.ceilingStepFactor()) {
+            EndpointStats stats = generator.run(Map.of(endpoint, 1.0), rate, options.ceilingStepSeconds())
+                    .get(endpoint);
+            LoadTestReport.EndpointResult result = stats.toResult(options.ceilingStepSeconds());
+
+            // The achieved-rate check catches a generator that could not keep up
+            boolean ok = stats.p99Millis() <= options.sloP99Millis()
+                    && stats.errorRate() <= options.maxErrorRate()
+                    && result.achievedRate() >= rate * 0.9;
+            steps.add(new LoadTestReport.CeilingStep(rate, result.achievedRate(), stats.p99Millis(),
+                    stats.errorRate(), ok));
+            log(String.format("  %-8s %8.0f req/s -> p99 %8.2f ms, errors %5.2f%% %s", endpoint.key(), rate,
+                    stats.p99Millis(), stats.errorRate() * 100, ok ? "" : "(over target)"));
+            if (!ok) {
+                break;
+            }
+            sustained = rate;
+        }
+        log(String.format("Ceiling for %s: %.0f req/s", endpoint.key(), sustained));
+        return new LoadTestReport.Ceiling(sustained, steps);
+    }
+
+    private static void printRun(LoadTestReport.RunResult run) {
+        log(String.format("%-9s %9s %7s %8s %9s %9s %9s %9s %11s", "endpoint", "requests", "errors", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "svc p99 ms"));
+        run.endpoints().forEach((name, result) -> log(String.format(
+                "%-9s %9d %7d %8.1f %9.2f %9.2f %9.2f %9.2f %11.2f", name, result.requests(),
+                result.errors() + result.dropped(), result.achievedRate(), result.responseTime().p50Ms(),
+                result.responseTime().p90Ms(), result.responseTime().p99Ms(), result.responseTime().p999Ms(),
+                result.serviceTime().p99Ms())));
+    }
+
+    private static void writeReport(LoadTestReport report, Path file) throws Exception {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+        log("Report written to " + file.toAbsolutePath());
+    }
+
+    private static String gitCommit() {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "HEAD").redirectErrorStream(true).start();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(git.getInputStream(), StandardCharsets.UTF_8))) {
+                String line = reader.readLine();
+                return git.waitFor() == 0 ? line : null;
+            }
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static void log(String message) {
+        System.out.println(message);
+    }
+}
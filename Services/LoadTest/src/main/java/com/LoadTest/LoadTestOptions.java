@@ -0,0 +1,168 @@
+package com.LoadTest;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line options, given as {@code --name=value}. Every option has a
+ * default so a bare run works from {@code Services/LoadTest} once the two
+ * service jars are built.
+ */
+public class LoadTestOptions {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    private String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    private int getInt(String name, int defaultValue) {
+        return Integer.parseInt(get(name, String.valueOf(defaultValue)));
+    }
+
+    private double getDouble(String name, double defaultValue) {
+        return Double.parseDouble(get(name, String.valueOf(defaultValue)));
+    }
+
+    // Services under test
+
+    public Path apiJar() {
+        return Path.of(get("api-jar", "../Api-Service/target/Api-Service-0.0.1-SNAPSHOT.jar"));
+    }
+
+    public Path authJar() {
+        return Path.of(get("auth-jar", "../Auth/target/Auth-0.0.1-SNAPSHOT.jar"));
+    }
+
+    public int apiPort() {
+        return getInt("api-port", 18083);
+    }
+
+    public int authPort() {
+        return getInt("auth-port", 18081);
+    }
+
+    public String serviceJvmArgs() {
+        return get("service-jvm-args", "-Xms512m -Xmx512m");
+    }
+
+    public int startupTimeoutSeconds() {
+        return getInt("startup-timeout-seconds", 180);
+    }
+
+    // Stand-ins
+
+    public int h2Port() {
+        return getInt("h2-port", 19092);
+    }
+
+    public int redisPort() {
+        return getInt("redis-port", 16379);
+    }
+
+    // Seed data
+
+    public int users() {
+        return getInt("users", 50);
+    }
+
+    public int urlsPerUser() {
+        return getInt("urls-per-user", 40);
+    }
+
+    // Share of redirects going to the most popular links (Zipf exponent)
+    public double zipfExponent() {
+        return getDouble("zipf-exponent", 1.0);
+    }
+
+    // Mixed run
+
+    public double rate() {
+        return getDouble("rate", 200);
+    }
+
+    public int warmupSeconds() {
+        return getInt("warmup-seconds", 15);
+    }
+
+    public int durationSeconds() {
+        return getInt("duration-seconds", 60);
+    }
+
+    public Map<Endpoint, Double> mix() {
+        Map<Endpoint, Double> mix = new LinkedHashMap<>();
+        for (String part : get("mix", "redirect:80,create:5,list:5,stats:3,login:2,validate:5").split(",")) {
+            String[] weight = part.split(":");
+            mix.put(Endpoint.valueOf(weight[0].trim().toUpperCase()), Double.parseDouble(weight[1].trim()));
+        }
+        return mix;
+    }
+
+    // Throughput ceiling search, run per endpoint after the mixed run
+
+    public boolean ceilings() {
+        return Boolean.parseBoolean(get("ceilings", "true"));
+    }
+
+    public double ceilingStartRate() {
+        return getDouble("ceiling-start-rate", 50);
+    }
+
+    public double ceilingMaxRate() {
+        return getDouble("ceiling-max-rate", 20000);
+    }
+
+    public double ceilingStepFactor() {
+        return getDouble("ceiling-step-factor", 1.5);
+    }
+
+    public int ceilingStepSeconds() {
+        return getInt("ceiling-step-seconds", 10);
+    }
+
+    public double sloP99Millis() {
+        return getDouble("slo-p99-ms", 100);
+    }
+
+    public double maxErrorRate() {
+        return getDouble("max-error-rate", 0.01);
+    }
+
+    // Client
+
+    public int requestTimeoutMillis() {
+        return getInt("timeout-ms", 5000);
+    }
+
+    // Requests still waiting beyond this many are dropped (and counted) so an
+    // overloaded target cannot exhaust the generator's memory
+    public int maxInFlight() {
+        return getInt("max-in-flight", 20000);
+    }
+
+    public Path reportFile() {
+        return Path.of(get("report", "target/loadtest-report.json"));
+    }
+
+    public Path workDir() {
+        return Path.of(get("work-dir", "target/loadtest"));
+    }
+
+    public Map<String, String> asMap() {
+        return Map.copyOf(values);
+    }
+}
@@ -0,0 +1,44 @@
+package com.LoadTest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The JSON artifact of one run. Latencies are in milliseconds; each summary
+ * also carries the full HdrHistogram (compressed, base64) so runs can be
+ * merged or re-analysed later.
+ */
+public record LoadTestReport(
+        String startedAt,
+        String gitCommit,
+        String javaVersion,
+        int availableProcessors,
+        Map<String, String> options,
+        RunResult mixed,
+        Map<String, Ceiling> ceilings) {
+
+    public record LatencySummary(double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs,
+            double meanMs, String histogram) {
+    }
+
+    /**
+     * {@code responseTime} is measured from when the request was scheduled
+     * to be sent, so time spent queued behind a slow response counts
+     * (coordinated omission corrected). {@code serviceTime} is measured from
+     * when it was actually sent, which is what a closed-loop tool reports.
+     */
+    public record EndpointResult(long requests, long errors, long dropped, double achievedRate,
+            LatencySummary responseTime, LatencySummary serviceTime) {
+    }
+
+    public record RunResult(double offeredRate, int durationSeconds, Map<String, EndpointResult> endpoints) {
+    }
+
+    public record CeilingStep(double offeredRate, double achievedRate, double p99Ms, double errorRate,
+            boolean sustained) {
+    }
+
+    /** Highest offered rate that met the p99 and error-rate targets. */
+    public record Ceiling(double sustainedRate, List<CeilingStep> steps) {
+    }
+}
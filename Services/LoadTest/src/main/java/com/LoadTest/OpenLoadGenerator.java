@@ -0,0 +1,124 @@
+package com.LoadTest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.random.RandomGenerator;
+
+/**
+ * Sends requests at a fixed arrival rate, independent of how fast responses
+ * come back (an open model, as opposed to N users in a closed loop).
+ *
+ * The i-th request is due at {@code start + i / rate}. One pacing thread
+ * hands each request to its own virtual thread at its due time, and if it
+ * falls behind it catches up instead of skipping, so a stall on the server
+ * shows up as queueing in the response time rather than as fewer requests.
+ */
+public class OpenLoadGenerator {
+
+    private final HttpClient client;
+    private final SeedData seed;
+    private final Duration timeout;
+    private final int maxInFlight;
+
+    public OpenLoadGenerator(HttpClient client, SeedData seed, Duration timeout, int maxInFlight) {
+        this.client = client;
+        this.seed = seed;
+        this.timeout = timeout;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public Map<Endpoint, EndpointStats> run(Map<Endpoint, Double> mix, double rate, int seconds) {
+        Endpoint[] endpoints = mix.keySet().toArray(new Endpoint[0]);
+        double[] cumulative = cumulativeWeights(mix, endpoints);
+
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : endpoints) {
+            stats.put(endpoint, new EndpointStats());
+        }
+
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        RandomGenerator random = ThreadLocalRandom.current();
+        double intervalNanos = 1_000_000_000.0 / rate;
+        long start = System.nanoTime();
+        long end = start + Duration.ofSeconds(seconds).toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long scheduled = start + (long) (i * intervalNanos);
+                if (scheduled >= end) {
+                    break;
+                }
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                Endpoint endpoint = pick(endpoints, cumulative, random.nextDouble());
+                EndpointStats endpointStats = stats.get(endpoint);
+                if (!inFlight.tryAcquire()) {
+                    endpointStats.recordDropped();
+                    continue;
+                }
+                HttpRequest request = endpoint.build(seed, random, timeout);
+                executor.submit(() -> {
+                    try {
+                        send(endpoint, request, scheduled, endpointStats);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return stats;
+    }
+
+    private void send(Endpoint endpoint, HttpRequest request, long scheduled, EndpointStats stats) {
+        long sent = System.nanoTime();
+        boolean success;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            success = endpoint.isSuccess(response.statusCode());
+        } catch (Exception e) {
+            // Timeouts and connection failures count as errors, at the latency they took
+            success = false;
+        }
+        stats.record(scheduled, sent, System.nanoTime(), success);
+    }
+
+    public static Map<String, LoadTestReport.EndpointResult> results(Map<Endpoint, EndpointStats> stats,
+            int seconds) {
+        Map<String, LoadTestReport.EndpointResult> results = new LinkedHashMap<>();
+        stats.forEach((endpoint, endpointStats) -> results.put(endpoint.key(), endpointStats.toResult(seconds)));
+        return results;
+    }
+
+    private static double[] cumulativeWeights(Map<Endpoint, Double> mix, Endpoint[] endpoints) {
+        double total = mix.values().stream().mapToDouble(Double::doubleValue).sum();
+        double[] cumulative = new double[endpoints.length];
+        double sum = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            sum += mix.get(endpoints[i]) / total;
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+
+    private static Endpoint pick(Endpoint[] endpoints, double[] cumulative, double roll) {
+        for (int i = 0; i < endpoints.length - 1; i++) {
+            if (roll < cumulative[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+}
@@ -0,0 +1,39 @@
+package com.LoadTest;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/** What the seeder created, and where the services listen. */
+public record SeedData(String apiUrl, String authUrl, List<SeedUser> users, List<String> shortCodes,
+        ZipfSampler popularity) {
+
+    public record SeedUser(String username, String password, String accessToken) {
+    }
+
+    public SeedUser randomUser(RandomGenerator random) {
+        return users.get(random.nextInt(users.size()));
+    }
+
+    // Popular links get most of the redirects, like real traffic
+    public String popularShortCode(RandomGenerator random) {
+        return shortCodes.get(popularity.next(random));
+    }
+
+    public static String randomOriginalUrl(RandomGenerator random) {
+        String[] hosts = { "https://www.example.com", "https://news.example.org", "https://shop.example.net",
+                "https://docs.example.io", "http://blog.example.co.uk" };
+        StringBuilder url = new StringBuilder(hosts[random.nextInt(hosts.length)]);
+        int segments = 1 + random.nextInt(5);
+        for (int i = 0; i < segments; i++) {
+            url.append('/');
+            int length = 3 + random.nextInt(10);
+            for (int c = 0; c < length; c++) {
+                url.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        if (random.nextInt(3) == 0) {
+            url.append("?utm_source=loadtest&utm_campaign=").append(random.nextInt(1000));
+        }
+        return url.toString();
+    }
+}
@@ -0,0 +1,105 @@
+package com.LoadTest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Registers users through Auth and creates links for them through the API
+ * service, using the public endpoints so every layer is populated the way
+ * real traffic would populate it.
+ */
+public class Seeder {
+
+    private static final int PARALLELISM = 16;
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public Seeder(HttpClient client) {
+        this.client = client;
+    }
+
+    public SeedData seed(String apiUrl, String authUrl, int users, int urlsPerUser, double zipfExponent)
+            throws Exception {
+        List<SeedData.SeedUser> seededUsers = Collections.synchronizedList(new ArrayList<>());
+        List<String> shortCodes = Collections.synchronizedList(new ArrayList<>());
+        Semaphore permits = new Semaphore(PARALLELISM);
+        long runId = System.currentTimeMillis() % 100_000;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < users; i++) {
+                String username = "lt" + runId + "u" + i;
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        SeedData.SeedUser user = register(authUrl, username);
+                        seededUsers.add(user);
+                        for (int j = 0; j < urlsPerUser; j++) {
+                            shortCodes.add(createUrl(apiUrl, user));
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        // Shuffle so popularity is not correlated with the owning user
+        Collections.shuffle(shortCodes);
+        return new SeedData(apiUrl, authUrl, List.copyOf(seededUsers), List.copyOf(shortCodes),
+                new ZipfSampler(shortCodes.size(), zipfExponent));
+    }
+
+    private SeedData.SeedUser register(String authUrl, String username) throws Exception {
+        String password = "pw-" + username;
+        String body = objectMapper.writeValueAsString(Map.of(
+                "username", username,
+                "email", username + "@loadtest.local",
+                "password", password));
+        JsonNode response = post(URI.create(authUrl + "/api/auth/register"), body, null);
+        return new SeedData.SeedUser(username, password, response.get("accessToken").asText());
+    }
+
+    private String createUrl(String apiUrl, SeedData.SeedUser user) throws Exception {
+        String body = objectMapper.writeValueAsString(
+                Map.of("originalUrl", SeedData.randomOriginalUrl(ThreadLocalRandom.current())));
+        JsonNode response = post(URI.create(apiUrl + "/api/urls"), body, user.accessToken());
+        return response.get("shortCode").asText();
+    }
+
+    private JsonNode post(URI uri, String body, String accessToken) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (accessToken != null) {
+            request.header("Authorization", "Bearer " + accessToken);
+        }
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Seeding " + uri + " failed with " + response.statusCode() + ": "
+                    + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+}
@@ -0,0 +1,95 @@
+package com.LoadTest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One service under test, started from its Spring Boot jar in a child JVM.
+ *
+ * The jar is launched through {@code PropertiesLauncher} so extra jars (the
+ * H2 driver) can be put on its classpath with {@code loader.path}; every
+ * setting that would come from the environment is passed on the command line.
+ */
+public class ServiceProcess implements AutoCloseable {
+
+    private final String name;
+    private final int port;
+    private final Path logFile;
+    private Process process;
+
+    public ServiceProcess(String name, int port, Path workDir) {
+        this.name = name;
+        this.port = port;
+        this.logFile = workDir.resolve(name + ".log");
+    }
+
+    public void start(Path jar, String jvmArgs, Map<String, String> properties) throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(jar.toAbsolutePath() + " not found, build it with ./mvnw -DskipTests package");
+        }
+        Files.createDirectories(logFile.getParent());
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(Arrays.asList(jvmArgs.trim().split("\\s+")));
+        command.add("-Dloader.path=" + StandIns.h2Jar());
+        command.add("-cp");
+        command.add(jar.toAbsolutePath().toString());
+        command.add("org.springframework.boot.loader.launch.PropertiesLauncher");
+        command.add("--server.port=" + port);
+        properties.forEach((key, value) -> command.add("--" + key + "=" + value));
+
+        process = new ProcessBuilder(command)
+                .directory(logFile.getParent().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+    }
+
+    public void awaitHealthy(HttpClient client, int timeoutSeconds) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl() + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(timeoutSeconds).toNanos();
+
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited during startup, see " + logFile.toAbsolutePath());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " not healthy after " + timeoutSeconds + " s, see " + logFile.toAbsolutePath());
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        if (process != null && process.isAlive()) {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.LoadTest;
+
+import org.h2.tools.Server;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+/**
+ * Local stand-ins for the production dependencies: an H2 TCP server in MySQL
+ * mode for both databases and an embedded Redis for the caches and the
+ * revocation channel.
+ */
+public class StandIns implements AutoCloseable {
+
+    private final int h2Port;
+    private final int redisPort;
+    private Server h2Server;
+    private RedisServer redisServer;
+
+    public StandIns(int h2Port, int redisPort) {
+        this.h2Port = h2Port;
+        this.redisPort = redisPort;
+    }
+
+    public void start() throws SQLException, IOException {
+        // -ifNotExists lets the services create their in-memory databases remotely
+        h2Server = Server.createTcpServer("-tcpPort", String.valueOf(h2Port), "-ifNotExists").start();
+        redisServer = new RedisServer(redisPort);
+        redisServer.start();
+    }
+
+    public String jdbcUrl(String database) {
+        return "jdbc:h2:tcp://localhost:" + h2Port + "/mem:" + database
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    }
+
+    public int redisPort() {
+        return redisPort;
+    }
+
+    /** The H2 jar, so it can be added to the services' classpath. */
+    public static Path h2Jar() {
+        try {
+            return Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot locate the H2 jar", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+        if (h2Server != null) {
+            h2Server.stop();
+        }
+    }
+}
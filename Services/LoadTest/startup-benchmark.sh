@@ -0,0 +1,86 @@
+#!/usr/bin/env bash
+# Time to first response and resident memory for each startup variant of a service.
+#
+#   ./startup-benchmark.sh <service-dir> <url-path> [runs]
+#   ./startup-benchmark.sh ../Api-Service /actuator/health 5
+#
+# Variants whose artifacts are missing are skipped:
+#   jar    target/<artifact>-<version>.jar         (mvn package)
+#   cds    target/cds/*.jar + application.jsa      (mvn -Pcds package)
+#   native target/<artifact>                       (mvn -Pnative native:compile)
+#
+# The service is started with whatever environment the caller exports
+# (DB_URL, REDIS_HOST, ...); extra JVM/app arguments go in STARTUP_ARGS.
+# Results are appended to target/startup-benchmark.csv in the service dir.
+set -euo pipefail
+
+service_dir=${1:?service dir}
+url_path=${2:?url path}
+runs=${3:-5}
+port=${PORT:-8080}
+timeout_s=${TIMEOUT_SECONDS:-120}
+read -r -a extra_args <<< "${STARTUP_ARGS:-}"
+
+cd "$service_dir"
+artifact=$(basename "$(pwd)")
+csv=target/startup-benchmark.csv
+[[ -f $csv ]] || echo "variant,run,ready_ms,rss_kb" > "$csv"
+
+now_ms() { date +%s%3N; }
+
+measure() {
+    local variant=$1; shift
+    local results=()
+    for ((run = 1; run <= runs; run++)); do
+        local start pid ready=""
+        start=$(now_ms)
+        "$@" --server.port="$port" "${extra_args[@]}" > "target/startup-$variant.log" 2>&1 &
+        pid=$!
+        while (( $(now_ms) - start < timeout_s * 1000 )); do
+            if curl -s -o /dev/null "http://localhost:$port$url_path"; then
+                ready=$(( $(now_ms) - start ))
+                break
+            fi
+            kill -0 "$pid" 2>/dev/null || break
+            sleep 0.02
+        done
+        local rss
+        rss=$(ps -o rss= -p "$pid" | tr -d ' ' || true)
+        kill "$pid" 2>/dev/null || true
+        wait "$pid" 2>/dev/null || true
+        if [[ -z $ready ]]; then
+            echo "$variant run $run did not answer, see target/startup-$variant.log" >&2
+            continue
+        fi
+        echo "$variant,$run,$ready,$rss" >> "$csv"
+        results+=("$ready $rss")
+    done
+    if (( ${#results[@]} > 0 )); then
+        printf '%s\n' "${results[@]}" | awk -v v="$variant" '
+            { ms[NR] = $1; kb[NR] = $2 }
+            END {
+                n = asort(ms); asort(kb); m = int((n + 1) / 2)
+                printf "%-6s median ready %6d ms   median rss %7.1f MB   (%d runs)\n", v, ms[m], kb[m] / 1024, n
+            }'
+    fi
+}
+
+jar=$(ls target/"$artifact"-*.jar 2>/dev/null | grep -v plain | head -n 1 || true)
+if [[ -n $jar ]]; then
+    measure jar java -jar "$jar"
+else
+    echo "jar    skipped, run mvn package" >&2
+fi
+
+cds_jar=$(ls target/cds/"$artifact"-*.jar 2>/dev/null | head -n 1 || true)
+if [[ -n $cds_jar && -f target/cds/application.jsa ]]; then
+    measure cds java -XX:SharedArchiveFile=target/cds/application.jsa -Dspring.aot.enabled=true -jar "$cds_jar"
+else
+    echo "cds    skipped, run mvn -Pcds package" >&2
+fi
+
+if [[ -x target/$artifact ]]; then
+    measure native "target/$artifact"
+else
+    echo "native skipped, run mvn -Pnative native:compile" >&2
+fi